@@ -0,0 +1,8 @@
+#!/usr/bin/env bash
+
+# Compile everything, then run the benchmarks (see src/bench_soclog/Benchmarks.java for options)
+mkdir -p classes
+java_files=$(find src -name "*.java")
+javac -cp "lib/*:." -d classes $java_files || exit 1 # linux/macOS
+# java -cp "classes;lib/*" -Xmx4g bench_soclog.Benchmarks %* # windows
+java -cp "classes:lib/*" -Xmx4g bench_soclog.Benchmarks "$@" # linux/macOS
@@ -0,0 +1,153 @@
+package bench_soclog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A small timing harness, for a build without JMH.
+ *
+ * Each case is first run for the warmup time so the JIT compiles the hot path, which also
+ * calibrates how many calls make up one measured iteration (calls that take nanoseconds are
+ * batched, calls that take seconds run once). Results are reported per call as the median
+ * and minimum over the measured iterations; every result is handed to a volatile sink so
+ * the JIT cannot drop the work.
+ */
+final class Bench {
+    static volatile Object sink;
+
+    private final long warmupMs;
+    private final long iterationMs;
+    private final int iterations;
+    private final List<Result> results = new ArrayList<>();
+
+    Bench(long warmupMs, long iterationMs, int iterations) {
+        this.warmupMs = warmupMs;
+        this.iterationMs = iterationMs;
+        this.iterations = iterations;
+    }
+
+    List<Result> getResults() {
+        return results;
+    }
+
+    Result run(String name, long size, Callable<?> operation) throws Exception {
+        long calls = 0;
+        long start = System.nanoTime();
+        long warmupNanos = warmupMs * 1_000_000L;
+        do {
+            sink = operation.call();
+            calls++;
+        } while (System.nanoTime() - start < warmupNanos);
+        long perCall = Math.max(1, (System.nanoTime() - start) / calls);
+        long batch = Math.max(1, iterationMs * 1_000_000L / perCall);
+
+        double[] nanosPerCall = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long begin = System.nanoTime();
+            for (long n = 0; n < batch; n++) {
+                sink = operation.call();
+            }
+            nanosPerCall[i] = (double) (System.nanoTime() - begin) / batch;
+        }
+        Arrays.sort(nanosPerCall);
+        Result result = new Result(name, size, nanosPerCall[iterations / 2], nanosPerCall[0]);
+        results.add(result);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Write results as CSV: benchmark,size,median_ns,min_ns.
+     */
+    static void write(Path file, List<Result> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("benchmark,size,median_ns,min_ns");
+        for (Result result : results) {
+            lines.add(result.name + "," + result.size + ","
+                + String.format(Locale.ROOT, "%.1f,%.1f", result.medianNanos, result.minNanos));
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(",");
+            if (fields.length != 4 || fields[0].equals("benchmark")) {
+                continue;
+            }
+            Result result = new Result(fields[0], Long.parseLong(fields[1]),
+                Double.parseDouble(fields[2]), Double.parseDouble(fields[3]));
+            results.put(result.key(), result);
+        }
+        return results;
+    }
+
+    /**
+     * Print each result next to its baseline.
+     * @return number of benchmarks whose median got slower by more than the tolerance
+     */
+    static int compare(List<Result> results, Map<String, Result> baseline, double tolerance) {
+        int regressions = 0;
+        System.out.println();
+        System.out.println("Against baseline (tolerance " + Math.round(tolerance * 100) + "%):");
+        for (Result result : results) {
+            Result before = baseline.get(result.key());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "  %-45s %10s  (new)%n", result.key(), "");
+                continue;
+            }
+            double change = result.medianNanos / before.medianNanos - 1;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "  %-45s %+9.1f%%%s%n", result.key(), change * 100,
+                regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    static final class Result {
+        final String name;
+        final long size;
+        final double medianNanos;
+        final double minNanos;
+
+        Result(String name, long size, double medianNanos, double minNanos) {
+            this.name = name;
+            this.size = size;
+            this.medianNanos = medianNanos;
+            this.minNanos = minNanos;
+        }
+
+        String key() {
+            return name + "@" + size;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-45s %14s/op  (min %s)", key(), format(medianNanos), format(minNanos));
+        }
+
+        private static String format(double nanos) {
+            if (nanos >= 1e9) {
+                return String.format(Locale.ROOT, "%.2f s", nanos / 1e9);
+            } else if (nanos >= 1e6) {
+                return String.format(Locale.ROOT, "%.2f ms", nanos / 1e6);
+            } else if (nanos >= 1e3) {
+                return String.format(Locale.ROOT, "%.2f us", nanos / 1e3);
+            }
+            return String.format(Locale.ROOT, "%.1f ns", nanos);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package bench_soclog;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EntityCache;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.MappedChunkParser;
+import edu.hofstra.csc17.proj.soclog.rules.RuleSet;
+
+/**
+ * Benchmarks for the parser, ingestion and every AnalyticsEngine query, on data from
+ * {@link LogGenerator}. Run through runbench.sh:
+ * <pre>
+ * ./runbench.sh                                   # sizes 10^4, 10^5, 10^6
+ * ./runbench.sh --sizes 10000000 --filter engine  # 10^7 events needs a larger -Xmx
+ * ./runbench.sh --out base.csv                    # record a baseline
+ * ./runbench.sh --baseline base.csv               # exit code 2 if anything got slower
+ * </pre>
+ * Options: --sizes n,n,..  --filter substring  --warmup-ms n  --iteration-ms n  --iterations n
+ * --out file.csv  --baseline file.csv  --tolerance fraction (default 0.10)
+ */
+public final class Benchmarks {
+    private static final long SEED = 42;
+    private static final int INGEST_FILES = 32;
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private final Bench bench;
+    private final String filter;
+
+    private Benchmarks(Bench bench, String filter) {
+        this.bench = bench;
+        this.filter = filter;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Long> sizes = Arrays.asList(10_000L, 100_000L, 1_000_000L);
+        String filter = "";
+        long warmupMs = 1000;
+        long iterationMs = 500;
+        int iterations = 5;
+        Path out = null;
+        Path baseline = null;
+        double tolerance = 0.10;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = new ArrayList<>();
+                    for (String size : value.split(",")) {
+                        sizes.add(Long.parseLong(size.trim()));
+                    }
+                    break;
+                case "--filter":
+                    filter = value;
+                    break;
+                case "--warmup-ms":
+                    warmupMs = Long.parseLong(value);
+                    break;
+                case "--iteration-ms":
+                    iterationMs = Long.parseLong(value);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                case "--baseline":
+                    baseline = Paths.get(value);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(value);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+            i++;
+        }
+
+        Benchmarks benchmarks = new Benchmarks(new Bench(warmupMs, iterationMs, iterations), filter);
+        Path scratch = Files.createTempDirectory("soclog-bench");
+        try {
+            for (long size : sizes) {
+                benchmarks.parser(scratch, size);
+                benchmarks.ingest(scratch, size);
+                benchmarks.engine(size);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(scratch)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        List<Bench.Result> results = benchmarks.bench.getResults();
+        if (out != null) {
+            Bench.write(out, results);
+            System.out.println("Wrote " + results.size() + " result(s) to " + out);
+        }
+        if (baseline != null && Bench.compare(results, Bench.read(baseline), tolerance) > 0) {
+            System.exit(2);
+        }
+    }
+
+    private boolean selected(String name) {
+        return name.contains(filter);
+    }
+
+    private void run(String name, long size, Callable<?> operation) throws Exception {
+        if (selected(name)) {
+            bench.run(name, size, operation);
+        }
+    }
+
+    private void parser(Path scratch, long size) throws Exception {
+        for (LogGenerator.Profile profile : LogGenerator.Profile.values()) {
+            String prefix = "parser." + profile.name().toLowerCase() + ".";
+            EventParser.Mode[] modes = EventParser.Mode.values();
+            if (Arrays.stream(modes).noneMatch(mode -> selected(prefix + mode.name().toLowerCase()))
+                    && !selected(prefix + "mapped")) {
+                continue;
+            }
+            Path file = scratch.resolve("parser-" + profile + "-" + size + ".csv");
+            new LogGenerator(SEED, profile).writeCsv(file, size);
+            for (EventParser.Mode mode : modes) {
+                EventParser parser = new EventParser(mode, new EntityCache());
+                run(prefix + mode.name().toLowerCase(), size, () -> parser.parse(file));
+            }
+            // About four chunks per worker, so the stitcher always has work queued behind it
+            long chunkSize = Math.max(64 * 1024, Files.size(file) / (WORKERS * 4L));
+            try (MappedChunkParser parser = new MappedChunkParser(WORKERS, chunkSize, new EntityCache())) {
+                run(prefix + "mapped", size, () -> parser.parse(file));
+            }
+            Files.delete(file);
+        }
+    }
+
+    private void ingest(Path scratch, long size) throws Exception {
+        if (!selected("ingest.files" + INGEST_FILES) && !selected("ingest.parallel")) {
+            return;
+        }
+        Path directory = scratch.resolve("ingest-" + size);
+        List<Path> files = LogGenerator.writeFiles(directory, INGEST_FILES,
+            Math.max(1, size / INGEST_FILES), LogGenerator.Profile.CLEAN, SEED);
+        run("ingest.files" + INGEST_FILES, size, () -> new LogIngestor(new EventParser(EventParser.Mode.LINE, new EntityCache())).ingest(files));
+        ExecutorService pool = LogIngestor.newWorkerPool(WORKERS, false);
+        try {
+            LogIngestor parallel = new LogIngestor(new EventParser(EventParser.Mode.LINE, new EntityCache()), null,
+                pool, WORKERS, LogIngestor.DEFAULT_MAX_IN_FLIGHT_EVENTS);
+            run("ingest.parallel", size, () -> parallel.ingest(files));
+        } finally {
+            pool.shutdownNow();
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    private void engine(long size) throws Exception {
+        // Includes generating the events, which are streamed in rather than held in a list
+        run("engine.build", size, () -> build(size));
+
+        // The generator advances about 0.75 s per event; query the middle tenth of the span
+        long span = Math.max(10, size * 3 / 4);
+        Instant start = LogGenerator.START.plusSeconds(span * 45 / 100);
+        Instant end = LogGenerator.START.plusSeconds(span * 55 / 100);
+        List<String> sensitive = Arrays.asList("/etc", "/var/log/file0.log", "/home/user/file9.log");
+        RuleSet rules = RuleSet.parse(Arrays.asList(
+            "etc-write: type=write; file.path=/etc",
+            "dns-out: type=sendto; net.port=53",
+            "root-fork: type=fork; child.privilege=root",
+            "bash-exec: type=execute; process.name=bash"));
+
+        Map<String, Function<AnalyticsEngine, Object>> queries = new LinkedHashMap<>();
+        queries.put("engine.uniqueEvents", AnalyticsEngine::uniqueEvents);
+        queries.put("engine.uniqueEvents.window", e -> e.uniqueEvents(start, end));
+        queries.put("engine.topKFrequentEvents", e -> e.topKFrequentEvents(10));
+        queries.put("engine.topKFrequentEvents.window", e -> e.topKFrequentEvents(start, end, 10));
+        queries.put("engine.countByEventType", AnalyticsEngine::countByEventType);
+        queries.put("engine.topProcessesByWindow", e -> e.topProcessesByWindow(start, end, 5));
+        queries.put("engine.detectPrivilegeEscalation", e -> e.detectPrivilegeEscalation(null, null));
+        queries.put("engine.detectPrivilegeEscalation.window", e -> e.detectPrivilegeEscalation(start, end));
+        queries.put("engine.detectPrivilegeEscalationChains", AnalyticsEngine::detectPrivilegeEscalationChains);
+        queries.put("engine.detectHighFrequencyProcesses", e -> e.detectHighFrequencyProcesses(start, end, 30));
+        queries.put("engine.detectHighFrequencyBursts", e -> e.detectHighFrequencyBursts(start, end, 30));
+        queries.put("engine.findSensitiveFileAccess", e -> e.findSensitiveFileAccess(sensitive));
+        queries.put("engine.findNetworkEvents", e -> e.findNetworkEvents("10.0.0.0/8", 53, start, end));
+        queries.put("engine.topTalkers", e -> e.topTalkers("192.168.0.0/16", null, null, 10));
+        queries.put("engine.countRuleMatches", e -> e.countRuleMatches(rules));
+        queries.keySet().removeIf(name -> !selected(name));
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        AnalyticsEngine engine = build(size);
+        for (Map.Entry<String, Function<AnalyticsEngine, Object>> query : queries.entrySet()) {
+            run(query.getKey(), size, () -> query.getValue().apply(engine));
+        }
+    }
+
+    private static AnalyticsEngine build(long size) {
+        AnalyticsEngine engine = new AnalyticsEngine(new ArrayList<>());
+        new LogGenerator(SEED, LogGenerator.Profile.CLEAN).forEachEvent(size, engine::append);
+        return engine;
+    }
+}
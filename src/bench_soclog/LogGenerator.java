@@ -0,0 +1,225 @@
+package bench_soclog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+
+/**
+ * Deterministic synthetic logs in the schema of data/*.csv, for benchmarks.
+ *
+ * A fixed pool of processes, files and endpoints is drawn from with a skew, so the data has
+ * the repetition real logs have (a few hot processes and files, a long tail) and the same
+ * seed always gives the same records. Timestamps never go backwards within a file.
+ *
+ * Usage: java bench_soclog.LogGenerator &lt;directory&gt; &lt;files&gt; &lt;events-per-file&gt; [clean|malformed|burst]
+ */
+public final class LogGenerator {
+
+    /**
+     * Shape of the generated records.
+     */
+    public enum Profile {
+        /** Every record valid, roughly one event per second. */
+        CLEAN,
+        /** About one record in ten broken in the ways data/malformed_logs.csv is. */
+        MALFORMED,
+        /** A few processes logging many events within the same second, like data/burst_traffic.csv. */
+        BURST
+    }
+
+    public static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final String[] PROCESS_NAMES = {
+        "bash", "sshd", "cron", "httpd", "logger", "monitor", "backupd", "python", "java", "sudo",
+        "systemd", "dns", "postgres", "nginx", "rsync", "curl"
+    };
+    private static final String[] DIRECTORIES = {"/var/log", "/etc", "/tmp", "/home/user", "/var/data", "/proc"};
+    private static final String[] PERMISSIONS = {"644", "640", "600", "755", "444"};
+    private static final String[] PROTOCOLS = {"TCP", "UDP"};
+    private static final int[] PORTS = {22, 53, 80, 443, 5432, 8080};
+
+    private final Random random;
+    private final Profile profile;
+    private final ProcessInfo[] processes;
+    private final FileInfo[] files;
+    private final NetworkInfo[] endpoints;
+    private long second;
+
+    public LogGenerator(long seed, Profile profile) {
+        this.random = new Random(seed);
+        this.profile = profile;
+        this.processes = new ProcessInfo[64];
+        for (int i = 0; i < processes.length; i++) {
+            String name = PROCESS_NAMES[i % PROCESS_NAMES.length];
+            processes[i] = new ProcessInfo(name, 1000 + i, "/usr/bin/" + name,
+                random.nextInt(4) == 0 ? ProcessInfo.PRIV_ROOT : ProcessInfo.PRIV_USER);
+        }
+        this.files = new FileInfo[512];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new FileInfo(DIRECTORIES[i % DIRECTORIES.length] + "/file" + i + ".log", 3 + i % 60,
+                PERMISSIONS[i % PERMISSIONS.length]);
+        }
+        this.endpoints = new NetworkInfo[256];
+        for (int i = 0; i < endpoints.length; i++) {
+            String ip = (i % 3 == 0 ? "10.0." : "192.168.") + (i / 64) + "." + (i % 64 + 1);
+            endpoints[i] = new NetworkInfo(ip, PORTS[i % PORTS.length], PROTOCOLS[i % PROTOCOLS.length]);
+        }
+    }
+
+    /**
+     * Hand out count events in time order without building a list.
+     */
+    public void forEachEvent(long count, Consumer<Event> consumer) {
+        for (long i = 0; i < count; i++) {
+            consumer.accept(nextEvent());
+        }
+    }
+
+    public List<Event> events(int count) {
+        List<Event> events = new ArrayList<>(count);
+        forEachEvent(count, events::add);
+        return events;
+    }
+
+    /**
+     * Write count records to a CSV file.
+     */
+    public void writeCsv(Path file, long count) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < count; i++) {
+                if (profile == Profile.MALFORMED && random.nextInt(10) == 0) {
+                    out.write(malformedLine());
+                } else {
+                    out.write(toCsv(nextEvent()));
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Write files CSV files of eventsPerFile records each, named log-000.csv and up.
+     */
+    public static List<Path> writeFiles(Path directory, int files, long eventsPerFile, Profile profile, long seed)
+            throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            Path file = directory.resolve(String.format("log-%03d.csv", i));
+            new LogGenerator(seed + i, profile).writeCsv(file, eventsPerFile);
+            paths.add(file);
+        }
+        return paths;
+    }
+
+    private Event nextEvent() {
+        if (profile == Profile.BURST) {
+            // Mostly several events per second from a handful of processes
+            if (random.nextInt(20) == 0) {
+                second++;
+            }
+        } else if (random.nextInt(4) != 0) {
+            second++;
+        }
+        Instant timestamp = START.plusSeconds(second);
+        ProcessInfo subject = profile == Profile.BURST ? processes[random.nextInt(4)] : skewed(processes);
+
+        int kind = random.nextInt(100);
+        if (kind < 40) {
+            return new ReadEvent(timestamp, subject, skewed(files), "mode=r");
+        } else if (kind < 60) {
+            return new WriteEvent(timestamp, subject, skewed(files), "mode=w");
+        } else if (kind < 67) {
+            return new OpenEvent(timestamp, subject, skewed(files), "mode=r");
+        } else if (kind < 74) {
+            return new CloseEvent(timestamp, subject, skewed(files), "mode=r");
+        } else if (kind < 78) {
+            return new ExecuteEvent(timestamp, subject, skewed(files), "exit=0");
+        } else if (kind < 86) {
+            NetworkInfo endpoint = skewed(endpoints);
+            return new SendToEvent(timestamp, subject, endpoint, "protocol=" + endpoint.getProtocol());
+        } else if (kind < 94) {
+            NetworkInfo endpoint = skewed(endpoints);
+            return new ReceiveFromEvent(timestamp, subject, endpoint, "protocol=" + endpoint.getProtocol());
+        } else {
+            return new ForkEvent(timestamp, subject, skewed(processes), "status=success");
+        }
+    }
+
+    /**
+     * Pick from the pool with a bias towards the front, so a few values dominate.
+     */
+    private <T> T skewed(T[] pool) {
+        double u = random.nextDouble();
+        return pool[(int) (u * u * u * pool.length)];
+    }
+
+    private String malformedLine() {
+        ProcessInfo subject = skewed(processes);
+        String time = START.plusSeconds(second).toString();
+        String process = processCsv(subject);
+        switch (random.nextInt(6)) {
+            case 0:
+                return "invalid_type," + time + ",mode=r," + process + ",path=/tmp/file.txt;fd=2;permissions=644";
+            case 1:
+                return "read,invalid-timestamp,mode=r," + process + ",path=/tmp/file.txt;fd=3;permissions=644";
+            case 2:
+                return "read," + time + ",mode=r";
+            case 3:
+                return "write," + time + ",mode=w," + process + ",path=/tmp/file.txt;fd=4;permissions=999";
+            case 4:
+                return "sendto," + time + ",protocol=TCP," + process + ",ip=999.1.1.1;port=80;protocol=TCP";
+            default:
+                return "read," + time + ",mode=r,name=test;pid=-1;path=/bin/test;privilege=user,"
+                    + "path=/tmp/file.txt;fd=1;permissions=644";
+        }
+    }
+
+    static String toCsv(Event event) {
+        StringBuilder line = new StringBuilder(160);
+        line.append(event.getType()).append(',').append(event.getTimestamp()).append(',')
+            .append(event.getFlags()).append(',').append(processCsv(event.getSubject())).append(',');
+        if (event.getObject() instanceof ProcessInfo) {
+            line.append(processCsv((ProcessInfo) event.getObject()));
+        } else if (event.getObject() instanceof NetworkInfo) {
+            NetworkInfo endpoint = (NetworkInfo) event.getObject();
+            line.append("ip=").append(endpoint.getIpAddress()).append(";port=").append(endpoint.getPort())
+                .append(";protocol=").append(endpoint.getProtocol());
+        } else {
+            FileInfo file = (FileInfo) event.getObject();
+            line.append("path=").append(file.getPath()).append(";fd=").append(file.getFileDescriptor())
+                .append(";permissions=").append(file.getPermissions());
+        }
+        return line.toString();
+    }
+
+    private static String processCsv(ProcessInfo process) {
+        return "name=" + process.getName() + ";pid=" + process.getPid() + ";path=" + process.getModulePath()
+            + ";privilege=" + process.getPrivilege();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: java bench_soclog.LogGenerator <directory> <files> <events-per-file> "
+                + "[clean|malformed|burst]");
+            System.exit(1);
+        }
+        Profile profile = args.length > 3 ? Profile.valueOf(args[3].toUpperCase()) : Profile.CLEAN;
+        List<Path> written = writeFiles(Paths.get(args[0]), Integer.parseInt(args[1]), Long.parseLong(args[2]),
+            profile, 42);
+        System.out.println("Wrote " + written.size() + " file(s) to " + args[0]);
+    }
+}
@@ -7,18 +7,90 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.analysis.ColumnarEventStore;
+import edu.hofstra.csc17.proj.soclog.analysis.EventStore;
+import edu.hofstra.csc17.proj.soclog.analysis.SlidingWindowDetector;
+import edu.hofstra.csc17.proj.soclog.ingest.EventSink;
+import edu.hofstra.csc17.proj.soclog.ingest.LogFollower;
 import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor;
+import edu.hofstra.csc17.proj.soclog.ingest.RejectionPolicy;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EntityCache;
 import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.metrics.IngestMetrics;
+import edu.hofstra.csc17.proj.soclog.metrics.MetricsReporter;
+import edu.hofstra.csc17.proj.soclog.metrics.QueryMetrics;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.store.EventFileReader;
+import edu.hofstra.csc17.proj.soclog.store.EventFileWriter;
+import edu.hofstra.csc17.proj.soclog.store.SegmentWriter;
 
 public final class Main {
+    // Per-process events per minute that count as a burst in --follow mode
+    private static final long FOLLOW_BURST_THRESHOLD_PER_MINUTE = 100;
+    // Queries at least this slow are logged to stderr in --metrics mode
+    private static final long SLOW_QUERY_MILLIS = 100;
+    // Rejections printed per reason; --rejections writes all of them to a file
+    private static final int REJECTION_SAMPLES_PER_REASON = 10;
 
     public static void main(String[] args) throws Exception {
-        List<Path> inputs;
+        boolean follow = false;
+        Path saveTo = null;
+        Path segmentsTo = null;
+        Long metricsSeconds = null;
+        Path rejectionsTo = null;
+        while (args.length > 0 && (args[0].equals("--follow") || args[0].equals("--save")
+                || args[0].equals("--segments") || args[0].equals("--metrics") || args[0].equals("--rejections"))) {
+            if (args[0].equals("--follow")) {
+                follow = true;
+                args = Arrays.copyOfRange(args, 1, args.length);
+                continue;
+            }
+            if (args.length < 2) {
+                printUsage();
+                System.exit(1);
+            }
+            if (args[0].equals("--save")) {
+                saveTo = Paths.get(args[1]);
+            } else if (args[0].equals("--segments")) {
+                segmentsTo = Paths.get(args[1]);
+            } else if (args[0].equals("--rejections")) {
+                rejectionsTo = Paths.get(args[1]);
+            } else {
+                try {
+                    metricsSeconds = Long.parseLong(args[1]);
+                } catch (NumberFormatException e) {
+                    metricsSeconds = -1L;
+                }
+                if (metricsSeconds < 0) {
+                    System.err.println("Invalid --metrics interval: " + args[1]);
+                    printUsage();
+                    System.exit(1);
+                }
+            }
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+
+        if (follow) {
+            // The follower only feeds a live engine; nothing is saved, instrumented or spilled
+            if (saveTo != null || segmentsTo != null || metricsSeconds != null || rejectionsTo != null) {
+                System.err.println("--follow cannot be combined with --save, --segments, --metrics or --rejections");
+                printUsage();
+                System.exit(1);
+            }
+            // Directories are followed as a whole so files created later are picked up
+            follow(args.length == 0 ? Arrays.asList(Paths.get("data")) : Arrays.stream(args)
+                    .map(Paths::get)
+                    .collect(Collectors.toList()));
+            return;
+        }
 
+        List<Path> inputs;
         if (args.length == 0) {
             // Default to data directory if no arguments provided
             System.out.println("No arguments provided. Using default 'data' directory...");
@@ -46,27 +118,86 @@ public final class Main {
             System.exit(1);
         }
 
-        System.out.println("Processing " + inputs.size() + " CSV file(s):");
+        // Event files saved by an earlier run are reloaded as is instead of parsed
+        List<Path> csvInputs = new ArrayList<>();
+        List<Path> eventFiles = new ArrayList<>();
+        for (Path input : inputs) {
+            (input.toString().endsWith(EventFileWriter.EXTENSION) ? eventFiles : csvInputs).add(input);
+        }
+
+        System.out.println("Processing " + inputs.size() + " file(s):");
         for (Path input : inputs) {
             System.out.println("  - " + input);
         }
 
-        LogIngestor ingestor = new LogIngestor(new EventParser());
-        LogIngestor.IngestionResult summary = ingestor.ingest(inputs);
+        // With --metrics, ingestion and queries are instrumented, visible over JMX and dumped
+        // periodically to stderr
+        IngestMetrics metrics = metricsSeconds == null ? null : new IngestMetrics();
+        QueryMetrics queryMetrics = metricsSeconds == null ? null
+            : new QueryMetrics(SLOW_QUERY_MILLIS, System.err::println);
+        MetricsReporter reporter = null;
+        if (metrics != null) {
+            metrics.register("main");
+            queryMetrics.register("main");
+            if (metricsSeconds > 0) {
+                reporter = new MetricsReporter(() -> metrics.format() + queryMetrics.format(), System.err,
+                    metricsSeconds * 1000);
+            }
+        }
+        LogIngestor ingestor = new LogIngestor(new EventParser(EventParser.Mode.LINE, new EntityCache(), metrics));
+        RejectionPolicy rejectionPolicy = RejectionPolicy.firstPerReason(REJECTION_SAMPLES_PER_REASON);
+        if (rejectionsTo != null) {
+            rejectionPolicy = rejectionPolicy.spillTo(rejectionsTo);
+        }
+        LogIngestor.IngestionResult summary = ingestor.ingest(csvInputs, rejectionPolicy);
+        if (metrics != null) {
+            System.out.print(metrics.format());
+        }
+        AnalyticsEngine engine = new AnalyticsEngine(new ColumnarEventStore(), queryMetrics);
+        engine.appendAll(summary.getEvents());
+        for (Path eventFile : eventFiles) {
+            EventFileReader.loadInto(eventFile, engine);
+        }
+        EventStore store = engine.getStore();
 
-        System.out.println("Valid events: " + summary.getEvents().size());
-        System.out.println("Rejections: " + summary.getErrors().size());
+        if (saveTo != null) {
+            try (EventFileWriter writer = new EventFileWriter(saveTo)) {
+                for (int row = 0; row < store.size(); row++) {
+                    writer.write(store.event(row));
+                }
+            }
+            System.out.println("Saved " + store.size() + " events to " + saveTo);
+        }
+        if (segmentsTo != null) {
+            SegmentWriter writer = new SegmentWriter(segmentsTo);
+            try {
+                for (int row = 0; row < store.size(); row++) {
+                    writer.write(store.event(row));
+                }
+            } finally {
+                writer.close();
+            }
+            System.out.println("Wrote " + writer.getSegments().size() + " hourly segment(s) to " + segmentsTo);
+        }
+
+        System.out.println("Valid events: " + store.size());
+        System.out.println("Rejections: " + summary.getRejectionCount());
         
-        // Print all rejection errors
+        // Print the sampled rejection errors
         if (!summary.getErrors().isEmpty()) {
-            System.out.println("\nAll rejections:");
+            boolean all = summary.getErrors().size() == summary.getRejectionCount();
+            System.out.println(all ? "\nAll rejections:"
+                : "\nFirst " + REJECTION_SAMPLES_PER_REASON + " rejections per reason:");
             for (int i = 0; i < summary.getErrors().size(); i++) {
                 System.out.println("  " + (i + 1) + ". " + summary.getErrors().get(i));
             }
+            if (!all) {
+                System.out.println("  ... " + (summary.getRejectionCount() - summary.getErrors().size())
+                    + " more" + (rejectionsTo == null ? "" : ", all written to " + rejectionsTo));
+            }
         }
 
         // Demonstrate analytics functionality
-        AnalyticsEngine engine = new AnalyticsEngine(summary.getEvents());
         System.out.println();
         System.out.println("Analytics Engine Demo");
 
@@ -75,6 +206,14 @@ public final class Main {
 
         // Advanced SOC analytics
         demonstrateSOCAnalytics(engine);
+
+        if (reporter != null) {
+            reporter.close();
+        }
+        if (queryMetrics != null) {
+            System.out.println();
+            System.out.print(queryMetrics.format());
+        }
     }
 
     private static void demonstrateBasicAnalytics(AnalyticsEngine engine) {
@@ -108,6 +247,49 @@ public final class Main {
 
     }
 
+    /**
+     * Tail the inputs, feeding new records into a live engine and reporting bursts and new
+     * privilege escalations as they happen. Runs until interrupted.
+     */
+    private static void follow(List<Path> targets) throws IOException, InterruptedException {
+        AnalyticsEngine engine = new AnalyticsEngine(new ArrayList<>());
+        SlidingWindowDetector bursts = new SlidingWindowDetector(FOLLOW_BURST_THRESHOLD_PER_MINUTE,
+            alert -> System.out.println("  ALERT: " + alert.getProcessName() + " logged " + alert.getCount()
+                + " events within a minute at " + alert.getTimestamp()));
+        long[] rejections = new long[1];
+        EventSink sink = new EventSink() {
+            @Override
+            public void accept(Event event) {
+                engine.append(event);
+                bursts.accept(event);
+            }
+
+            @Override
+            public void reject(String error) {
+                rejections[0]++;
+                System.out.println("  Rejected: " + error);
+            }
+        };
+
+        System.out.println("Following " + targets + " (Ctrl-C to stop)...");
+        Map<String, Long> reported = new HashMap<>();
+        try (LogFollower follower = new LogFollower(targets, sink)) {
+            do {
+                if (!follower.poll()) {
+                    continue;
+                }
+                System.out.println("Events: " + engine.getStore().size() + ", rejections: " + rejections[0]);
+                for (Map.Entry<String, Long> entry : engine.detectPrivilegeEscalation(null, null).entrySet()) {
+                    Long previous = reported.put(entry.getKey(), entry.getValue());
+                    if (!entry.getValue().equals(previous)) {
+                        System.out.println("  ALERT: privilege escalation by " + entry.getKey()
+                            + " (" + entry.getValue() + " total)");
+                    }
+                }
+            } while (follower.awaitChange());
+        }
+    }
+
     /**
      * Get all CSV files from the given directory.
      */
@@ -150,12 +332,25 @@ public final class Main {
         System.err.println("    (processes all CSV files in specified directory)");
         System.err.println("  java edu.hofstra.csc17.proj.soclog.Main <csv-file> [<csv-file>...]");
         System.err.println("    (processes specified CSV files)");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main --save <file.events> [<directory>|<csv-file>...]");
+        System.err.println("    (also saves the valid events in binary form; pass the .events file later to skip parsing)");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main --segments <directory> [<directory>|<csv-file>...]");
+        System.err.println("    (also writes the valid events as hourly segment files for windowed queries)");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main --metrics <seconds> [<directory>|<csv-file>...]");
+        System.err.println("    (instruments ingestion and queries, exposes them over JMX and prints them every <seconds>; 0 prints them once)");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main --rejections <file> [<directory>|<csv-file>...]");
+        System.err.println("    (writes every rejection to <file>; only the first " + REJECTION_SAMPLES_PER_REASON
+            + " per reason are printed)");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main --follow [<directory>|<csv-file>...]");
+        System.err.println("    (keeps reading records appended to the files, like tail -F; not combinable with the options above)");
         System.err.println();
         System.err.println("Examples:");
         System.err.println("  java edu.hofstra.csc17.proj.soclog.Main");
         System.err.println("  java edu.hofstra.csc17.proj.soclog.Main data");
         System.err.println("  java edu.hofstra.csc17.proj.soclog.Main /path/to/logs");
         System.err.println("  java edu.hofstra.csc17.proj.soclog.Main file1.csv file2.csv");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main --save logs.events data");
+        System.err.println("  java edu.hofstra.csc17.proj.soclog.Main logs.events");
     }
 
     private Main() {
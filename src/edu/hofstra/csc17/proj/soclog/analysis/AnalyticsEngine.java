@@ -2,40 +2,199 @@ package edu.hofstra.csc17.proj.soclog.analysis;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
+import edu.hofstra.csc17.proj.soclog.metrics.QueryMetrics;
 import edu.hofstra.csc17.proj.soclog.model.event.Event;
 import edu.hofstra.csc17.proj.soclog.model.event.EventType;
-import edu.hofstra.csc17.proj.soclog.model.event.ForkEvent;
-import edu.hofstra.csc17.proj.soclog.model.event.ReadEvent;
-import edu.hofstra.csc17.proj.soclog.model.event.WriteEvent;
-import edu.hofstra.csc17.proj.soclog.model.event.ExecuteEvent;
-import edu.hofstra.csc17.proj.soclog.model.event.OpenEvent;
-import edu.hofstra.csc17.proj.soclog.model.event.CloseEvent;
 import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
 import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.rules.Rule;
+import edu.hofstra.csc17.proj.soclog.rules.RuleSet;
 
 public class AnalyticsEngine {
-    private final List<Event> events;
+    private static final EventType[] TYPES = EventType.values();
+
+    private final EventStore store;
+    private final TimeIndex timeIndex;
+    private final NetworkIndex networkIndex;
+
+    // Dataset-wide tallies, updated on every append
+    private final RowTable frequencies; // dedup and frequency view of every row
+    // Best distinct ids by frequency, or null once an append changed the counts. Never
+    // modified after it is published, so concurrent queries at worst build it twice.
+    private volatile int[] ranking;
+    private final long[] typeCounts = new long[TYPES.length];
+    private long[] processCounts = new long[16]; // by process name id
+    private long[] escalationCounts = new long[16]; // by process name id of the forking parent
+    private final ProcessLineage lineage = new ProcessLineage();
+
+    // Per-query instrumentation, or null
+    private final QueryMetrics metrics;
 
     /**
      * Construct the engine with an initial collection of validated and deduplicated events.
      */
     public AnalyticsEngine(List<Event> events) {
-        this.events = new ArrayList<>(Objects.requireNonNull(events));
-        // Events are stored as-is; deduplication happens in query methods
+        this(new ColumnarEventStore());
+        // Deduplication and frequency counts are kept up to date as the events are appended
+        appendAll(Objects.requireNonNull(events));
+    }
+
+    /**
+     * Construct the engine over a given store, such as an {@link OffHeapEventStore} for
+     * datasets larger than the heap. Rows already in the store are included.
+     */
+    public AnalyticsEngine(EventStore store) {
+        this(store, null);
+    }
+
+    /**
+     * @param metrics records latency, rows scanned and matched, and group cardinality of
+     *                every query call, or null for no instrumentation
+     */
+    public AnalyticsEngine(EventStore store, QueryMetrics metrics) {
+        if (store == null) {
+            throw new IllegalArgumentException("Event store cannot be null");
+        }
+        this.store = store;
+        this.metrics = metrics;
+        // Indexes that grow with the row count live wherever the rows do
+        IntArray.Factory arrays = store instanceof OffHeapEventStore
+            ? ((OffHeapEventStore) store).arrays() : IntArray.HEAP;
+        this.timeIndex = new TimeIndex(store, arrays);
+        this.networkIndex = new NetworkIndex(store);
+        this.frequencies = new RowTable(store, arrays);
+        for (int row = 0; row < store.size(); row++) {
+            tally(row);
+        }
+        refreshIndexes();
+    }
+
+    /**
+     * Add one event. Every query afterwards includes it; nothing is rebuilt.
+     *
+     * Tallies and indexes are brought up to date here, so queries only read shared state and
+     * may run concurrently with each other. Appends must not overlap queries or other appends;
+     * callers that mix them across threads must synchronize.
+     */
+    public void append(Event event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        tally(store.add(event));
+        refreshIndexes();
+    }
+
+    /**
+     * Update the dataset-wide tallies for a new row.
+     */
+    private void tally(int row) {
+        frequencies.add(row);
+        ranking = null;
+        typeCounts[store.typeOrdinal(row)]++;
+        int nameCount = store.processNameCount();
+        if (processCounts.length < nameCount) {
+            processCounts = Arrays.copyOf(processCounts, Math.max(nameCount, processCounts.length * 2));
+            escalationCounts = Arrays.copyOf(escalationCounts, processCounts.length);
+        }
+        int nameId = store.processNameId(store.subjectId(row));
+        if (nameId < 0) {
+            return; // no subject, so nothing to attribute to a process
+        }
+        processCounts[nameId]++;
+        if (isEscalation(row)) {
+            escalationCounts[nameId]++;
+        }
+        if (store.typeOrdinal(row) == EventType.fork.ordinal() && store.objectId(row) >= 0) {
+            lineage.addFork((ProcessInfo) store.entity(store.subjectId(row)),
+                (ProcessInfo) store.entity(store.objectId(row)));
+        }
+    }
+
+    /**
+     * Add several events, as {@link #append} does, merging them into the indexes in one pass.
+     */
+    public void appendAll(Collection<? extends Event> events) {
+        if (events == null) {
+            throw new IllegalArgumentException("Events cannot be null");
+        }
+        for (Event event : events) {
+            if (event == null) {
+                throw new IllegalArgumentException("Event cannot be null");
+            }
+        }
+        for (Event event : events) {
+            tally(store.add(event));
+        }
+        refreshIndexes();
+    }
+
+    /**
+     * Bring rows and endpoints added since the last call into the time and network indexes.
+     * Rows that arrive in time order cost nothing; a late row is merged into place.
+     */
+    private void refreshIndexes() {
+        timeIndex.refresh();
+        networkIndex.refresh();
+    }
+
+    /**
+     * Process tree of every fork seen so far.
+     */
+    public ProcessLineage getLineage() {
+        return lineage;
+    }
+
+    /**
+     * The backing store. Rows are in the order events were added.
+     */
+    public EventStore getStore() {
+        return store;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Start a query call.
+     * @return start time to pass to {@link #end}
+     */
+    private long begin() {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Finish a query call started with {@link #begin}. A null window means the whole dataset;
+     * scanned, matched and groups are as defined by {@link edu.hofstra.csc17.proj.soclog.metrics.QueryStats}.
+     */
+    private void end(String query, long start, Instant from, Instant to, long scanned, long matched,
+                     long groups) {
+        if (metrics != null) {
+            metrics.record(query, start, from, to, scanned, matched, groups);
+        }
     }
 
     public List<Event> uniqueEvents() {
-        // Deduplicate based on all fields using Event's equals() method
-        return events.stream()
-            .distinct()
-            .collect(Collectors.toList());
+        long start = begin();
+        // Deduplicate on every column, which is the same as Event's equals(); the dataset-wide
+        // table is filled in insertion order, so distinct ids already follow it
+        List<Event> result = new ArrayList<>(frequencies.distinctCount());
+        for (int id = 0; id < frequencies.distinctCount(); id++) {
+            result.add(store.event(frequencies.firstRow(id)));
+        }
+        end("uniqueEvents", start, null, null, 0, store.size(), result.size());
+        return result;
     }
 
     /**
@@ -49,12 +208,14 @@ public class AnalyticsEngine {
         if (startInclusive.isAfter(endInclusive)) {
             throw new IllegalArgumentException("Start time must not be after end time");
         }
-        
-        return events.stream()
-            .filter(e -> !e.getTimestamp().isBefore(startInclusive) && 
-                        !e.getTimestamp().isAfter(endInclusive))
-            .distinct()
-            .collect(Collectors.toList());
+
+        long start = begin();
+        int from = windowStart(startInclusive);
+        int to = windowEnd(endInclusive);
+        RowTable table = countRows(from, to);
+        List<Event> result = distinctEvents(table);
+        end("uniqueEvents.window", start, startInclusive, endInclusive, to - from, to - from, result.size());
+        return result;
     }
 
     /**
@@ -66,24 +227,23 @@ public class AnalyticsEngine {
         if (k <= 0) {
             throw new IllegalArgumentException("k must be positive, got: " + k);
         }
-        
-        List<Event> uniqueEvents = uniqueEvents();
-        if (k > uniqueEvents.size()) {
-            throw new IllegalArgumentException("k (" + k + ") cannot be larger than unique event count (" + uniqueEvents.size() + ")");
+
+        long start = begin();
+        if (k > frequencies.distinctCount()) {
+            throw new IllegalArgumentException("k (" + k + ") cannot be larger than unique event count (" + frequencies.distinctCount() + ")");
+        }
+
+        int[] ranked = ranking;
+        if (ranked == null || ranked.length < k) {
+            ranked = rank(frequencies, k, new String[frequencies.distinctCount()]);
+            ranking = ranked;
+        }
+        List<Event> result = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            result.add(store.event(frequencies.firstRow(ranked[i])));
         }
-        
-        // Count frequencies using Event's equals() for grouping
-        Map<Event, Long> frequencyMap = events.stream()
-            .collect(Collectors.groupingBy(e -> e, Collectors.counting()));
-        
-        // Sort by frequency (descending), then by canonical representation for deterministic tie-breaking
-        return frequencyMap.entrySet().stream()
-            .sorted(Comparator
-                .<Map.Entry<Event, Long>>comparingLong(Map.Entry::getValue).reversed()
-                .thenComparing(e -> getCanonicalEventKey(e.getKey())))
-            .limit(k)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+        end("topKFrequentEvents", start, null, null, 0, store.size(), frequencies.distinctCount());
+        return result;
     }
 
     /**
@@ -99,57 +259,124 @@ public class AnalyticsEngine {
         if (k <= 0) {
             throw new IllegalArgumentException("k must be positive, got: " + k);
         }
-        
-        // Filter events in time window
-        List<Event> windowEvents = events.stream()
-            .filter(e -> !e.getTimestamp().isBefore(startInclusive) && 
-                        !e.getTimestamp().isAfter(endInclusive))
-            .collect(Collectors.toList());
-        
-        List<Event> uniqueWindowEvents = windowEvents.stream().distinct().collect(Collectors.toList());
-        if (k > uniqueWindowEvents.size()) {
-            throw new IllegalArgumentException("k (" + k + ") cannot be larger than unique event count in window (" + uniqueWindowEvents.size() + ")");
-        }
-        
-        // Count frequencies
-        Map<Event, Long> frequencyMap = windowEvents.stream()
-            .collect(Collectors.groupingBy(e -> e, Collectors.counting()));
-        
-        // Sort by frequency (descending), then by canonical representation
-        return frequencyMap.entrySet().stream()
-            .sorted(Comparator
-                .<Map.Entry<Event, Long>>comparingLong(Map.Entry::getValue).reversed()
-                .thenComparing(e -> getCanonicalEventKey(e.getKey())))
-            .limit(k)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
-    }
-    
+
+        long start = begin();
+        int from = windowStart(startInclusive);
+        int to = windowEnd(endInclusive);
+        RowTable frequencies = countRows(from, to);
+        if (k > frequencies.distinctCount()) {
+            throw new IllegalArgumentException("k (" + k + ") cannot be larger than unique event count in window (" + frequencies.distinctCount() + ")");
+        }
+
+        int[] ranked = rank(frequencies, k, new String[frequencies.distinctCount()]);
+        List<Event> result = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            result.add(store.event(frequencies.firstRow(ranked[i])));
+        }
+        end("topKFrequentEvents.window", start, startInclusive, endInclusive, to - from, to - from,
+            frequencies.distinctCount());
+        return result;
+    }
+
+    /**
+     * Group the rows at time-index positions [from, to) into distinct events.
+     */
+    private RowTable countRows(int from, int to) {
+        RowTable table = new RowTable(store);
+        for (int position = from; position < to; position++) {
+            table.add(timeIndex.row(position));
+        }
+        return table;
+    }
+
+    /**
+     * First time-index position of the inclusive window [start, end]; pair with windowEnd.
+     */
+    private int windowStart(Instant startInclusive) {
+        return timeIndex.lowerBound(startInclusive);
+    }
+
+    private int windowEnd(Instant endInclusive) {
+        return timeIndex.upperBound(endInclusive);
+    }
+
+    /**
+     * One event per distinct row, in the order the events were added.
+     */
+    private List<Event> distinctEvents(RowTable table) {
+        int[] firstRows = new int[table.distinctCount()];
+        for (int id = 0; id < firstRows.length; id++) {
+            firstRows[id] = table.firstRow(id);
+        }
+        // A windowed table is filled in time order, not insertion order
+        Arrays.sort(firstRows);
+
+        List<Event> result = new ArrayList<>(firstRows.length);
+        for (int row : firstRows) {
+            result.add(store.event(row));
+        }
+        return result;
+    }
+
+    /**
+     * The k most frequent distinct ids of the table, ties broken by canonical representation
+     * (then first occurrence) for deterministic ordering.
+     * @param keys canonical key cache indexed by distinct id; null entries are built on first use
+     */
+    private int[] rank(RowTable table, int k, String[] keys) {
+        return TopK.select(table.distinctCount(), k, null, (a, b) -> {
+            int c = Long.compare(table.count(b), table.count(a));
+            if (c != 0) {
+                return c;
+            }
+            if (keys[a] == null) {
+                keys[a] = getCanonicalEventKey(table.firstRow(a));
+            }
+            if (keys[b] == null) {
+                keys[b] = getCanonicalEventKey(table.firstRow(b));
+            }
+            c = keys[a].compareTo(keys[b]);
+            return c != 0 ? c : Integer.compare(table.firstRow(a), table.firstRow(b));
+        });
+    }
+
     /**
      * Generate a canonical string representation for deterministic sorting.
      */
-    private String getCanonicalEventKey(Event event) {
-        return event.getType() + "|" + 
-               event.getSubject().getCanonicalId() + "|" + 
-               event.getObject().getCanonicalId() + "|" +
-               event.getTimestamp();
+    private String getCanonicalEventKey(int row) {
+        return store.type(row) + "|" +
+               canonicalId(store.subjectId(row)) + "|" +
+               canonicalId(store.objectId(row)) + "|" +
+               store.timestamp(row);
+    }
+
+    private String canonicalId(int entityId) {
+        return entityId < 0 ? "" : store.entity(entityId).getCanonicalId();
     }
 
     /**
-     * Count events grouped by concrete subclass name.
+     * Count events grouped by event type.
      */
     public Map<EventType, Long> countByEventType() {
-        return events.stream()
-            .collect(Collectors.groupingBy(Event::getType, Collectors.counting()));
+        long start = begin();
+        Map<EventType, Long> result = new EnumMap<>(EventType.class);
+        for (EventType type : TYPES) {
+            if (typeCounts[type.ordinal()] > 0) {
+                result.put(type, typeCounts[type.ordinal()]);
+            }
+        }
+        end("countByEventType", start, null, null, 0, store.size(), result.size());
+        return result;
     }
 
     public Long countByEventType(EventType type) {
         if (type == null) {
             throw new IllegalArgumentException("Event type cannot be null");
         }
-        return events.stream()
-            .filter(e -> e.getType() == type)
-            .count();
+        long start = begin();
+        long count = typeCounts[type.ordinal()];
+        end("countByEventType.type", start, null, null, 0, count, count > 0 ? 1 : 0);
+        return count;
     }
 
 
@@ -166,25 +393,84 @@ public class AnalyticsEngine {
         if (limit <= 0) {
             throw new IllegalArgumentException("Limit must be positive, got: " + limit);
         }
-        
-        // Filter events in time window and count by process name
-        Map<String, Long> processCounts = events.stream()
-            .filter(e -> !e.getTimestamp().isBefore(startInclusive) && 
-                        !e.getTimestamp().isAfter(endInclusive))
-            .collect(Collectors.groupingBy(e -> e.getSubject().getName(), Collectors.counting()));
-        
+
+        // Count events in the window by process name id
+        long start = begin();
+        int from = windowStart(startInclusive);
+        int to = windowEnd(endInclusive);
+        long[] processCounts = countByProcessName(from, to);
+
         // Sort by count (descending), then by process name for deterministic ordering
-        return processCounts.entrySet().stream()
-            .sorted(Comparator
-                .<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
-                .thenComparing(Map.Entry::getKey))
-            .limit(limit)
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                (e1, e2) -> e1,
-                LinkedHashMap::new
-            ));
+        Map<String, Long> result = rankProcessNames(processCounts, 0, limit);
+        if (metrics != null) {
+            end("topProcessesByWindow", start, startInclusive, endInclusive, scannedForTallies(from, to),
+                sum(processCounts), nonZero(processCounts));
+        }
+        return result;
+    }
+
+    /**
+     * Events per process name id at time-index positions [from, to).
+     */
+    private long[] countByProcessName(int from, int to) {
+        if (coversAll(from, to)) {
+            return processCounts; // the window covers every event
+        }
+        long[] counts = new long[store.processNameCount()];
+        for (int position = from; position < to; position++) {
+            int nameId = store.processNameId(store.subjectId(timeIndex.row(position)));
+            if (nameId >= 0) {
+                counts[nameId]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Turn per-name counts into a map ordered by count (descending) then name,
+     * keeping only counts above minExclusive.
+     */
+    private Map<String, Long> rankProcessNames(long[] counts, long minExclusive, int limit) {
+        int[] nameIds = TopK.select(counts.length, limit, id -> counts[id] > minExclusive, (a, b) -> {
+            int c = Long.compare(counts[b], counts[a]);
+            return c != 0 ? c : store.processName(a).compareTo(store.processName(b));
+        });
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int nameId : nameIds) {
+            result.put(store.processName(nameId), counts[nameId]);
+        }
+        return result;
+    }
+
+    private boolean coversAll(int from, int to) {
+        return from == 0 && to == store.size();
+    }
+
+    /**
+     * Rows visited by a query over [from, to) that uses the dataset-wide tallies when the
+     * range covers every row.
+     */
+    private int scannedForTallies(int from, int to) {
+        return coversAll(from, to) ? 0 : to - from;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static int nonZero(long[] counts) {
+        int groups = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                groups++;
+            }
+        }
+        return groups;
     }
 
     // ========== ANOMALY DETECTION ==========
@@ -195,44 +481,70 @@ public class AnalyticsEngine {
      */
     public Map<String, Long> detectPrivilegeEscalation(Instant startInclusive, Instant endInclusive) {
         // Allow null timestamps to search entire dataset
-        List<Event> relevantEvents = events;
-        
-        if (startInclusive != null && endInclusive != null) {
-            if (startInclusive.isAfter(endInclusive)) {
-                throw new IllegalArgumentException("Start time must not be after end time");
-            }
-            
-            relevantEvents = events.stream()
-                .filter(e -> !e.getTimestamp().isBefore(startInclusive) && 
-                            !e.getTimestamp().isAfter(endInclusive))
-                .collect(Collectors.toList());
+        boolean windowed = startInclusive != null && endInclusive != null;
+        if (windowed && startInclusive.isAfter(endInclusive)) {
+            throw new IllegalArgumentException("Start time must not be after end time");
         }
-        
+
         // Find fork events where parent is user and child is root
-        Map<String, Long> escalations = relevantEvents.stream()
-            .filter(e -> e instanceof ForkEvent)
-            .map(e -> (ForkEvent) e)
-            .filter(fe -> {
-                ProcessInfo parent = fe.getParentProcess();
-                ProcessInfo child = fe.getChildProcess();
-                return !parent.isRoot() && child.isRoot();
-            })
-            .collect(Collectors.groupingBy(
-                fe -> fe.getParentProcess().getName(),
-                Collectors.counting()
-            ));
-        
+        long start = begin();
+        long[] escalations = escalationCounts;
+        int from = windowed ? windowStart(startInclusive) : 0;
+        int to = windowed ? windowEnd(endInclusive) : store.size();
+        if (!coversAll(from, to)) {
+            escalations = new long[store.processNameCount()];
+            for (int position = from; position < to; position++) {
+                int row = timeIndex.row(position);
+                if (isEscalation(row)) {
+                    escalations[store.processNameId(store.subjectId(row))]++;
+                }
+            }
+        }
+
+        // Sort by count (descending), then by process name
+        Map<String, Long> result = rankProcessNames(escalations, 0, Integer.MAX_VALUE);
+        if (metrics != null) {
+            end("detectPrivilegeEscalation", start, windowed ? startInclusive : null, windowed ? endInclusive : null,
+                scannedForTallies(from, to), sum(escalations), result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Multi-hop variant of {@link #detectPrivilegeEscalation}: every root process whose fork
+     * chain leads back to a user process is attributed to the nearest such user ancestor,
+     * so user -> root -> root chains count as well as direct forks.
+     * Returns map of user process name to the number of root processes escalated from it.
+     */
+    public Map<String, Long> detectPrivilegeEscalationChains() {
+        long start = begin();
+        Map<String, Long> counts = new HashMap<>();
+        List<ProcessInfo> escalatedProcesses = lineage.escalatedProcesses();
+        for (ProcessInfo escalated : escalatedProcesses) {
+            String user = lineage.nearestUserAncestor(escalated.getPid()).getName();
+            counts.merge(user, 1L, Long::sum);
+        }
+
         // Sort by count (descending), then by process name
-        return escalations.entrySet().stream()
-            .sorted(Comparator
-                .<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
-                .thenComparing(Map.Entry::getKey))
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                (e1, e2) -> e1,
-                LinkedHashMap::new
-            ));
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        end("detectPrivilegeEscalationChains", start, null, null, 0, escalatedProcesses.size(), result.size());
+        return result;
+    }
+
+    private boolean isEscalation(int row) {
+        if (store.typeOrdinal(row) != EventType.fork.ordinal() || store.subjectId(row) < 0
+                || store.objectId(row) < 0) {
+            return false;
+        }
+        ProcessInfo parent = (ProcessInfo) store.entity(store.subjectId(row));
+        ProcessInfo child = (ProcessInfo) store.entity(store.objectId(row));
+        return !parent.isRoot() && child.isRoot();
     }
 
 
@@ -250,36 +562,220 @@ public class AnalyticsEngine {
         if (thresholdPerMinute <= 0) {
             throw new IllegalArgumentException("Threshold must be positive, got: " + thresholdPerMinute);
         }
-        
+
         // Calculate time window duration in minutes
         long durationSeconds = endInclusive.getEpochSecond() - startInclusive.getEpochSecond();
         double durationMinutes = durationSeconds / 60.0;
-        
+
         if (durationMinutes <= 0) {
             durationMinutes = 1.0 / 60.0; // At least 1 second
         }
-        
+
         // Count events per process in time window
-        Map<String, Long> processCounts = events.stream()
-            .filter(e -> !e.getTimestamp().isBefore(startInclusive) && 
-                        !e.getTimestamp().isAfter(endInclusive))
-            .collect(Collectors.groupingBy(e -> e.getSubject().getName(), Collectors.counting()));
-        
+        long start = begin();
+        int from = windowStart(startInclusive);
+        int to = windowEnd(endInclusive);
+        long[] processCounts = countByProcessName(from, to);
+
         // Calculate threshold for the window
         long thresholdForWindow = (long) Math.ceil(thresholdPerMinute * durationMinutes);
-        
+
         // Filter processes exceeding threshold, sorted by count (descending)
-        return processCounts.entrySet().stream()
-            .filter(e -> e.getValue() > thresholdForWindow)
-            .sorted(Comparator
-                .<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
-                .thenComparing(Map.Entry::getKey))
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                (e1, e2) -> e1,
-                LinkedHashMap::new
-            ));
+        Map<String, Long> result = rankProcessNames(processCounts, thresholdForWindow, Integer.MAX_VALUE);
+        if (metrics != null) {
+            end("detectHighFrequencyProcesses", start, startInclusive, endInclusive, scannedForTallies(from, to),
+                sum(processCounts), nonZero(processCounts));
+        }
+        return result;
+    }
+
+    /**
+     * Replay the window through a {@link SlidingWindowDetector} to find processes that went
+     * over thresholdPerMinute in any one-minute span, even if their average over the whole
+     * window stays below it.
+     * @return one alert per burst, in time order
+     */
+    public List<SlidingWindowDetector.Alert> detectHighFrequencyBursts(Instant startInclusive, Instant endInclusive, long thresholdPerMinute) {
+        if (startInclusive == null || endInclusive == null) {
+            throw new IllegalArgumentException("Start and end timestamps cannot be null");
+        }
+        if (startInclusive.isAfter(endInclusive)) {
+            throw new IllegalArgumentException("Start time must not be after end time");
+        }
+        if (thresholdPerMinute <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive, got: " + thresholdPerMinute);
+        }
+
+        long start = begin();
+        List<SlidingWindowDetector.Alert> result = new ArrayList<>();
+        SlidingWindowDetector detector = new SlidingWindowDetector(thresholdPerMinute, result::add);
+        int from = windowStart(startInclusive);
+        int to = windowEnd(endInclusive);
+        long matched = 0;
+        boolean[] processes = new boolean[metrics == null ? 0 : store.processNameCount()];
+        for (int position = from; position < to; position++) {
+            int row = timeIndex.row(position);
+            int nameId = store.processNameId(store.subjectId(row));
+            if (nameId >= 0) {
+                detector.accept(store.processName(nameId), store.timestamp(row));
+                if (metrics != null) {
+                    matched++;
+                    processes[nameId] = true;
+                }
+            }
+        }
+        end("detectHighFrequencyBursts", start, startInclusive, endInclusive, to - from, matched, count(processes));
+        return result;
+    }
+
+    // ========== NETWORK ANALYTICS ==========
+
+    /**
+     * Return sendto/receivefrom events whose endpoint lies in the CIDR range, in time order.
+     * Null timestamps search the entire dataset.
+     * @param cidr range such as "10.0.0.0/8", or a single address
+     * @param port endpoint port to require, or null for any port
+     */
+    public List<Event> findNetworkEvents(String cidr, Integer port, Instant startInclusive, Instant endInclusive) {
+        boolean windowed = startInclusive != null && endInclusive != null;
+        if (windowed && startInclusive.isAfter(endInclusive)) {
+            throw new IllegalArgumentException("Start time must not be after end time");
+        }
+        long start = begin();
+        boolean[] endpoints = endpointsIn(Cidr.parse(cidr), port);
+
+        List<Event> result = new ArrayList<>();
+        int from = windowed ? windowStart(startInclusive) : 0;
+        int to = windowed ? windowEnd(endInclusive) : timeIndex.size();
+        for (int position = from; position < to; position++) {
+            int row = timeIndex.row(position);
+            int objectId = store.objectId(row);
+            if (objectId >= 0 && objectId < endpoints.length && endpoints[objectId]) {
+                result.add(store.event(row));
+            }
+        }
+        if (metrics != null) {
+            end("findNetworkEvents", start, windowed ? startInclusive : null, windowed ? endInclusive : null,
+                to - from, result.size(), count(endpoints));
+        }
+        return result;
+    }
+
+    private static int count(boolean[] marks) {
+        int count = 0;
+        for (boolean mark : marks) {
+            if (mark) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rank the addresses in the CIDR range by number of sendto/receivefrom events.
+     * Null timestamps search the entire dataset.
+     * Returns map of address to event count, ordered by count (descending) then address.
+     */
+    public Map<String, Long> topTalkers(String cidr, Instant startInclusive, Instant endInclusive, int limit) {
+        boolean windowed = startInclusive != null && endInclusive != null;
+        if (windowed && startInclusive.isAfter(endInclusive)) {
+            throw new IllegalArgumentException("Start time must not be after end time");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive, got: " + limit);
+        }
+        Cidr range = Cidr.parse(cidr);
+        long start = begin();
+        boolean[] endpoints = endpointsIn(range, null);
+
+        long[] perEndpoint = new long[endpoints.length];
+        int from = windowed ? windowStart(startInclusive) : 0;
+        int to = windowed ? windowEnd(endInclusive) : timeIndex.size();
+        for (int position = from; position < to; position++) {
+            int objectId = store.objectId(timeIndex.row(position));
+            if (objectId >= 0 && objectId < endpoints.length && endpoints[objectId]) {
+                perEndpoint[objectId]++;
+            }
+        }
+
+        // Endpoints are sorted by address, so each address is a run of index positions
+        int first = networkIndex.lowerBound(range.first());
+        int last = networkIndex.upperBound(range.last());
+        int[] addresses = new int[last - first];
+        long[] counts = new long[last - first];
+        int groups = 0;
+        for (int position = first; position < last; position++) {
+            int address = networkIndex.address(position);
+            if (groups == 0 || addresses[groups - 1] != address) {
+                addresses[groups++] = address;
+            }
+            counts[groups - 1] += perEndpoint[networkIndex.entity(position)];
+        }
+
+        int[] top = TopK.select(groups, limit, g -> counts[g] > 0, (a, b) -> {
+            int c = Long.compare(counts[b], counts[a]);
+            return c != 0 ? c : Integer.compareUnsigned(addresses[a], addresses[b]);
+        });
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int g : top) {
+            result.put(NetworkInfo.formatAddress(addresses[g]), counts[g]);
+        }
+        if (metrics != null) {
+            end("topTalkers", start, windowed ? startInclusive : null, windowed ? endInclusive : null,
+                to - from, sum(counts), groups);
+        }
+        return result;
+    }
+
+    /**
+     * Mark the network entities in the range (and on the port, if given), by entity id.
+     */
+    private boolean[] endpointsIn(Cidr range, Integer port) {
+        if (port != null && (port < 0 || port > 65535)) {
+            throw new IllegalArgumentException("Port must be between 0-65535, got: " + port);
+        }
+        boolean[] endpoints = new boolean[store.entityCount()];
+        int to = networkIndex.upperBound(range.last());
+        for (int position = networkIndex.lowerBound(range.first()); position < to; position++) {
+            int id = networkIndex.entity(position);
+            if (port == null || ((NetworkInfo) store.entity(id)).getPort() == port) {
+                endpoints[id] = true;
+            }
+        }
+        return endpoints;
+    }
+
+    /**
+     * Count the events matched by each watch-list rule.
+     * Returns map of rule id to match count, in rule-file order, for rules that matched.
+     */
+    public Map<String, Long> countRuleMatches(RuleSet rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rule set cannot be null");
+        }
+
+        long start = begin();
+        Map<Rule, Long> counts = new HashMap<>();
+        long matchedRows = 0;
+        for (int row = 0; row < store.size(); row++) {
+            List<Rule> matched = rules.match(store.type(row),
+                (ProcessInfo) store.entity(store.subjectId(row)), store.entity(store.objectId(row)));
+            for (Rule rule : matched) {
+                counts.merge(rule, 1L, Long::sum);
+            }
+            if (!matched.isEmpty()) {
+                matchedRows++;
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Rule rule : rules.getRules()) {
+            Long count = counts.get(rule);
+            if (count != null) {
+                result.put(rule.getId(), count);
+            }
+        }
+        end("countRuleMatches", start, null, null, store.size(), matchedRows, result.size());
+        return result;
     }
 
     /**
@@ -289,33 +785,50 @@ public class AnalyticsEngine {
         if (sensitiveFilePaths == null) {
             throw new IllegalArgumentException("Sensitive file paths list cannot be null");
         }
-        
+
+        // Exact match or prefix match in either direction, one walk of the path per lookup
+        long start = begin();
+        PathTrie sensitive = new PathTrie(sensitiveFilePaths);
+
+        // Each distinct file is matched once; 0 = not checked yet, 1 = sensitive, 2 = not sensitive
+        byte[] verdicts = new byte[store.entityCount()];
+
         // Filter file events (read, write, execute, open, close) that access sensitive paths
-        return events.stream()
-            .filter(e -> isFileEvent(e))
-            .filter(e -> {
-                FileInfo fileInfo = (FileInfo) e.getObject();
-                String path = fileInfo.getPath();
-                
-                // Check if path matches any sensitive path (exact match or prefix match)
-                return sensitiveFilePaths.stream()
-                    .anyMatch(sensitivePath -> 
-                        path.equals(sensitivePath) || 
-                        path.startsWith(sensitivePath + "/") ||
-                        sensitivePath.startsWith(path + "/"));
-            })
-            .collect(Collectors.toList());
-    }
-    
-    /**
-     * Helper method to check if an event is a file-related event.
-     */
-    private boolean isFileEvent(Event event) {
-        return event instanceof ReadEvent || 
-               event instanceof WriteEvent || 
-               event instanceof ExecuteEvent || 
-               event instanceof OpenEvent || 
-               event instanceof CloseEvent;
+        List<Event> result = new ArrayList<>();
+        int files = 0;
+        for (int row = 0; row < store.size(); row++) {
+            if (!isFileEvent(store.typeOrdinal(row))) {
+                continue;
+            }
+            int objectId = store.objectId(row);
+            if (objectId < 0) {
+                continue;
+            }
+            if (verdicts[objectId] == 0) {
+                verdicts[objectId] = isSensitive(store.entity(objectId), sensitive) ? (byte) 1 : (byte) 2;
+                files++;
+            }
+            if (verdicts[objectId] == 1) {
+                result.add(store.event(row));
+            }
+        }
+        end("findSensitiveFileAccess", start, null, null, store.size(), result.size(), files);
+        return result;
+    }
+
+    private boolean isSensitive(ObjectInfo object, PathTrie sensitive) {
+        return object instanceof FileInfo && sensitive.matches(((FileInfo) object).getPath());
+    }
+
+    /**
+     * Helper method to check if an event type is a file-related event.
+     */
+    private boolean isFileEvent(int typeOrdinal) {
+        return typeOrdinal == EventType.read.ordinal() ||
+               typeOrdinal == EventType.write.ordinal() ||
+               typeOrdinal == EventType.execute.ordinal() ||
+               typeOrdinal == EventType.open.ordinal() ||
+               typeOrdinal == EventType.close.ordinal();
     }
 
 }
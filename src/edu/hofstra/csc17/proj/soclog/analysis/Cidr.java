@@ -0,0 +1,85 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+
+/**
+ * An IPv4 range in CIDR notation ("10.0.0.0/8"), held as a packed network address and
+ * prefix length. A bare address is a /32. Host bits below the prefix are ignored, so
+ * "10.1.2.3/8" is the same range as "10.0.0.0/8".
+ */
+public final class Cidr {
+    private final int network;
+    private final int prefixLength;
+
+    private Cidr(int network, int prefixLength) {
+        this.network = network & mask(prefixLength);
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not an IPv4 address with an optional /0-/32 suffix
+     */
+    public static Cidr parse(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("CIDR range cannot be null");
+        }
+        int slash = text.indexOf('/');
+        if (slash < 0) {
+            return new Cidr(NetworkInfo.packAddress(text), 32);
+        }
+        int prefixLength;
+        try {
+            prefixLength = Integer.parseInt(text.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid CIDR prefix length: " + text);
+        }
+        if (prefixLength < 0 || prefixLength > 32) {
+            throw new IllegalArgumentException("CIDR prefix length must be between 0-32, got: " + prefixLength);
+        }
+        return new Cidr(NetworkInfo.packAddress(text.substring(0, slash)), prefixLength);
+    }
+
+    /**
+     * Lowest address in the range (packed).
+     */
+    public int first() {
+        return network;
+    }
+
+    /**
+     * Highest address in the range (packed).
+     */
+    public int last() {
+        return network | ~mask(prefixLength);
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    public boolean contains(int address) {
+        return (address & mask(prefixLength)) == network;
+    }
+
+    private static int mask(int prefixLength) {
+        return prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Cidr that = (Cidr) o;
+        return network == that.network && prefixLength == that.prefixLength;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * network + prefixLength;
+    }
+
+    @Override
+    public String toString() {
+        return NetworkInfo.formatAddress(network) + "/" + prefixLength;
+    }
+}
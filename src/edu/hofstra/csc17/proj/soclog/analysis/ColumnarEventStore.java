@@ -0,0 +1,158 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * Column-oriented storage for events.
+ *
+ * Instead of one heap object graph per event (Event, Instant, two entities, flags), each
+ * event is a row spread over packed primitive arrays: epoch seconds, nanos, an EventType
+ * ordinal and dictionary ids for subject, object and flags. Distinct entities and flag
+ * strings are stored once. Scans run over the arrays; {@link #event(int)} rebuilds an
+ * equal Event on demand for methods that return events.
+ */
+public final class ColumnarEventStore implements EventStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final EventType[] TYPES = EventType.values();
+
+    private long[] seconds = new long[INITIAL_CAPACITY];
+    private int[] nanos = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] subjects = new int[INITIAL_CAPACITY];
+    private int[] objects = new int[INITIAL_CAPACITY];
+    private int[] flags = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final EntityTable entities = new EntityTable();
+
+    @Override
+    public int add(Event event) {
+        if (size == seconds.length) {
+            grow();
+        }
+        int row = size;
+        Instant timestamp = event.getTimestamp();
+        seconds[row] = timestamp.getEpochSecond();
+        nanos[row] = timestamp.getNano();
+        types[row] = (byte) event.getType().ordinal();
+        subjects[row] = entities.encodeEntity(event.getSubject());
+        objects[row] = entities.encodeEntity(event.getObject());
+        flags[row] = entities.encodeFlags(event.getFlags());
+        size++;
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long epochSecond(int row) {
+        return seconds[row];
+    }
+
+    @Override
+    public int nano(int row) {
+        return nanos[row];
+    }
+
+    @Override
+    public int typeOrdinal(int row) {
+        return types[row];
+    }
+
+    @Override
+    public EventType type(int row) {
+        return TYPES[types[row]];
+    }
+
+    @Override
+    public int subjectId(int row) {
+        return subjects[row];
+    }
+
+    @Override
+    public int objectId(int row) {
+        return objects[row];
+    }
+
+    @Override
+    public int flagsId(int row) {
+        return flags[row];
+    }
+
+    @Override
+    public ObjectInfo entity(int id) {
+        return entities.entity(id);
+    }
+
+    @Override
+    public int entityCount() {
+        return entities.entityCount();
+    }
+
+    @Override
+    public String flagsValue(int id) {
+        return entities.flagsValue(id);
+    }
+
+    @Override
+    public int processNameId(int entityId) {
+        return entities.processNameId(entityId);
+    }
+
+    @Override
+    public String processName(int nameId) {
+        return entities.processName(nameId);
+    }
+
+    @Override
+    public int processNameCount() {
+        return entities.processNameCount();
+    }
+
+    @Override
+    public int compareTime(int row, long epochSecond, int nano) {
+        int c = Long.compare(seconds[row], epochSecond);
+        return c != 0 ? c : Integer.compare(nanos[row], nano);
+    }
+
+    @Override
+    public int compareTime(int a, int b) {
+        return compareTime(a, seconds[b], nanos[b]);
+    }
+
+    @Override
+    public boolean sameRow(int a, int b) {
+        return seconds[a] == seconds[b] && nanos[a] == nanos[b] && types[a] == types[b]
+            && subjects[a] == subjects[b] && objects[a] == objects[b] && flags[a] == flags[b];
+    }
+
+    @Override
+    public int rowHash(int row) {
+        long s = seconds[row];
+        int h = (int) (s ^ (s >>> 32));
+        h = 31 * h + nanos[row];
+        h = 31 * h + types[row];
+        h = 31 * h + subjects[row];
+        h = 31 * h + objects[row];
+        h = 31 * h + flags[row];
+        return h;
+    }
+
+    private void grow() {
+        int capacity = seconds.length * 2;
+        seconds = Arrays.copyOf(seconds, capacity);
+        nanos = Arrays.copyOf(nanos, capacity);
+        types = Arrays.copyOf(types, capacity);
+        subjects = Arrays.copyOf(subjects, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense int ids to distinct values, in first-seen order.
+ * Null is not stored; callers use -1 for it.
+ */
+final class Dictionary<T> {
+    private final List<T> values = new ArrayList<>();
+    private final Map<T, Integer> ids = new HashMap<>();
+
+    /**
+     * @return the id of value, adding it if it is new; -1 for null
+     */
+    int encode(T value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            values.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return the id of value, or -1 if it has never been encoded
+     */
+    int find(T value) {
+        Integer id = value == null ? null : ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    T decode(int id) {
+        return id < 0 ? null : values.get(id);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
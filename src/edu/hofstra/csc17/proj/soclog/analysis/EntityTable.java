@@ -0,0 +1,60 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.Arrays;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+
+/**
+ * The interned entities, flag strings and process names behind an EventStore's id columns.
+ * Distinct values are few compared to rows, so this stays on the heap for every store.
+ */
+final class EntityTable {
+    private final Dictionary<ObjectInfo> entities = new Dictionary<>();
+    private final Dictionary<String> flagValues = new Dictionary<>();
+    private final Dictionary<String> processNames = new Dictionary<>();
+    // entity id -> process name id, -1 for entities that are not processes
+    private int[] processNameOf = new int[16];
+
+    int encodeEntity(ObjectInfo entity) {
+        int before = entities.size();
+        int id = entities.encode(entity);
+        if (id == before) {
+            if (id == processNameOf.length) {
+                processNameOf = Arrays.copyOf(processNameOf, id * 2);
+            }
+            processNameOf[id] = entity instanceof ProcessInfo
+                ? processNames.encode(((ProcessInfo) entity).getName())
+                : -1;
+        }
+        return id;
+    }
+
+    int encodeFlags(String flags) {
+        return flagValues.encode(flags);
+    }
+
+    ObjectInfo entity(int id) {
+        return entities.decode(id);
+    }
+
+    int entityCount() {
+        return entities.size();
+    }
+
+    String flagsValue(int id) {
+        return flagValues.decode(id);
+    }
+
+    int processNameId(int entityId) {
+        return entityId < 0 ? -1 : processNameOf[entityId];
+    }
+
+    String processName(int nameId) {
+        return processNames.decode(nameId);
+    }
+
+    int processNameCount() {
+        return processNames.size();
+    }
+}
@@ -0,0 +1,108 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.time.Instant;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * Row storage behind an AnalyticsEngine.
+ *
+ * Each event is a row of fixed-width columns: epoch seconds, nanos, an EventType ordinal and
+ * dictionary ids for subject, object and flags. Rows are numbered from 0 in the order they
+ * were added. The engine and its indexes only read these columns, so where the rows live
+ * (on-heap arrays, {@link ColumnarEventStore}, or a memory-mapped file,
+ * {@link OffHeapEventStore}) is up to the implementation.
+ */
+public interface EventStore {
+
+    /**
+     * Append an event as a new row.
+     * @return the row index
+     */
+    int add(Event event);
+
+    int size();
+
+    long epochSecond(int row);
+
+    int nano(int row);
+
+    int typeOrdinal(int row);
+
+    EventType type(int row);
+
+    int subjectId(int row);
+
+    int objectId(int row);
+
+    int flagsId(int row);
+
+    ObjectInfo entity(int id);
+
+    int entityCount();
+
+    String flagsValue(int id);
+
+    /**
+     * @return the process-name id of a ProcessInfo entity, or -1 for other entities
+     */
+    int processNameId(int entityId);
+
+    String processName(int nameId);
+
+    int processNameCount();
+
+    default Instant timestamp(int row) {
+        return Instant.ofEpochSecond(epochSecond(row), nano(row));
+    }
+
+    /**
+     * Rebuild the event stored in a row. The result equals the event that was added.
+     */
+    default Event event(int row) {
+        return Event.of(type(row), timestamp(row), (ProcessInfo) entity(subjectId(row)),
+            entity(objectId(row)), flagsValue(flagsId(row)));
+    }
+
+    /**
+     * Compare the timestamp of a row against (epochSecond, nano).
+     */
+    default int compareTime(int row, long epochSecond, int nano) {
+        int c = Long.compare(epochSecond(row), epochSecond);
+        return c != 0 ? c : Integer.compare(nano(row), nano);
+    }
+
+    /**
+     * Compare the timestamps of two rows.
+     */
+    default int compareTime(int a, int b) {
+        return compareTime(a, epochSecond(b), nano(b));
+    }
+
+    default boolean inWindow(int row, Instant startInclusive, Instant endInclusive) {
+        return compareTime(row, startInclusive.getEpochSecond(), startInclusive.getNano()) >= 0
+            && compareTime(row, endInclusive.getEpochSecond(), endInclusive.getNano()) <= 0;
+    }
+
+    /**
+     * Rows are equal exactly when their events are equal.
+     */
+    default boolean sameRow(int a, int b) {
+        return epochSecond(a) == epochSecond(b) && nano(a) == nano(b) && typeOrdinal(a) == typeOrdinal(b)
+            && subjectId(a) == subjectId(b) && objectId(a) == objectId(b) && flagsId(a) == flagsId(b);
+    }
+
+    default int rowHash(int row) {
+        long s = epochSecond(row);
+        int h = (int) (s ^ (s >>> 32));
+        h = 31 * h + nano(row);
+        h = 31 * h + typeOrdinal(row);
+        h = 31 * h + subjectId(row);
+        h = 31 * h + objectId(row);
+        h = 31 * h + flagsId(row);
+        return h;
+    }
+}
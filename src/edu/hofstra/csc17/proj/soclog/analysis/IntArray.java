@@ -0,0 +1,82 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-length array of ints behind the engine indexes that grow with the row count
+ * ({@link RowTable}, {@link TimeIndex}).
+ *
+ * On the heap this is a plain int[]. An {@link OffHeapEventStore} hands out large arrays
+ * mapped from scratch files next to its rows instead, so those indexes stay off the heap
+ * just like the rows. New arrays are zero-filled. Reads may run concurrently; writes must not
+ * overlap anything else.
+ */
+abstract class IntArray {
+
+    /**
+     * Where an index allocates its arrays.
+     */
+    interface Factory {
+        IntArray allocate(int length);
+    }
+
+    static final Factory HEAP = Heap::new;
+
+    abstract int length();
+
+    abstract int get(int index);
+
+    abstract void set(int index, int value);
+
+    /**
+     * Give the storage back. The array cannot be used afterwards.
+     */
+    void release() {
+    }
+
+    /**
+     * A copy with the given length from the factory, zero beyond this array's values. This
+     * array is released.
+     */
+    IntArray resize(Factory factory, int length) {
+        IntArray copy = factory.allocate(length);
+        int shared = Math.min(length, length());
+        for (int i = 0; i < shared; i++) {
+            copy.set(i, get(i));
+        }
+        release();
+        return copy;
+    }
+
+    private static final class Heap extends IntArray {
+        private final int[] values;
+
+        Heap(int length) {
+            this.values = new int[length];
+        }
+
+        private Heap(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int length() {
+            return values.length;
+        }
+
+        @Override
+        int get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        @Override
+        IntArray resize(Factory factory, int length) {
+            return factory == HEAP ? new Heap(Arrays.copyOf(values, length)) : super.resize(factory, length);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.Arrays;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+
+/**
+ * The distinct network endpoints of an EventStore sorted by packed address (then
+ * port), so an address range maps to a contiguous run of entity ids found by binary search.
+ *
+ * Endpoints are far fewer than events, and entity ids never change, so the index only
+ * grows: endpoints added to the store since the last refresh() are sorted and merged in
+ * place, so refreshing after every append only moves the entries that sort after them.
+ */
+final class NetworkIndex {
+    private final EventStore store;
+    private int[] entities = new int[16]; // sorted network entity ids
+    private int[] addresses = new int[16]; // parallel packed addresses, for the binary search
+    private int size;
+    private int scanned; // entity ids below this have been looked at
+
+    NetworkIndex(EventStore store) {
+        this.store = store;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int entity(int position) {
+        return entities[position];
+    }
+
+    int address(int position) {
+        return addresses[position];
+    }
+
+    /**
+     * First position whose address is at or above the (unsigned) address.
+     */
+    int lowerBound(int address) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Integer.compareUnsigned(addresses[mid], address) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First position whose address is above the (unsigned) address.
+     */
+    int upperBound(int address) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Integer.compareUnsigned(addresses[mid], address) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    void refresh() {
+        int total = store.entityCount();
+        if (scanned == total) {
+            return;
+        }
+        Integer[] fresh = new Integer[total - scanned];
+        int count = 0;
+        for (int id = scanned; id < total; id++) {
+            if (store.entity(id) instanceof NetworkInfo) {
+                fresh[count++] = id;
+            }
+        }
+        scanned = total;
+        if (count == 0) {
+            return;
+        }
+        Arrays.sort(fresh, 0, count, this::compare);
+
+        int merged = size + count;
+        if (entities.length < merged) {
+            entities = Arrays.copyOf(entities, Math.max(merged, entities.length * 2));
+            addresses = Arrays.copyOf(addresses, entities.length);
+        }
+        // Merge from the back so the existing prefix can be merged in place
+        int i = size - 1;
+        int j = count - 1;
+        for (int k = merged - 1; j >= 0; k--) {
+            if (i >= 0 && compare(entities[i], fresh[j]) > 0) {
+                entities[k] = entities[i];
+                addresses[k] = addresses[i--];
+            } else {
+                entities[k] = fresh[j];
+                addresses[k] = endpoint(fresh[j--]).getAddress();
+            }
+        }
+        size = merged;
+    }
+
+    private int compare(int a, int b) {
+        NetworkInfo x = endpoint(a);
+        NetworkInfo y = endpoint(b);
+        int c = Integer.compareUnsigned(x.getAddress(), y.getAddress());
+        return c != 0 ? c : Integer.compare(x.getPort(), y.getPort());
+    }
+
+    private NetworkInfo endpoint(int id) {
+        return (NetworkInfo) store.entity(id);
+    }
+}
@@ -0,0 +1,312 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * An EventStore whose rows live in a memory-mapped scratch file instead of on the heap.
+ *
+ * Each row is a fixed 32-byte record (seconds, nanos, subject, object and flags ids, type
+ * ordinal), so a row's columns are found by offset alone. The file is mapped in chunks of
+ * {@value #CHUNK_ROWS} rows as it grows; the operating system pages records in and out, so
+ * the row count is bounded by disk rather than by -Xmx, and the collector never scans them.
+ * Only the interned entities and flag strings stay on the heap.
+ *
+ * An engine on top keeps its per-row indexes (the dataset-wide dedup table and the time
+ * order) in further scratch files from {@link #arrays()}, so between queries its heap use
+ * follows the number of distinct entities and process names, not the number of rows or
+ * distinct events. Queries that return or rank every distinct event (uniqueEvents(),
+ * topKFrequentEvents(k)) still need heap in proportion to the distinct events while they
+ * run. All scratch files are deleted on {@link #close()}; the store cannot be used
+ * afterwards. Not thread-safe.
+ */
+public final class OffHeapEventStore implements EventStore, Closeable {
+    static final int CHUNK_ROWS = 1 << 20;
+
+    private static final EventType[] TYPES = EventType.values();
+    private static final int CHUNK_SHIFT = 20;
+    private static final int RECORD_SHIFT = 5; // 32-byte records
+    private static final long CHUNK_BYTES = (long) CHUNK_ROWS << RECORD_SHIFT;
+    // Index arrays shorter than this stay on the heap: at most a few MB, and no tiny files
+    private static final int MAPPED_ARRAY_MIN_LENGTH = CHUNK_ROWS;
+
+    private static final int SECONDS = 0;
+    private static final int NANOS = 8;
+    private static final int SUBJECT = 12;
+    private static final int OBJECT = 16;
+    private static final int FLAGS = 20;
+    private static final int TYPE = 24;
+
+    private final Path directory;
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer[] chunks = new MappedByteBuffer[4];
+    private int chunkCount;
+    private int size;
+
+    private final EntityTable entities = new EntityTable();
+    private final Set<MappedIntArray> arrays = new HashSet<>(); // live index arrays, released on close
+
+    /**
+     * Keep the rows in a scratch file in the default temporary directory.
+     */
+    public OffHeapEventStore() throws IOException {
+        this(Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Keep the rows in a scratch file in the given directory, e.g. on a larger disk.
+     */
+    public OffHeapEventStore(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        this.directory = directory;
+        this.file = Files.createTempFile(directory, "soclog-events", ".rows");
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException if the scratch file cannot be extended
+     */
+    @Override
+    public int add(Event event) {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException("Event store is closed");
+        }
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Event store is full");
+        }
+        int row = size;
+        if ((row >>> CHUNK_SHIFT) == chunkCount) {
+            mapChunk();
+        }
+        Instant timestamp = event.getTimestamp();
+        MappedByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int offset = offset(row);
+        chunk.putLong(offset + SECONDS, timestamp.getEpochSecond());
+        chunk.putInt(offset + NANOS, timestamp.getNano());
+        chunk.putInt(offset + SUBJECT, entities.encodeEntity(event.getSubject()));
+        chunk.putInt(offset + OBJECT, entities.encodeEntity(event.getObject()));
+        chunk.putInt(offset + FLAGS, entities.encodeFlags(event.getFlags()));
+        chunk.put(offset + TYPE, (byte) event.getType().ordinal());
+        size++;
+        return row;
+    }
+
+    /**
+     * Path of the scratch file holding the rows.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long epochSecond(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getLong(offset(row) + SECONDS);
+    }
+
+    @Override
+    public int nano(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(offset(row) + NANOS);
+    }
+
+    @Override
+    public int typeOrdinal(int row) {
+        return chunks[row >>> CHUNK_SHIFT].get(offset(row) + TYPE);
+    }
+
+    @Override
+    public EventType type(int row) {
+        return TYPES[typeOrdinal(row)];
+    }
+
+    @Override
+    public int subjectId(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(offset(row) + SUBJECT);
+    }
+
+    @Override
+    public int objectId(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(offset(row) + OBJECT);
+    }
+
+    @Override
+    public int flagsId(int row) {
+        return chunks[row >>> CHUNK_SHIFT].getInt(offset(row) + FLAGS);
+    }
+
+    @Override
+    public ObjectInfo entity(int id) {
+        return entities.entity(id);
+    }
+
+    @Override
+    public int entityCount() {
+        return entities.entityCount();
+    }
+
+    @Override
+    public String flagsValue(int id) {
+        return entities.flagsValue(id);
+    }
+
+    @Override
+    public int processNameId(int entityId) {
+        return entities.processNameId(entityId);
+    }
+
+    @Override
+    public String processName(int nameId) {
+        return entities.processName(nameId);
+    }
+
+    @Override
+    public int processNameCount() {
+        return entities.processNameCount();
+    }
+
+    /**
+     * Arrays for the indexes an engine keeps per row. Large ones are mapped from scratch
+     * files in this store's directory and deleted when released or when the store is closed.
+     */
+    IntArray.Factory arrays() {
+        return length -> {
+            if (length < MAPPED_ARRAY_MIN_LENGTH) {
+                return IntArray.HEAP.allocate(length);
+            }
+            if (!channel.isOpen()) {
+                throw new IllegalStateException("Event store is closed");
+            }
+            try {
+                MappedIntArray array = new MappedIntArray(length);
+                arrays.add(array);
+                return array;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create index file in " + directory, e);
+            }
+        };
+    }
+
+    /**
+     * Release the mappings and delete the scratch files.
+     */
+    @Override
+    public void close() throws IOException {
+        for (MappedIntArray array : new ArrayList<>(arrays)) {
+            array.release();
+        }
+        chunks = new MappedByteBuffer[0];
+        chunkCount = 0;
+        size = 0;
+        try {
+            channel.close();
+        } finally {
+            // Mappings are released by the collector; deleting still works where the OS allows it
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static int offset(int row) {
+        return (row & (CHUNK_ROWS - 1)) << RECORD_SHIFT;
+    }
+
+    private void mapChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        try {
+            chunks[chunkCount] = channel.map(FileChannel.MapMode.READ_WRITE, chunkCount * CHUNK_BYTES, CHUNK_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extend event store file " + file, e);
+        }
+        chunkCount++;
+    }
+
+    /**
+     * An index array in its own scratch file, mapped in chunks of CHUNK_ROWS ints.
+     */
+    private final class MappedIntArray extends IntArray {
+        private final Path arrayFile;
+        private final FileChannel arrayChannel;
+        private final MappedByteBuffer[] arrayChunks;
+        private final int length;
+
+        MappedIntArray(int length) throws IOException {
+            this.length = length;
+            this.arrayFile = Files.createTempFile(directory, "soclog-index", ".ints");
+            FileChannel opened = null;
+            try {
+                opened = FileChannel.open(arrayFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                long bytes = (long) length << 2;
+                long chunkBytes = (long) CHUNK_ROWS << 2;
+                arrayChunks = new MappedByteBuffer[(int) ((bytes + chunkBytes - 1) / chunkBytes)];
+                for (int c = 0; c < arrayChunks.length; c++) {
+                    long from = c * chunkBytes;
+                    arrayChunks[c] = opened.map(FileChannel.MapMode.READ_WRITE, from, Math.min(chunkBytes, bytes - from));
+                }
+            } catch (IOException e) {
+                if (opened != null) {
+                    opened.close();
+                }
+                Files.deleteIfExists(arrayFile);
+                throw e;
+            }
+            this.arrayChannel = opened;
+        }
+
+        @Override
+        int length() {
+            return length;
+        }
+
+        @Override
+        int get(int index) {
+            return arrayChunks[index >>> CHUNK_SHIFT].getInt((index & (CHUNK_ROWS - 1)) << 2);
+        }
+
+        @Override
+        void set(int index, int value) {
+            arrayChunks[index >>> CHUNK_SHIFT].putInt((index & (CHUNK_ROWS - 1)) << 2, value);
+        }
+
+        @Override
+        void release() {
+            if (!arrays.remove(this)) {
+                return;
+            }
+            try {
+                arrayChannel.close();
+                Files.deleteIfExists(arrayFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete index file " + arrayFile, e);
+            }
+        }
+    }
+}
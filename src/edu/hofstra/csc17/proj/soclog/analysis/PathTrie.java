@@ -0,0 +1,144 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A watch list of paths compiled into a radix trie (a character trie whose single-child
+ * chains are merged into one edge label).
+ *
+ * A path matches a watched path W when it is W itself, lies under W ({@code W + "/"} is a
+ * prefix of it) or is a directory above W ({@code path + "/"} is a prefix of W). A lookup
+ * walks the path once, comparing edge labels in place, so it costs O(path length) no matter
+ * how many paths are watched and allocates nothing. Immutable once built.
+ */
+public final class PathTrie {
+    private final Node root = new Node("");
+    private final int size;
+
+    /**
+     * @throws IllegalArgumentException if paths is null or contains null
+     */
+    public PathTrie(Collection<String> paths) {
+        if (paths == null) {
+            throw new IllegalArgumentException("Paths cannot be null");
+        }
+        int count = 0;
+        for (String path : paths) {
+            if (path == null) {
+                throw new IllegalArgumentException("Paths cannot contain null");
+            }
+            if (insert(path)) {
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    /**
+     * Number of distinct watched paths.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean matches(String path) {
+        int length = path.length();
+        Node node = root;
+        int i = 0; // characters of path consumed so far, always at a node boundary here
+        while (true) {
+            if (i == length) {
+                // Equal to a watched path, or a watched path continues with '/' below this one
+                return node.terminal || node.child('/') != null;
+            }
+            if (node.terminal && path.charAt(i) == '/') {
+                return true; // under a watched path
+            }
+            Node child = node.child(path.charAt(i));
+            if (child == null) {
+                return false;
+            }
+            String label = child.label;
+            int k = 0;
+            while (k < label.length() && i < length && label.charAt(k) == path.charAt(i)) {
+                k++;
+                i++;
+            }
+            if (k < label.length()) {
+                // The path ended inside the edge; every node has a watched path below it
+                return i == length && label.charAt(k) == '/';
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * @return false if the path was already present
+     */
+    private boolean insert(String path) {
+        Node node = root;
+        int i = 0;
+        while (i < path.length()) {
+            Node child = node.child(path.charAt(i));
+            if (child == null) {
+                node.addChild(new Node(path.substring(i)), true);
+                return true;
+            }
+            String label = child.label;
+            int k = 0;
+            while (k < label.length() && i < path.length() && label.charAt(k) == path.charAt(i)) {
+                k++;
+                i++;
+            }
+            if (k < label.length()) {
+                // Split the edge where the new path leaves it
+                Node middle = new Node(label.substring(0, k));
+                node.replaceChild(child, middle);
+                child.label = label.substring(k);
+                middle.addChild(child, false);
+                if (i == path.length()) {
+                    middle.terminal = true;
+                } else {
+                    middle.addChild(new Node(path.substring(i)), true);
+                }
+                return true;
+            }
+            node = child;
+        }
+        boolean added = !node.terminal;
+        node.terminal = true;
+        return added;
+    }
+
+    private static final class Node {
+        private String label; // edge label from the parent; only the root's is empty
+        private boolean terminal;
+        private char[] firstChars = new char[0]; // sorted, parallel to children
+        private Node[] children = new Node[0];
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(firstChars, c);
+            return index < 0 ? null : children[index];
+        }
+
+        void addChild(Node child, boolean terminal) {
+            child.terminal |= terminal;
+            char c = child.label.charAt(0);
+            int index = -Arrays.binarySearch(firstChars, c) - 1;
+            firstChars = Arrays.copyOf(firstChars, firstChars.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(firstChars, index, firstChars, index + 1, firstChars.length - index - 1);
+            System.arraycopy(children, index, children, index + 1, children.length - index - 1);
+            firstChars[index] = c;
+            children[index] = child;
+        }
+
+        void replaceChild(Node old, Node replacement) {
+            children[Arrays.binarySearch(firstChars, old.label.charAt(0))] = replacement;
+        }
+    }
+}
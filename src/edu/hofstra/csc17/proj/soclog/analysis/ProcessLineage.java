@@ -0,0 +1,298 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.ForkEvent;
+
+/**
+ * Process tree built from fork events, keyed by pid.
+ *
+ * Fork edges are added incrementally; the first fork that creates a pid decides its parent,
+ * and an edge that would close a cycle (a process forking one of its own ancestors) is
+ * ignored. A node keeps the ProcessInfo it was first seen with.
+ *
+ * Queries run against an Euler tour of the forest that is rebuilt, in linear time and
+ * without recursion, after edges were added: every node gets the interval [enter, exit] of
+ * its subtree's positions, so "is a an ancestor of b" is two comparisons and a subtree is a
+ * contiguous range. Each node also caches its nearest non-root ancestor, which answers
+ * "was this root process started (possibly over several hops) by a user process" in O(1).
+ *
+ * Queries may run concurrently with each other: the tour is built once under a lock and
+ * published as a whole. Adding forks must not overlap queries.
+ */
+public final class ProcessLineage {
+    private final Map<Integer, Integer> nodeByPid = new HashMap<>();
+    private ProcessInfo[] processes = new ProcessInfo[16];
+    private int[] parent = new int[16];
+    private int[] firstChild = new int[16];
+    private int[] lastChild = new int[16];
+    private int[] nextSibling = new int[16];
+    private int[] treeLink = new int[16]; // union-find over trees, used to reject cycles
+    private int size;
+
+    // Euler tour; null when edges were added since it was built
+    private volatile Tour tour;
+
+    public void add(ForkEvent fork) {
+        addFork(fork.getParentProcess(), fork.getChildProcess());
+    }
+
+    /**
+     * Record that parent forked child.
+     * @return false if the edge was ignored (child already has a parent, or a cycle)
+     */
+    public boolean addFork(ProcessInfo parentProcess, ProcessInfo childProcess) {
+        if (parentProcess == null || childProcess == null) {
+            throw new IllegalArgumentException("Parent and child processes cannot be null");
+        }
+        int p = node(parentProcess);
+        int c = node(childProcess);
+        if (parent[c] >= 0 || p == c || find(p) == c) {
+            return false;
+        }
+
+        parent[c] = p;
+        if (firstChild[p] < 0) {
+            firstChild[p] = c;
+        } else {
+            nextSibling[lastChild[p]] = c;
+        }
+        lastChild[p] = c;
+        treeLink[c] = p;
+        tour = null;
+        return true;
+    }
+
+    /**
+     * Number of distinct pids seen.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int pid) {
+        return nodeByPid.containsKey(pid);
+    }
+
+    /**
+     * @return the process recorded for the pid, or null if the pid was never seen
+     */
+    public ProcessInfo getProcess(int pid) {
+        Integer n = nodeByPid.get(pid);
+        return n == null ? null : processes[n];
+    }
+
+    /**
+     * @return the process that forked the pid, or null for unknown pids and tree roots
+     */
+    public ProcessInfo getParent(int pid) {
+        Integer n = nodeByPid.get(pid);
+        return n == null || parent[n] < 0 ? null : processes[parent[n]];
+    }
+
+    /**
+     * Whether ancestorPid is a proper ancestor of pid.
+     */
+    public boolean isAncestor(int ancestorPid, int pid) {
+        Integer a = nodeByPid.get(ancestorPid);
+        Integer n = nodeByPid.get(pid);
+        if (a == null || n == null || a.equals(n)) {
+            return false;
+        }
+        Tour t = tour();
+        return t.enter[a] <= t.enter[n] && t.enter[n] <= t.exit[a];
+    }
+
+    /**
+     * Ancestors of the pid, nearest (the parent) first.
+     */
+    public List<ProcessInfo> ancestors(int pid) {
+        Integer n = nodeByPid.get(pid);
+        if (n == null) {
+            return Collections.emptyList();
+        }
+        List<ProcessInfo> result = new ArrayList<>();
+        for (int a = parent[n]; a >= 0; a = parent[a]) {
+            result.add(processes[a]);
+        }
+        return result;
+    }
+
+    /**
+     * Every process forked (directly or not) from the pid, in depth-first order.
+     */
+    public List<ProcessInfo> descendants(int pid) {
+        Integer n = nodeByPid.get(pid);
+        if (n == null) {
+            return Collections.emptyList();
+        }
+        Tour t = tour();
+        List<ProcessInfo> result = new ArrayList<>(t.exit[n] - t.enter[n]);
+        for (int position = t.enter[n] + 1; position <= t.exit[n]; position++) {
+            result.add(processes[t.byPosition[position]]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the closest ancestor of the pid that does not run as root, or null if every
+     *         ancestor is root (or the pid is unknown)
+     */
+    public ProcessInfo nearestUserAncestor(int pid) {
+        Integer n = nodeByPid.get(pid);
+        if (n == null) {
+            return null;
+        }
+        int user = tour().nearestUser[n];
+        return user < 0 ? null : processes[user];
+    }
+
+    /**
+     * The fork chain from the nearest user ancestor down to the pid, if the pid runs as
+     * root and has one; otherwise an empty list. A direct user-to-root fork is a chain of two.
+     */
+    public List<ProcessInfo> escalationChain(int pid) {
+        Integer n = nodeByPid.get(pid);
+        if (n == null || !processes[n].isRoot()) {
+            return Collections.emptyList();
+        }
+        int user = tour().nearestUser[n];
+        if (user < 0) {
+            return Collections.emptyList();
+        }
+        List<ProcessInfo> chain = new ArrayList<>();
+        for (int a = n; a != user; a = parent[a]) {
+            chain.add(processes[a]);
+        }
+        chain.add(processes[user]);
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    /**
+     * Root processes that have a user ancestor, in node order.
+     */
+    public List<ProcessInfo> escalatedProcesses() {
+        int[] nearestUser = tour().nearestUser;
+        List<ProcessInfo> result = new ArrayList<>();
+        for (int n = 0; n < size; n++) {
+            if (processes[n].isRoot() && nearestUser[n] >= 0) {
+                result.add(processes[n]);
+            }
+        }
+        return result;
+    }
+
+    private int node(ProcessInfo process) {
+        Integer existing = nodeByPid.get(process.getPid());
+        if (existing != null) {
+            return existing;
+        }
+        if (size == processes.length) {
+            int capacity = size * 2;
+            processes = Arrays.copyOf(processes, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            lastChild = Arrays.copyOf(lastChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            treeLink = Arrays.copyOf(treeLink, capacity);
+        }
+        int n = size++;
+        processes[n] = process;
+        parent[n] = -1;
+        firstChild[n] = -1;
+        lastChild[n] = -1;
+        nextSibling[n] = -1;
+        treeLink[n] = n;
+        nodeByPid.put(process.getPid(), n);
+        tour = null;
+        return n;
+    }
+
+    /**
+     * Root of the node's tree, with path halving.
+     */
+    private int find(int n) {
+        while (treeLink[n] != n) {
+            treeLink[n] = treeLink[treeLink[n]];
+            n = treeLink[n];
+        }
+        return n;
+    }
+
+    /**
+     * The current Euler tour, built first if edges were added since the last one.
+     */
+    private Tour tour() {
+        Tour t = tour;
+        if (t == null) {
+            synchronized (this) {
+                t = tour;
+                if (t == null) {
+                    t = build();
+                    tour = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    private Tour build() {
+        int[] enter = new int[size];
+        int[] exit = new int[size];
+        int[] byPosition = new int[size];
+        int[] nearestUser = new int[size];
+
+        int[] stack = new int[size];
+        int position = 0;
+        for (int start = 0; start < size; start++) {
+            if (parent[start] >= 0) {
+                continue;
+            }
+            nearestUser[start] = -1;
+            int depth = 0;
+            stack[depth++] = start;
+            enter[start] = position;
+            byPosition[position++] = start;
+
+            // Each stack entry is a node whose children are still being visited; walk the
+            // child and sibling links instead of recursing so deep fork chains are fine
+            int next = firstChild[start];
+            while (depth > 0) {
+                if (next >= 0) {
+                    int p = parent[next];
+                    nearestUser[next] = processes[p].isRoot() ? nearestUser[p] : p;
+                    enter[next] = position;
+                    byPosition[position++] = next;
+                    stack[depth++] = next;
+                    next = firstChild[next];
+                } else {
+                    int done = stack[--depth];
+                    exit[done] = position - 1;
+                    next = nextSibling[done];
+                }
+            }
+        }
+        return new Tour(enter, exit, byPosition, nearestUser);
+    }
+
+    private static final class Tour {
+        final int[] enter;
+        final int[] exit;
+        final int[] byPosition;
+        final int[] nearestUser;
+
+        Tour(int[] enter, int[] exit, int[] byPosition, int[] nearestUser) {
+            this.enter = enter;
+            this.exit = exit;
+            this.byPosition = byPosition;
+            this.nearestUser = nearestUser;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+/**
+ * Open-addressing hash table over the rows of an EventStore that groups equal
+ * rows (i.e. equal events) into distinct entries, each with its first row and count.
+ * Rows are compared column by column, so no key objects are built.
+ */
+final class RowTable {
+    private final EventStore store;
+    private final IntArray.Factory arrays;
+    private IntArray slots; // distinct id + 1, 0 = empty
+    private IntArray firstRows;
+    private IntArray counts; // an event cannot occur more often than there are int row numbers
+    private int distinct;
+
+    RowTable(EventStore store) {
+        this(store, IntArray.HEAP);
+    }
+
+    /**
+     * @param arrays where the table keeps its columns, e.g. next to the rows of an off-heap store
+     */
+    RowTable(EventStore store, IntArray.Factory arrays) {
+        this.store = store;
+        this.arrays = arrays;
+        this.slots = arrays.allocate(16);
+        this.firstRows = arrays.allocate(16);
+        this.counts = arrays.allocate(16);
+    }
+
+    /**
+     * Count one more occurrence of the row's event.
+     * @return the distinct id of the row's event
+     */
+    int add(int row) {
+        if ((distinct + 1) * 2 > slots.length()) {
+            rehash(slots.length() * 2);
+        }
+        int mask = slots.length() - 1;
+        int i = mix(store.rowHash(row)) & mask;
+        int slot;
+        while ((slot = slots.get(i)) != 0) {
+            int id = slot - 1;
+            if (store.sameRow(firstRows.get(id), row)) {
+                counts.set(id, counts.get(id) + 1);
+                return id;
+            }
+            i = (i + 1) & mask;
+        }
+        if (distinct == firstRows.length()) {
+            firstRows = firstRows.resize(arrays, distinct * 2);
+            counts = counts.resize(arrays, distinct * 2);
+        }
+        int id = distinct++;
+        firstRows.set(id, row);
+        counts.set(id, 1);
+        slots.set(i, id + 1);
+        return id;
+    }
+
+    int distinctCount() {
+        return distinct;
+    }
+
+    int firstRow(int id) {
+        return firstRows.get(id);
+    }
+
+    long count(int id) {
+        return counts.get(id);
+    }
+
+    private void rehash(int capacity) {
+        IntArray rehashed = arrays.allocate(capacity);
+        int mask = capacity - 1;
+        for (int id = 0; id < distinct; id++) {
+            int i = mix(store.rowHash(firstRows.get(id))) & mask;
+            while (rehashed.get(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            rehashed.set(i, id + 1);
+        }
+        slots.release();
+        slots = rehashed;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,213 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+/**
+ * Streaming high-frequency detector: counts each process's events over a sliding window
+ * and raises an alert the moment a count goes above the threshold.
+ *
+ * Unlike {@link AnalyticsEngine#detectHighFrequencyProcesses}, which averages over the
+ * whole requested range, this catches a short burst inside a long quiet period. Each
+ * process gets a ring of per-bucket counts covering one window, so an event costs O(1)
+ * (at most one pass over the ring when time jumps ahead) and memory is one ring per process
+ * seen within the last window; idle processes are dropped.
+ *
+ * Events should arrive roughly in time order. An event older than the newest one of its
+ * process is still counted if it falls inside that process's current window, otherwise it
+ * is ignored. A process alerts once per burst and is re-armed after its count drops back to
+ * the limit. Not thread-safe.
+ */
+public final class SlidingWindowDetector {
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+    public static final int DEFAULT_BUCKETS = 60;
+
+    /**
+     * A process going over the limit.
+     */
+    public static final class Alert {
+        private final String processName;
+        private final Instant timestamp;
+        private final long count;
+        private final long limit;
+
+        Alert(String processName, Instant timestamp, long count, long limit) {
+            this.processName = processName;
+            this.timestamp = timestamp;
+            this.count = count;
+            this.limit = limit;
+        }
+
+        public String getProcessName() {
+            return processName;
+        }
+
+        /**
+         * Timestamp of the event that pushed the count over the limit.
+         */
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Alert{process='%s', timestamp=%s, count=%d, limit=%d}",
+                processName, timestamp, count, limit);
+        }
+    }
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final long limit;
+    private final Consumer<Alert> alerts;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private long newestBucket = Long.MIN_VALUE;
+    private long nextSweep = Long.MIN_VALUE;
+
+    public SlidingWindowDetector(long thresholdPerMinute, Consumer<Alert> alerts) {
+        this(DEFAULT_WINDOW, DEFAULT_BUCKETS, thresholdPerMinute, alerts);
+    }
+
+    /**
+     * @param window             length of the sliding window
+     * @param buckets            number of buckets the window is split into; more buckets
+     *                           slide more smoothly but cost more memory per process
+     * @param thresholdPerMinute events per minute; scaled to the window length the same way
+     *                           detectHighFrequencyProcesses does
+     */
+    public SlidingWindowDetector(Duration window, int buckets, long thresholdPerMinute, Consumer<Alert> alerts) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive, got: " + window);
+        }
+        if (buckets <= 0 || window.toMillis() % buckets != 0) {
+            throw new IllegalArgumentException("Buckets must be positive and divide the window ("
+                + window.toMillis() + " ms) evenly, got: " + buckets);
+        }
+        if (thresholdPerMinute <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive, got: " + thresholdPerMinute);
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.limit = (long) Math.ceil(thresholdPerMinute * (window.toMillis() / 60_000.0));
+        this.alerts = Objects.requireNonNull(alerts);
+    }
+
+    /**
+     * Count an event for its subject process.
+     */
+    public void accept(Event event) {
+        accept(event.getSubject().getName(), event.getTimestamp());
+    }
+
+    public void accept(String processName, Instant timestamp) {
+        long bucket = Math.floorDiv(timestamp.toEpochMilli(), bucketMillis);
+        if (bucket > newestBucket) {
+            newestBucket = bucket;
+            if (bucket >= nextSweep) {
+                sweep();
+            }
+        }
+
+        Counter counter = counters.computeIfAbsent(processName, name -> new Counter(buckets, bucket));
+        if (!counter.add(bucket)) {
+            return;
+        }
+        if (counter.total > limit) {
+            if (!counter.alerting) {
+                counter.alerting = true;
+                alerts.accept(new Alert(processName, timestamp, counter.total, limit));
+            }
+        } else {
+            counter.alerting = false;
+        }
+    }
+
+    /**
+     * Events of the process in its current window (the window ending at its newest event).
+     */
+    public long count(String processName) {
+        Counter counter = counters.get(processName);
+        return counter == null ? 0 : counter.total;
+    }
+
+    /**
+     * Most events any window may hold before the process alerts.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Number of processes with events in the last window.
+     */
+    public int activeProcesses() {
+        return counters.size();
+    }
+
+    /**
+     * Drop processes whose newest event has slid out of the window. Runs once per window
+     * length of event time, and every active process has had an event in that time, so
+     * the cost is amortized over those events.
+     */
+    private void sweep() {
+        Iterator<Counter> it = counters.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().head <= newestBucket - buckets) {
+                it.remove();
+            }
+        }
+        nextSweep = newestBucket + buckets;
+    }
+
+    /**
+     * Ring of per-bucket counts for the window ending at bucket {@code head}.
+     */
+    private static final class Counter {
+        private final long[] counts;
+        private long head;
+        private long total;
+        private boolean alerting;
+
+        Counter(int buckets, long head) {
+            this.counts = new long[buckets];
+            this.head = head;
+        }
+
+        /**
+         * @return false if the bucket is already outside the window and was not counted
+         */
+        boolean add(long bucket) {
+            int size = counts.length;
+            if (bucket > head) {
+                // Clear the buckets that slide out; a jump of a full window clears them all
+                long steps = Math.min(bucket - head, size);
+                for (long b = bucket - steps + 1; b <= bucket; b++) {
+                    int slot = (int) Math.floorMod(b, (long) size);
+                    total -= counts[slot];
+                    counts[slot] = 0;
+                }
+                head = bucket;
+            } else if (bucket <= head - size) {
+                return false;
+            }
+            counts[(int) Math.floorMod(bucket, (long) size)]++;
+            total++;
+            return true;
+        }
+    }
+}
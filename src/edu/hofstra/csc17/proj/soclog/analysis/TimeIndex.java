@@ -0,0 +1,148 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.time.Instant;
+
+/**
+ * Rows of an EventStore ordered by timestamp, so a time window maps to a contiguous
+ * range of positions found by binary search.
+ *
+ * The parser already rejects out-of-order records within a file, so the common case is a
+ * store that is sorted as-is; the index then stays an implicit identity and costs nothing.
+ * Only when rows arrive out of order (several files, late events) is an explicit row
+ * permutation built. Rows added since the last refresh() are sorted on their own and merged
+ * in from the back, so a late row only moves the positions after it, and equal timestamps
+ * keep insertion order. The permutation and the sort buffers come from an IntArray.Factory,
+ * so over an off-heap store they are mapped next to the rows.
+ */
+final class TimeIndex {
+    private final EventStore store;
+    private final IntArray.Factory arrays;
+    private IntArray order; // position -> row; null while the rows are already in time order
+    private int indexed;
+
+    TimeIndex(EventStore store, IntArray.Factory arrays) {
+        this.store = store;
+        this.arrays = arrays;
+    }
+
+    /**
+     * Number of indexed rows (all rows of the store, after refresh()).
+     */
+    int size() {
+        return indexed;
+    }
+
+    int row(int position) {
+        return order == null ? position : order.get(position);
+    }
+
+    /**
+     * First position whose timestamp is at or after the instant.
+     */
+    int lowerBound(Instant instant) {
+        return search(instant.getEpochSecond(), instant.getNano(), false);
+    }
+
+    /**
+     * First position whose timestamp is after the instant.
+     */
+    int upperBound(Instant instant) {
+        return search(instant.getEpochSecond(), instant.getNano(), true);
+    }
+
+    /**
+     * Bring rows added since the last call into the index.
+     */
+    void refresh() {
+        int size = store.size();
+        if (indexed == size) {
+            return;
+        }
+
+        if (order == null) {
+            int row = indexed;
+            while (row < size && (row == 0 || store.compareTime(row - 1, row) <= 0)) {
+                row++;
+            }
+            indexed = row;
+            if (row == size) {
+                return;
+            }
+            order = arrays.allocate(Math.max(size, 16));
+            for (int i = 0; i < indexed; i++) {
+                order.set(i, i);
+            }
+        }
+
+        int added = size - indexed;
+        IntArray fresh = arrays.allocate(added);
+        for (int i = 0; i < added; i++) {
+            fresh.set(i, indexed + i);
+        }
+        sort(fresh);
+
+        if (order.length() < size) {
+            order = order.resize(arrays, (int) Math.min(Integer.MAX_VALUE, Math.max(size, order.length() * 2L)));
+        }
+        // Merge from the back so the existing prefix can be merged in place
+        int i = indexed - 1;
+        int j = added - 1;
+        for (int k = size - 1; j >= 0; k--) {
+            if (i >= 0 && store.compareTime(order.get(i), fresh.get(j)) > 0) {
+                order.set(k, order.get(i--));
+            } else {
+                order.set(k, fresh.get(j--));
+            }
+        }
+        fresh.release();
+        indexed = size;
+    }
+
+    private int search(long epochSecond, int nano, boolean after) {
+        int lo = 0;
+        int hi = indexed;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = store.compareTime(row(mid), epochSecond, nano);
+            if (c < 0 || (after && c == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Stable merge sort of row numbers by timestamp.
+     */
+    private void sort(IntArray rows) {
+        int length = rows.length();
+        if (length < 2) {
+            return;
+        }
+        IntArray buffer = arrays.allocate(length);
+        for (int width = 1; width < length; width *= 2) {
+            for (int lo = 0; lo < length - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, length);
+                if (store.compareTime(rows.get(mid - 1), rows.get(mid)) <= 0) {
+                    continue; // already in order
+                }
+                for (int k = lo; k < hi; k++) {
+                    buffer.set(k, rows.get(k));
+                }
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (j >= hi || (i < mid && store.compareTime(buffer.get(i), buffer.get(j)) <= 0)) {
+                        rows.set(k, buffer.get(i++));
+                    } else {
+                        rows.set(k, buffer.get(j++));
+                    }
+                }
+            }
+        }
+        buffer.release();
+    }
+}
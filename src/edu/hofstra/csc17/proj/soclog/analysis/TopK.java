@@ -0,0 +1,86 @@
+package edu.hofstra.csc17.proj.soclog.analysis;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Bounded top-k selection over integer ids (distinct event ids, process name ids, ...).
+ * Keeps the best k ids seen so far in a heap whose root is the worst of them, so ranking
+ * n candidates costs O(n log k) instead of a full sort.
+ */
+final class TopK {
+
+    /**
+     * Ranking of two ids: negative if a ranks ahead of b. Must be a total order, so ties
+     * have to be broken all the way down for the result to be deterministic.
+     */
+    interface Order {
+        int compare(int a, int b);
+    }
+
+    private TopK() {
+    }
+
+    /**
+     * The best (at most) k of the ids 0..n-1 that pass the filter, best first.
+     * @param eligible filter on ids, or null to consider every id
+     */
+    static int[] select(int n, int k, IntPredicate eligible, Order order) {
+        int[] heap = new int[Math.min(n, k)];
+        int size = 0;
+        for (int id = 0; id < n; id++) {
+            if (eligible != null && !eligible.test(id)) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = id;
+                siftUp(heap, size++, order);
+            } else if (size > 0 && order.compare(id, heap[0]) < 0) {
+                heap[0] = id;
+                siftDown(heap, size, order);
+            }
+        }
+
+        // Popping the worst each time fills the result from the back
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, order);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int i, Order order) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (order.compare(heap[parent], id) >= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private static void siftDown(int[] heap, int size, Order order) {
+        if (size == 0) {
+            return;
+        }
+        int id = heap[0];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(id, heap[child]) >= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.hofstra.csc17.proj.soclog.ingest;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+/**
+ * Receives ingestion output one record at a time, in input-file order.
+ * Lets callers consume logs larger than the heap without materializing every
+ * event and rejection the way {@link LogIngestor.IngestionResult} does.
+ */
+public interface EventSink {
+
+    /**
+     * Called for every event that passed validation.
+     */
+    void accept(Event event);
+
+    /**
+     * Called for every rejected record or unreadable file, with the same message
+     * that would appear in {@link LogIngestor.IngestionResult#getErrors()}.
+     */
+    void reject(String error);
+
+    /**
+     * Called for every rejection with its reason and position. By default the message is
+     * rendered and passed to {@link #reject(String)}; sinks that tally or store rejections
+     * can override this to skip the formatting.
+     */
+    default void reject(Rejection rejection) {
+        reject(rejection.getMessage());
+    }
+}
@@ -0,0 +1,250 @@
+package edu.hofstra.csc17.proj.soclog.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.ByteRecordParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EntityCache;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.LineScanner;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.RecordSequencer;
+
+/**
+ * Follows CSV logs that are still being written, like {@code tail -F}.
+ *
+ * Targets are files or directories (every *.csv in them, including files created later).
+ * Each file keeps its own read offset, line count and last timestamp, so a poll only reads
+ * bytes appended since the previous one and rejections carry the same "Line N" numbers a
+ * full parse of the file would. A record is only parsed once its line terminator has been
+ * written. When a file is truncated or replaced by a new file (rotation), it is read again
+ * from the start as a new file.
+ *
+ * A WatchService on the involved directories wakes {@link #awaitChange} early; the poll
+ * interval is the fallback for file systems where watching is slow or unsupported.
+ * Not thread-safe: poll from one thread.
+ */
+public class LogFollower implements Closeable {
+    public static final long DEFAULT_POLL_INTERVAL_MS = 1000;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final List<Path> targets;
+    private final EventSink sink;
+    private final long pollIntervalMs;
+    private final ByteRecordParser records;
+    private final Map<Path, Tail> tails = new LinkedHashMap<>();
+    private final WatchService watcher;
+    private volatile boolean closed;
+
+    private byte[] buffer = new byte[READ_BUFFER_SIZE];
+
+    public LogFollower(List<Path> targets, EventSink sink) throws IOException {
+        this(targets, sink, new EntityCache(), DEFAULT_POLL_INTERVAL_MS);
+    }
+
+    /**
+     * @param cache          shares repeated entities between events, or null to build fresh ones per record
+     * @param pollIntervalMs longest wait in {@link #awaitChange} when no change is reported
+     */
+    public LogFollower(List<Path> targets, EventSink sink, EntityCache cache, long pollIntervalMs) throws IOException {
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one file or directory to follow is required");
+        }
+        if (pollIntervalMs <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive, got: " + pollIntervalMs);
+        }
+        this.targets = new ArrayList<>(targets);
+        this.sink = Objects.requireNonNull(sink);
+        this.pollIntervalMs = pollIntervalMs;
+        this.records = new ByteRecordParser(cache);
+        this.watcher = FileSystems.getDefault().newWatchService();
+
+        Set<Path> watched = new LinkedHashSet<>();
+        for (Path target : this.targets) {
+            Path dir = Files.isDirectory(target) ? target : target.toAbsolutePath().getParent();
+            if (dir != null && Files.isDirectory(dir) && watched.add(dir)) {
+                dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+    }
+
+    /**
+     * Read everything appended to the followed files since the last poll and push the
+     * records to the sink. The first poll reads existing content from the start.
+     * @return true if any record (event or rejection) was produced
+     */
+    public boolean poll() throws IOException {
+        discover();
+        boolean produced = false;
+        for (Tail tail : tails.values()) {
+            produced |= read(tail);
+        }
+        return produced;
+    }
+
+    /**
+     * Block until a followed directory reports a change or the poll interval elapses.
+     * @return false once the follower is closed
+     */
+    public boolean awaitChange() throws InterruptedException {
+        if (closed) {
+            return false;
+        }
+        try {
+            WatchKey key = watcher.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+            // Drain everything that is already pending; poll() rescans all files anyway
+            while (key != null) {
+                key.pollEvents();
+                key.reset();
+                key = watcher.poll();
+            }
+        } catch (ClosedWatchServiceException e) {
+            return false;
+        }
+        return !closed;
+    }
+
+    /**
+     * Poll until closed or interrupted.
+     */
+    public void follow() throws IOException, InterruptedException {
+        do {
+            poll();
+        } while (awaitChange());
+    }
+
+    /**
+     * Files currently followed, in the order they are read.
+     */
+    public List<Path> getFiles() {
+        return Collections.unmodifiableList(new ArrayList<>(tails.keySet()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watcher.close();
+    }
+
+    /**
+     * Pick up listed files and any new *.csv files in the followed directories.
+     */
+    private void discover() throws IOException {
+        for (Path target : targets) {
+            if (!Files.isDirectory(target)) {
+                tails.computeIfAbsent(target, file -> new Tail(file, sink));
+                continue;
+            }
+            List<Path> found = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(target, "*.csv")) {
+                for (Path file : stream) {
+                    if (!tails.containsKey(file)) {
+                        found.add(file);
+                    }
+                }
+            }
+            Collections.sort(found);
+            for (Path file : found) {
+                tails.put(file, new Tail(file, sink));
+            }
+        }
+    }
+
+    private boolean read(Tail tail) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(tail.path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false; // rotated away or not created yet
+        }
+        Object fileKey = attributes.fileKey();
+        long size = attributes.size();
+        if ((fileKey != null && !fileKey.equals(tail.fileKey)) || size < tail.offset) {
+            tail.restart(fileKey);
+        }
+        if (size == tail.offset) {
+            return false;
+        }
+
+        boolean produced = false;
+        try (FileChannel channel = FileChannel.open(tail.path, StandardOpenOption.READ)) {
+            long position = tail.offset; // file offset of buffer[0]
+            int limit = 0;
+            // Stop at the size seen above so a busy writer cannot keep one poll going forever
+            while (position + limit < size) {
+                if (limit == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int wanted = (int) Math.min(buffer.length - limit, size - position - limit);
+                int read = channel.read(ByteBuffer.wrap(buffer, limit, wanted), position + limit);
+                if (read <= 0) {
+                    break;
+                }
+                limit += read;
+
+                int consumed = consumeLines(tail, limit);
+                produced |= consumed > 0;
+                System.arraycopy(buffer, consumed, buffer, 0, limit - consumed);
+                position += consumed;
+                limit -= consumed;
+            }
+            tail.offset = position;
+        }
+        return produced;
+    }
+
+    /**
+     * Parse every complete line in buffer[0, limit).
+     * @return the number of bytes consumed; the rest is an unfinished line
+     */
+    private int consumeLines(Tail tail, int limit) {
+        return tail.lines.scan(ByteBuffer.wrap(buffer), 0, limit, false, (buf, start, end, lineNumber) ->
+            tail.sequencer.parse(records, buf, start, end, lineNumber));
+    }
+
+    /**
+     * Read position and parse state of one followed file.
+     */
+    private static final class Tail {
+        private final Path path;
+        private final LineScanner lines = new LineScanner();
+        private final RecordSequencer sequencer;
+        private Object fileKey;
+        private long offset;
+
+        Tail(Path path, EventSink sink) {
+            this.path = path;
+            this.sequencer = new RecordSequencer(path, sink::accept, sink::reject, null);
+        }
+
+        void restart(Object fileKey) {
+            this.fileKey = fileKey;
+            offset = 0;
+            lines.reset();
+            sequencer.reset();
+        }
+    }
+}
@@ -1,62 +1,297 @@
 package edu.hofstra.csc17.proj.soclog.ingest;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.MappedChunkParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.RejectReason;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
 import edu.hofstra.csc17.proj.soclog.model.event.Event;
 
 public class LogIngestor {
+    public static final int DEFAULT_MAX_IN_FLIGHT_EVENTS = 100_000;
+
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    // Queue marker for "this file is done"
+    private static final Object END_OF_FILE = new Object();
+
     private final EventParser parser;
+    private final MappedChunkParser chunkParser;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxInFlightEvents;
 
     public LogIngestor(EventParser parser) {
+        this(parser, null);
+    }
+
+    /**
+     * @param chunkParser used instead of the parser for files larger than one chunk,
+     *                    or null to always parse files sequentially
+     */
+    public LogIngestor(EventParser parser, MappedChunkParser chunkParser) {
+        this(parser, chunkParser, null, 1, DEFAULT_MAX_IN_FLIGHT_EVENTS);
+    }
+
+    /**
+     * Ingest several files at once on the given executor. Results are still merged in
+     * input-file order, so the output is identical to sequential ingestion.
+     *
+     * @param executor          runs the per-file parse tasks; owned (and shut down) by the caller
+     * @param parallelism       how many files may be parsed ahead of the merge at once
+     * @param maxInFlightEvents cap on parsed-but-not-yet-merged events and errors across all files
+     */
+    public LogIngestor(EventParser parser, MappedChunkParser chunkParser, ExecutorService executor,
+                       int parallelism, int maxInFlightEvents) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive, got: " + parallelism);
+        }
+        if (maxInFlightEvents < parallelism) {
+            throw new IllegalArgumentException("Max in-flight events (" + maxInFlightEvents
+                + ") must be at least the parallelism (" + parallelism + ")");
+        }
         this.parser = parser;
+        this.chunkParser = chunkParser;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxInFlightEvents = maxInFlightEvents;
+    }
+
+    /**
+     * Create a worker pool for parallel ingestion. Uses virtual threads when asked and the
+     * runtime supports them (Java 21+), otherwise a fixed pool of platform threads.
+     */
+    public static ExecutorService newWorkerPool(int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Older runtime; fall back to platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(threads);
     }
 
     public IngestionResult ingest(List<Path> logFiles) throws IOException {
+        return ingest(logFiles, RejectionPolicy.keepAll());
+    }
+
+    /**
+     * Like {@link #ingest(List)}, but only the rejections the policy samples are kept in the
+     * result. Counts per reason are exact either way.
+     *
+     * @throws IOException also if the policy's spill file cannot be written
+     */
+    public IngestionResult ingest(List<Path> logFiles, RejectionPolicy policy) throws IOException {
         long startTime = System.currentTimeMillis();
         
         List<Event> events = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
+        try (RejectionPolicy.Collector rejections = policy.open()) {
+            ingest(logFiles, new EventSink() {
+                @Override
+                public void accept(Event event) {
+                    events.add(event);
+                }
+
+                @Override
+                public void reject(String error) {
+                    reject(Rejection.of(error));
+                }
+
+                @Override
+                public void reject(Rejection rejection) {
+                    try {
+                        rejections.add(rejection);
+                    } catch (IOException e) {
+                        throw new SpillException(e);
+                    }
+                }
+            });
+
+            long endTime = System.currentTimeMillis();
+            long processingTimeMs = endTime - startTime;
+
+            // The lists are ours alone, so hand them over without another copy
+            return new IngestionResult(events, rejections.getSamples(), rejections.getCounts(), processingTimeMs);
+        } catch (SpillException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Carries a spill file failure out of the sink, which cannot throw IOException.
+     */
+    private static final class SpillException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SpillException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #ingest(List)}: records are pushed to the sink as they are
+     * parsed, in input-file order, and nothing is retained by the ingestor.
+     */
+    public void ingest(List<Path> logFiles, EventSink sink) throws IOException {
+        Objects.requireNonNull(sink);
+        if (executor == null || parallelism == 1 || logFiles.size() < 2) {
+            for (Path file : logFiles) {
+                parseFile(file, sink::accept, sink::reject);
+            }
+        } else {
+            ingestParallel(logFiles, sink);
+        }
+    }
 
-        for (Path file : logFiles) {
-            if (!Files.exists(file)) {
-                errors.add("Missing file: " + file);
-                continue;
+    private void parseFile(Path file, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
+        if (!Files.exists(file)) {
+            if (parser.getMetrics() != null) {
+                parser.getMetrics().missingFile();
             }
-            if (Files.size(file) == 0) {
-                continue;
+            errors.accept(Rejection.missingFile(file));
+            return;
+        }
+        long size = Files.size(file);
+        if (size == 0) {
+            return;
+        }
+        if (chunkParser != null && size > chunkParser.getChunkSize()) {
+            chunkParser.parse(file, events, errors);
+        } else {
+            parser.parse(file, events, errors);
+        }
+    }
+
+    /**
+     * Parse up to {@code parallelism} files ahead of the merge. Each file streams into its
+     * own bounded queue, so a slow head file never starves behind later ones and the total
+     * number of buffered records stays under maxInFlightEvents.
+     */
+    private void ingestParallel(List<Path> logFiles, EventSink sink) throws IOException {
+        int queueCapacity = maxInFlightEvents / parallelism;
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < logFiles.size(); i++) {
+                while (tasks.size() < logFiles.size() && tasks.size() < i + parallelism) {
+                    Path file = logFiles.get(tasks.size());
+                    BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+                    queues.add(queue);
+                    tasks.add(executor.submit(() -> {
+                        try {
+                            parseFile(file, record -> put(queue, record), error -> put(queue, error));
+                            put(queue, END_OF_FILE);
+                        } catch (Throwable e) {
+                            // Errors too, or the merge would wait for END_OF_FILE forever
+                            put(queue, e);
+                        }
+                        return null;
+                    }));
+                }
+
+                BlockingQueue<Object> queue = queues.get(i);
+                while (true) {
+                    Object item = queue.take();
+                    if (item == END_OF_FILE) {
+                        break;
+                    } else if (item instanceof Event) {
+                        sink.accept((Event) item);
+                    } else if (item instanceof Rejection) {
+                        sink.reject((Rejection) item);
+                    } else if (item instanceof IOException) {
+                        throw (IOException) item;
+                    } else if (item instanceof Error) {
+                        throw (Error) item;
+                    } else {
+                        throw (RuntimeException) item;
+                    }
+                }
+                queues.set(i, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while ingesting", e);
+        } finally {
+            for (Future<?> task : tasks) {
+                task.cancel(true);
             }
-            EventParser.ParseResult parsed = parser.parse(file);
-            events.addAll(parsed.getEvents());
-            errors.addAll(parsed.getErrors());
         }
-        
-        long endTime = System.currentTimeMillis();
-        long processingTimeMs = endTime - startTime;
-        
-        return new IngestionResult(events, errors, processingTimeMs);
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Ingestion cancelled");
+        }
     }
 
     public static final class IngestionResult {
         private final List<Event> events;
-        private final List<String> errors;
+        private final List<Rejection> rejections;
+        private final long[] reasonCounts; // by RejectReason ordinal
+        private final long rejectionCount;
         private final long processingTimeMs;
 
         public IngestionResult(List<Event> events, List<String> errors) {
             this(events, errors, 0);
         }
         
+        /**
+         * Errors given as text are classified by {@link RejectReason#classify}.
+         */
         public IngestionResult(List<Event> events, List<String> errors, long processingTimeMs) {
             this.events = Collections.unmodifiableList(new ArrayList<>(events));
-            this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+            List<Rejection> rejections = new ArrayList<>(errors.size());
+            this.reasonCounts = new long[REASONS.length];
+            for (String error : errors) {
+                Rejection rejection = Rejection.of(error);
+                rejections.add(rejection);
+                reasonCounts[rejection.getReason().ordinal()]++;
+            }
+            this.rejections = Collections.unmodifiableList(rejections);
+            this.rejectionCount = rejections.size();
+            this.processingTimeMs = processingTimeMs;
+        }
+
+        /**
+         * Take over lists and counts nobody else holds, without copying.
+         */
+        private IngestionResult(List<Event> events, List<Rejection> rejections, long[] reasonCounts,
+                                long processingTimeMs) {
+            this.events = Collections.unmodifiableList(events);
+            this.rejections = Collections.unmodifiableList(rejections);
+            this.reasonCounts = reasonCounts;
+            this.rejectionCount = Arrays.stream(reasonCounts).sum();
             this.processingTimeMs = processingTimeMs;
         }
 
@@ -64,20 +299,50 @@ public class LogIngestor {
             return events;
         }
 
+        /**
+         * Messages of the kept rejections in input order, rendered as they are read.
+         */
         public List<String> getErrors() {
-            return errors;
+            return Rejection.messages(rejections);
+        }
+
+        /**
+         * Rejections kept by the ingestion's {@link RejectionPolicy}, in input order.
+         */
+        public List<Rejection> getRejections() {
+            return rejections;
+        }
+
+        /**
+         * Total number of rejections, including those the policy did not keep.
+         */
+        public long getRejectionCount() {
+            return rejectionCount;
+        }
+
+        /**
+         * Number of rejections per reason, for the reasons that occurred, tallied during ingestion.
+         */
+        public Map<RejectReason, Long> getRejectionCounts() {
+            Map<RejectReason, Long> counts = new EnumMap<>(RejectReason.class);
+            for (RejectReason reason : REASONS) {
+                if (reasonCounts[reason.ordinal()] > 0) {
+                    counts.put(reason, reasonCounts[reason.ordinal()]);
+                }
+            }
+            return counts;
         }
 
         public void printIngestionSummary() {
             System.out.println("Ingestion Summary:");
             System.out.println("  Valid events: " + events.size());
-            System.out.println("  Rejections: " + errors.size());
+            System.out.println("  Rejections: " + rejectionCount);
             System.out.println("  Processing time: " + processingTimeMs + " ms");
             
             // Add rejection rate
-            int totalRecords = events.size() + errors.size();
+            long totalRecords = events.size() + rejectionCount;
             if (totalRecords > 0) {
-                double rejectionRate = (errors.size() * 100.0 / totalRecords);
+                double rejectionRate = (rejectionCount * 100.0 / totalRecords);
                 System.out.printf("  Rejection rate: %.2f%%\n", rejectionRate);
             }
             
@@ -87,47 +352,12 @@ public class LogIngestor {
             }
             
             // Add top rejection reasons if there are errors
-            if (!errors.isEmpty()) {
-                Map<String, Long> errorCounts = errors.stream()
-                    .map(this::extractErrorReason)
-                    .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
-                
+            if (rejectionCount > 0) {
                 System.out.println("  Top rejection reasons:");
-                errorCounts.entrySet().stream()
-                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                getRejectionCounts().entrySet().stream()
+                    .sorted(Map.Entry.<RejectReason, Long>comparingByValue().reversed())
                     .limit(3)
-                    .forEach(e -> System.out.println("    - " + e.getKey() + ": " + e.getValue()));
-            }
-        }
-        
-        private String extractErrorReason(String error) {
-            // Extract the type of error from the error message
-            if (error.contains("Invalid event type")) {
-                return "Invalid event type";
-            } else if (error.contains("Malformed timestamp")) {
-                return "Malformed timestamp";
-            } else if (error.contains("is before previous timestamp")) {
-                return "Out-of-order timestamp";
-            } else if (error.contains("Missing or empty")) {
-                return "Missing required field";
-            } else if (error.contains("Invalid subject") || error.contains("Invalid object")) {
-                return "Invalid field format";
-            } else if (error.contains("Privilege must be")) {
-                return "Invalid privilege value";
-            } else if (error.contains("Invalid PID")) {
-                return "Invalid PID";
-            } else if (error.contains("Permissions must be")) {
-                return "Invalid file permissions";
-            } else if (error.contains("Port must be")) {
-                return "Invalid network port";
-            } else if (error.contains("Invalid IPv4")) {
-                return "Invalid IP address";
-            } else if (error.contains("Malformed key=value")) {
-                return "Malformed key=value pairs";
-            } else if (error.contains("Expected 5 fields")) {
-                return "Invalid record structure";
-            } else {
-                return "Other error";
+                    .forEach(e -> System.out.println("    - " + e.getKey().getLabel() + ": " + e.getValue()));
             }
         }
 
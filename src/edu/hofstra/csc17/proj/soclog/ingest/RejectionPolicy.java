@@ -0,0 +1,197 @@
+package edu.hofstra.csc17.proj.soclog.ingest;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.RejectReason;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+
+/**
+ * How many rejections {@link LogIngestor#ingest(List, RejectionPolicy)} keeps in memory.
+ *
+ * Counts per reason are always exact. Beyond that a policy keeps every rejection, only the
+ * first N of each reason, or a uniform reservoir sample of N per reason, so memory stays
+ * flat however dirty the input is. Optionally every rejection is also written to a spill
+ * file as it happens, one per line: reason, file, line number and message, tab-separated.
+ *
+ * Policies are immutable and can be reused across ingestions.
+ */
+public final class RejectionPolicy {
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private enum Sampling {
+        ALL,
+        FIRST,
+        RESERVOIR
+    }
+
+    private final Sampling sampling;
+    private final int samplesPerReason;
+    private final long seed;
+    private final Path spillFile;
+
+    private RejectionPolicy(Sampling sampling, int samplesPerReason, long seed, Path spillFile) {
+        this.sampling = sampling;
+        this.samplesPerReason = samplesPerReason;
+        this.seed = seed;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Keep every rejection, the behavior of {@link LogIngestor#ingest(List)}.
+     */
+    public static RejectionPolicy keepAll() {
+        return new RejectionPolicy(Sampling.ALL, Integer.MAX_VALUE, 0, null);
+    }
+
+    /**
+     * Keep the first samples rejections of each reason.
+     */
+    public static RejectionPolicy firstPerReason(int samples) {
+        return new RejectionPolicy(Sampling.FIRST, checkSamples(samples), 0, null);
+    }
+
+    /**
+     * Keep a uniform random sample of samples rejections of each reason; the same seed and
+     * input always give the same sample.
+     */
+    public static RejectionPolicy reservoirPerReason(int samples, long seed) {
+        return new RejectionPolicy(Sampling.RESERVOIR, checkSamples(samples), seed, null);
+    }
+
+    /**
+     * A copy of this policy that also writes every rejection to the given file, replacing
+     * its contents.
+     */
+    public RejectionPolicy spillTo(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Spill file cannot be null");
+        }
+        return new RejectionPolicy(sampling, samplesPerReason, seed, file);
+    }
+
+    /**
+     * Spill file, or null if rejections are only sampled.
+     */
+    public Path getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Rejections kept per reason; Integer.MAX_VALUE when all are kept.
+     */
+    public int getSamplesPerReason() {
+        return samplesPerReason;
+    }
+
+    private static int checkSamples(int samples) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("Samples per reason cannot be negative, got: " + samples);
+        }
+        return samples;
+    }
+
+    Collector open() throws IOException {
+        return new Collector();
+    }
+
+    /**
+     * Applies the policy during one ingestion. Not thread-safe; the ingestor hands it
+     * rejections from the merging thread only.
+     */
+    final class Collector implements Closeable {
+        private final long[] counts = new long[REASONS.length];
+        private final List<Rejection> all = sampling == Sampling.ALL ? new ArrayList<>() : null;
+        private final Rejection[][] samples = new Rejection[REASONS.length][];
+        private final long[][] sequence = new long[REASONS.length][];
+        private final int[] sampled = new int[REASONS.length];
+        private final Random random = new Random(seed);
+        private final BufferedWriter spill;
+        private long total;
+
+        private Collector() throws IOException {
+            this.spill = spillFile == null ? null : Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8);
+        }
+
+        void add(Rejection rejection) throws IOException {
+            int reason = rejection.getReason().ordinal();
+            long seen = ++counts[reason];
+            long position = total++;
+            if (spill != null) {
+                spill.write(rejection.getReason().name());
+                spill.write('\t');
+                spill.write(rejection.getFile() == null ? "" : rejection.getFile().toString());
+                spill.write('\t');
+                spill.write(Long.toString(rejection.getLine()));
+                spill.write('\t');
+                spill.write(rejection.getMessage());
+                spill.newLine();
+            }
+            if (all != null) {
+                all.add(rejection);
+                return;
+            }
+            if (sampled[reason] < samplesPerReason) {
+                if (samples[reason] == null) {
+                    // Grown on demand so a large N costs nothing for reasons that never occur
+                    samples[reason] = new Rejection[Math.min(samplesPerReason, 16)];
+                    sequence[reason] = new long[samples[reason].length];
+                } else if (sampled[reason] == samples[reason].length) {
+                    int capacity = (int) Math.min(samplesPerReason, samples[reason].length * 2L);
+                    samples[reason] = Arrays.copyOf(samples[reason], capacity);
+                    sequence[reason] = Arrays.copyOf(sequence[reason], capacity);
+                }
+                samples[reason][sampled[reason]] = rejection;
+                sequence[reason][sampled[reason]++] = position;
+            } else if (sampling == Sampling.RESERVOIR && samplesPerReason > 0) {
+                // Algorithm R: the seen-th rejection replaces a kept one with probability N / seen
+                long slot = (long) (random.nextDouble() * seen);
+                if (slot < samplesPerReason) {
+                    samples[reason][(int) slot] = rejection;
+                    sequence[reason][(int) slot] = position;
+                }
+            }
+        }
+
+        long[] getCounts() {
+            return counts;
+        }
+
+        /**
+         * Kept rejections in input order.
+         */
+        List<Rejection> getSamples() {
+            if (all != null) {
+                return all;
+            }
+            List<long[]> order = new ArrayList<>();
+            for (int reason = 0; reason < REASONS.length; reason++) {
+                for (int i = 0; i < sampled[reason]; i++) {
+                    order.add(new long[] {sequence[reason][i], reason, i});
+                }
+            }
+            order.sort(Comparator.comparingLong(entry -> entry[0]));
+            List<Rejection> kept = new ArrayList<>(order.size());
+            for (long[] entry : order) {
+                kept.add(samples[(int) entry[1]][(int) entry[2]]);
+            }
+            return kept;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (spill != null) {
+                spill.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import edu.hofstra.csc17.proj.soclog.metrics.IngestMetrics;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * Tokenizes a single CSV record straight out of a byte buffer.
+ * Field and key=value boundaries are kept as offsets into the buffer, so the only
+ * Strings created are the values handed to the entity constructors. Validation is
+ * shared with the line parser, so error text is identical in both modes.
+ *
+ * A record is parsed in two steps so the caller can do the chronological-order check
+ * in between: {@link #parseHead} (structure, event type, timestamp) and then
+ * {@link #parseBody} (subject and object). Both return null on success or the
+ * rejection, not yet tied to a file and line, on failure. With metrics, parseHead
+ * times the tokenize and timestamp stages and parseBody the entity stage.
+ */
+public final class ByteRecordParser {
+    private static final int FIELD_COUNT = 5;
+    private static final int TYPE = 0;
+    private static final int TIMESTAMP = 1;
+    private static final int FLAGS = 2;
+    private static final int SUBJECT = 3;
+    private static final int OBJECT = 4;
+
+    private static final EventType[] TYPES = EventType.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+    static {
+        for (int i = 0; i < TYPES.length; i++) {
+            TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final byte[][] PROCESS_KEYS = keys("name", "pid", "path", "privilege");
+    private static final byte[][] FILE_KEYS = keys("path", "fd", "permissions");
+    private static final byte[][] NETWORK_KEYS = keys("ip", "port", "protocol");
+
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final int[] valueStart = new int[PROCESS_KEYS.length];
+    private final int[] valueEnd = new int[PROCESS_KEYS.length];
+    private final TimestampDecoder timestamps = new TimestampDecoder();
+    private final EntityCache cache;
+    private final IngestMetrics metrics;
+    private byte[] scratch = new byte[256];
+
+    private ByteBuffer buf;
+    private EventType type;
+    private Instant timestamp;
+    private Event event;
+
+    public ByteRecordParser() {
+        this(null);
+    }
+
+    /**
+     * @param cache shares repeated entities between events, or null to build fresh ones per record
+     */
+    public ByteRecordParser(EntityCache cache) {
+        this(cache, null);
+    }
+
+    /**
+     * @param metrics receives stage timings, or null for none
+     */
+    public ByteRecordParser(EntityCache cache, IngestMetrics metrics) {
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Split the record in [start, end) into fields and validate the event type and timestamp.
+     * @return null if the head is valid, otherwise the rejection
+     */
+    public Rejection parseHead(ByteBuffer buf, int start, int end) {
+        this.buf = buf;
+        this.type = null;
+        this.timestamp = null;
+        this.event = null;
+
+        long t = metrics == null ? 0 : System.nanoTime();
+        Rejection error = splitFields(start, end);
+        if (metrics != null) {
+            t = metrics.record(IngestMetrics.Stage.TOKENIZE, t);
+        }
+        if (error == null) {
+            error = parseTimestamp();
+            if (metrics != null) {
+                metrics.record(IngestMetrics.Stage.TIMESTAMP, t);
+            }
+        }
+        return error;
+    }
+
+    private Rejection splitFields(int start, int end) {
+        int count = 0;
+        int fieldFrom = start;
+        for (int i = start; i < end; i++) {
+            if (buf.get(i) == ',') {
+                if (count < FIELD_COUNT) {
+                    fieldStart[count] = fieldFrom;
+                    fieldEnd[count] = i;
+                }
+                count++;
+                fieldFrom = i + 1;
+            }
+        }
+        if (count < FIELD_COUNT) {
+            fieldStart[count] = fieldFrom;
+            fieldEnd[count] = end;
+        }
+        count++;
+        if (count != FIELD_COUNT) {
+            return new Rejection(RejectReason.INVALID_STRUCTURE, "Expected 5 fields, got %d", count);
+        }
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            trimField(f);
+        }
+
+        type = matchType(fieldStart[TYPE], fieldEnd[TYPE]);
+        if (type == null) {
+            return new Rejection(RejectReason.INVALID_EVENT_TYPE, "Invalid event type '%s'",
+                decode(fieldStart[TYPE], fieldEnd[TYPE]));
+        }
+        return null;
+    }
+
+    private Rejection parseTimestamp() {
+        timestamp = timestamps.parse(buf, fieldStart[TIMESTAMP], fieldEnd[TIMESTAMP]);
+        if (timestamp == null) {
+            return new Rejection(RejectReason.MALFORMED_TIMESTAMP, "Malformed timestamp '%s'",
+                decode(fieldStart[TIMESTAMP], fieldEnd[TIMESTAMP]));
+        }
+        return null;
+    }
+
+    /**
+     * Validate the subject and object of the record last passed to {@link #parseHead}
+     * and build its event.
+     * @return null if an event was built, otherwise the rejection
+     */
+    public Rejection parseBody() {
+        if (metrics == null) {
+            return buildEvent();
+        }
+        long t = System.nanoTime();
+        Rejection error = buildEvent();
+        metrics.record(IngestMetrics.Stage.ENTITY, t);
+        return error;
+    }
+
+    private Rejection buildEvent() {
+        String flags = decode(fieldStart[FLAGS], fieldEnd[FLAGS]);
+
+        ProcessInfo subject;
+        try {
+            subject = parseProcessInfo(fieldStart[SUBJECT], fieldEnd[SUBJECT]);
+        } catch (Exception e) {
+            return new Rejection(InvalidFieldException.reasonOf(e), "Invalid subject: %s", e.getMessage());
+        }
+
+        try {
+            int from = fieldStart[OBJECT];
+            int to = fieldEnd[OBJECT];
+            ObjectInfo object;
+            switch (type) {
+                case sendto:
+                case receivefrom:
+                    scanPairs(from, to, NETWORK_KEYS);
+                    object = EventParser.toNetworkInfo(value(0), value(1), value(2));
+                    break;
+                case fork:
+                    object = parseProcessInfo(from, to);
+                    break;
+                default:
+                    scanPairs(from, to, FILE_KEYS);
+                    object = EventParser.toFileInfo(value(0), value(1), value(2));
+                    break;
+            }
+            event = EventParser.newEvent(cache, type, timestamp, subject, object, flags);
+        } catch (Exception e) {
+            return new Rejection(InvalidFieldException.reasonOf(e), "Invalid object for %s event: %s",
+                type, e.getMessage());
+        }
+        return null;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Equivalent of {@code line.trim().isEmpty()} over raw bytes.
+     */
+    public static boolean isBlank(ByteBuffer buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buf.get(i) & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ProcessInfo parseProcessInfo(int from, int to) throws InvalidFieldException {
+        scanPairs(from, to, PROCESS_KEYS);
+        return EventParser.toProcessInfo(value(0), value(1), value(2), value(3));
+    }
+
+    /**
+     * Walk the semicolon separated pairs in [from, to) and remember where the value of
+     * each wanted key starts and ends. Later duplicates win, like the HashMap they replace.
+     */
+    private void scanPairs(int from, int to, byte[][] wanted) throws InvalidFieldException {
+        Arrays.fill(valueStart, -1);
+        if (from >= to) {
+            throw new InvalidFieldException(RejectReason.MALFORMED_KEY_VALUE, "Empty key=value data");
+        }
+
+        int pairStart = from;
+        while (pairStart <= to) {
+            int pairEnd = indexOf((byte) ';', pairStart, to);
+            int s = skipLeading(pairStart, pairEnd);
+            if (s < pairEnd) {
+                int eq = indexOf((byte) '=', pairStart, pairEnd);
+                if (eq == pairEnd) {
+                    throw new InvalidFieldException(RejectReason.MALFORMED_KEY_VALUE,
+                        "Malformed key=value pair (missing '='): " + decode(pairStart, pairEnd));
+                }
+                int keyEnd = skipTrailing(s, eq);
+                if (s == keyEnd) {
+                    throw new InvalidFieldException(RejectReason.MALFORMED_KEY_VALUE,
+                        "Empty key in key=value pair: " + decode(pairStart, pairEnd));
+                }
+                int slot = matchKey(wanted, s, keyEnd);
+                if (slot >= 0) {
+                    int v = skipLeading(eq + 1, pairEnd);
+                    valueStart[slot] = v;
+                    valueEnd[slot] = skipTrailing(v, pairEnd);
+                }
+            }
+            pairStart = pairEnd + 1;
+        }
+    }
+
+    private String value(int slot) {
+        return valueStart[slot] < 0 ? null : decode(valueStart[slot], valueEnd[slot]);
+    }
+
+    private int matchKey(byte[][] wanted, int from, int to) {
+        int length = to - from;
+        for (int k = 0; k < wanted.length; k++) {
+            byte[] key = wanted[k];
+            if (key.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && buf.get(from + i) == key[i]) {
+                i++;
+            }
+            if (i == length) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Case-insensitive match against the EventType names (all lowercase ASCII).
+     */
+    private EventType matchType(int from, int to) {
+        int length = to - from;
+        for (int t = 0; t < TYPE_NAMES.length; t++) {
+            byte[] name = TYPE_NAMES[t];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length) {
+                byte b = buf.get(from + i);
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != name[i]) {
+                    break;
+                }
+                i++;
+            }
+            if (i == length) {
+                return TYPES[t];
+            }
+        }
+        return null;
+    }
+
+    private void trimField(int f) {
+        int s = skipLeading(fieldStart[f], fieldEnd[f]);
+        fieldStart[f] = s;
+        fieldEnd[f] = skipTrailing(s, fieldEnd[f]);
+    }
+
+    private int skipLeading(int from, int to) {
+        while (from < to && (buf.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int skipTrailing(int from, int to) {
+        while (to > from && (buf.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == b) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + from, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buf.get(from, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] keys(String... names) {
+        byte[][] result = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = names[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded canonicalizing cache for the immutable values the parser builds per record
+ * (ProcessInfo, FileInfo, NetworkInfo and flag strings).
+ *
+ * Logs repeat the same few hundred processes and files millions of times, so handing out
+ * one shared instance per distinct value keeps retained heap proportional to the number of
+ * distinct values, and lets later equals() calls hit the identity shortcut. Each segment is
+ * an access-ordered LinkedHashMap that evicts its least recently used entry once full;
+ * segments are locked independently so parallel parse workers rarely contend.
+ */
+public final class EntityCache {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public EntityCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EntityCache(int capacity) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Capacity must be at least " + SEGMENTS + ", got: " + capacity);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity / SEGMENTS);
+        }
+    }
+
+    /**
+     * Return the cached instance equal to value, caching value itself if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        int h = value.hashCode();
+        Segment segment = segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+        synchronized (segment) {
+            Object cached = segment.get(value);
+            if (cached != null) {
+                segment.hits++;
+                return (T) cached;
+            }
+            segment.misses++;
+            segment.put(value, value);
+            return value;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        long hits = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                hits += segment.hits;
+            }
+        }
+        return hits;
+    }
+
+    public long misses() {
+        long misses = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                misses += segment.misses;
+            }
+        }
+        return misses;
+    }
+
+    private static final class Segment extends LinkedHashMap<Object, Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private long hits;
+        private long misses;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -2,57 +2,159 @@ package edu.hofstra.csc17.proj.soclog.ingest.parser;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
+import edu.hofstra.csc17.proj.soclog.metrics.IngestMetrics;
 import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
 import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
 import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
 import edu.hofstra.csc17.proj.soclog.model.event.*;
 
 public class EventParser {
 
-    private static final Pattern IPV4_PATTERN = Pattern.compile(
-        "^((25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$"
-    );
-    
     private static final Pattern OCTAL_PATTERN = Pattern.compile("^[0-7]{3}$");
 
     public static final class ParseResult {
         private final List<Event> events;
-        private final List<String> errors;
+        private final List<Rejection> rejections;
 
-        public ParseResult(List<Event> events, List<String> errors) {
+        public ParseResult(List<Event> events, List<Rejection> rejections) {
             this.events = events;
-            this.errors = errors;
+            this.rejections = rejections;
         }
 
         public List<Event> getEvents() {
             return events;
         }
 
+        /**
+         * Rejection messages, rendered as they are read.
+         */
         public List<String> getErrors() {
-            return errors;
+            return Rejection.messages(rejections);
+        }
+
+        public List<Rejection> getRejections() {
+            return rejections;
         }
     }
 
+    /**
+     * How records are read from disk. LINE decodes every line into a String and splits it;
+     * BYTE scans raw bytes and only decodes the values the entities keep.
+     */
+    public enum Mode {
+        LINE,
+        BYTE
+    }
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Mode mode;
+    private final EntityCache cache;
+    private final IngestMetrics metrics;
+
+    public EventParser() {
+        this(Mode.LINE);
+    }
+
+    /**
+     * Parse without interning: every record gets its own entities, as before the cache existed.
+     */
+    public EventParser(Mode mode) {
+        this(mode, null);
+    }
+
+    /**
+     * @param cache shares repeated entities between events, or null to build fresh ones per record
+     */
+    public EventParser(Mode mode, EntityCache cache) {
+        this(mode, cache, null);
+    }
+
+    /**
+     * @param metrics receives per-file counts and stage timings, or null to skip instrumentation
+     */
+    public EventParser(Mode mode, EntityCache cache, IngestMetrics metrics) {
+        this.mode = Objects.requireNonNull(mode);
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public EntityCache getCache() {
+        return cache;
+    }
+
+    public IngestMetrics getMetrics() {
+        return metrics;
+    }
+
     public ParseResult parse(Path path) throws IOException {
         List<Event> events = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
+        List<Rejection> rejections = new ArrayList<>();
+        parse(path, events::add, rejections::add);
+        return new ParseResult(events, rejections);
+    }
+
+    /**
+     * Push-style variant of {@link #parse(Path)}: every valid event and every rejection
+     * is handed to the callbacks in file order instead of being collected.
+     */
+    public void parse(Path path, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
+        if (metrics == null) {
+            parseFile(path, events, errors);
+            return;
+        }
+        IngestMetrics.FileRun run = metrics.startFile(path, Files.size(path));
+        try {
+            parseFile(path, run.events(events), run.errors(errors));
+        } finally {
+            run.finish();
+        }
+    }
+
+    private void parseFile(Path path, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
+        if (mode == Mode.BYTE) {
+            parseBytes(path, events, errors);
+        } else {
+            parseLines(path, events, errors);
+        }
+    }
+
+    private void parseLines(Path path, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
         Instant lastTimestamp = null;
+        TimestampDecoder timestamps = new TimestampDecoder();
         
         try (BufferedReader reader = Files.newBufferedReader(path)) {
             String line;
             long lineNumber = 0;
             
-            while ((line = reader.readLine()) != null) {
+            while (true) {
+                long t = metrics == null ? 0 : System.nanoTime();
+                line = reader.readLine();
+                if (metrics != null) {
+                    t = metrics.record(IngestMetrics.Stage.READ, t);
+                }
+                if (line == null) {
+                    break;
+                }
                 lineNumber++;
                 
                 // Skip empty lines
@@ -60,13 +162,14 @@ public class EventParser {
                     continue;
                 }
                 
+                Event event;
                 try {
                     // Parse CSV record (5 fields)
                     String[] fields = parseCsvLine(line);
                     
                     if (fields.length != 5) {
-                        errors.add(String.format("Line %d: Expected 5 fields, got %d", 
-                            lineNumber, fields.length));
+                        reject(errors, IngestMetrics.Stage.TOKENIZE, t, new Rejection(RejectReason.INVALID_STRUCTURE,
+                            path, lineNumber, "Expected 5 fields, got %d", fields.length));
                         continue;
                     }
                     
@@ -81,56 +184,117 @@ public class EventParser {
                     try {
                         eventType = EventType.valueOf(eventTypeStr.toLowerCase());
                     } catch (IllegalArgumentException e) {
-                        errors.add(String.format("Line %d: Invalid event type '%s'", 
-                            lineNumber, eventTypeStr));
+                        reject(errors, IngestMetrics.Stage.TOKENIZE, t, new Rejection(RejectReason.INVALID_EVENT_TYPE,
+                            path, lineNumber, "Invalid event type '%s'", eventTypeStr));
                         continue;
                     }
+                    t = mark(IngestMetrics.Stage.TOKENIZE, t);
                     
                     // Validate and parse timestamp
-                    Instant timestamp;
-                    try {
-                        timestamp = Instant.parse(timestampStr);
-                    } catch (DateTimeParseException e) {
-                        errors.add(String.format("Line %d: Malformed timestamp '%s'", 
-                            lineNumber, timestampStr));
+                    Instant timestamp = timestamps.parse(timestampStr);
+                    if (timestamp == null) {
+                        reject(errors, IngestMetrics.Stage.TIMESTAMP, t, new Rejection(RejectReason.MALFORMED_TIMESTAMP,
+                            path, lineNumber, "Malformed timestamp '%s'", timestampStr));
                         continue;
                     }
                     
                     // Check chronological order
                     if (lastTimestamp != null && timestamp.isBefore(lastTimestamp)) {
-                        errors.add(String.format("Line %d: Timestamp %s is before previous timestamp %s", 
-                            lineNumber, timestamp, lastTimestamp));
+                        reject(errors, IngestMetrics.Stage.TIMESTAMP, t,
+                            Rejection.outOfOrder(timestamp, lastTimestamp).at(path, lineNumber));
                         continue;
                     }
                     lastTimestamp = timestamp;
+                    t = mark(IngestMetrics.Stage.TIMESTAMP, t);
                     
                     // Parse subject (always ProcessInfo)
                     ProcessInfo subject;
                     try {
                         subject = parseProcessInfo(subjectStr);
                     } catch (Exception e) {
-                        errors.add(String.format("Line %d: Invalid subject: %s", 
-                            lineNumber, e.getMessage()));
+                        reject(errors, IngestMetrics.Stage.ENTITY, t, new Rejection(InvalidFieldException.reasonOf(e),
+                            path, lineNumber, "Invalid subject: %s", e.getMessage()));
                         continue;
                     }
                     
                     // Create event based on type
                     try {
-                        Event event = createEvent(eventType, timestamp, subject, objectStr, flags, lineNumber);
-                        events.add(event);
+                        event = createEvent(eventType, timestamp, subject, objectStr, flags, lineNumber);
+                        mark(IngestMetrics.Stage.ENTITY, t);
                     } catch (Exception e) {
-                        errors.add(String.format("Line %d: Invalid object for %s event: %s", 
-                            lineNumber, eventType, e.getMessage()));
+                        reject(errors, IngestMetrics.Stage.ENTITY, t, new Rejection(InvalidFieldException.reasonOf(e),
+                            path, lineNumber, "Invalid object for %s event: %s", eventType, e.getMessage()));
+                        continue;
                     }
                     
                 } catch (Exception e) {
-                    errors.add(String.format("Line %d: Parse error: %s", 
-                        lineNumber, e.getMessage()));
+                    reject(errors, IngestMetrics.Stage.TOKENIZE, t, new Rejection(RejectReason.OTHER,
+                        path, lineNumber, "Parse error: %s", e.getMessage()));
+                    continue;
                 }
+                // Outside the try blocks: a failing sink is the caller's error, not a bad record
+                events.accept(event);
+            }
+        }
+    }
+
+    /**
+     * With metrics, close the stage that started at {@code since}.
+     * @return the start of the next stage
+     */
+    private long mark(IngestMetrics.Stage stage, long since) {
+        return metrics == null ? 0 : metrics.record(stage, since);
+    }
+
+    /**
+     * Report a rejection. With metrics, the stage that failed is closed first and the
+     * hand-off is timed as the reject stage.
+     */
+    private void reject(Consumer<Rejection> errors, IngestMetrics.Stage stage, long since, Rejection rejection) {
+        if (metrics == null) {
+            errors.accept(rejection);
+            return;
+        }
+        long t = metrics.record(stage, since);
+        errors.accept(rejection);
+        metrics.record(IngestMetrics.Stage.REJECT, t);
+    }
+    
+    /**
+     * Byte-level equivalent of the line loop above. Lines are split by LineScanner exactly
+     * as with BufferedReader.readLine, and records are tokenized in place by ByteRecordParser.
+     */
+    private void parseBytes(Path path, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
+        ByteRecordParser records = new ByteRecordParser(cache, metrics);
+        RecordSequencer sequencer = new RecordSequencer(path, events, errors, metrics);
+        LineScanner lines = new LineScanner();
+        LineScanner.Handler handler = (buf, start, end, lineNumber) ->
+            sequencer.parse(records, buf, start, end, lineNumber);
+
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int limit = 0;
+
+        try (InputStream in = Files.newInputStream(path)) {
+            while (true) {
+                if (limit == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                long t = metrics == null ? 0 : System.nanoTime();
+                int read = in.read(buffer, limit, buffer.length - limit);
+                mark(IngestMetrics.Stage.READ, t);
+                boolean eof = read < 0;
+                if (!eof) {
+                    limit += read;
+                }
+
+                int consumed = lines.scan(ByteBuffer.wrap(buffer), 0, limit, eof, handler);
+                if (eof) {
+                    break;
+                }
+                System.arraycopy(buffer, consumed, buffer, 0, limit - consumed);
+                limit -= consumed;
             }
         }
-        
-        return new ParseResult(events, errors);
     }
     
     private String[] parseCsvLine(String line) {
@@ -142,45 +306,56 @@ public class EventParser {
                              String objectStr, String flags, long lineNumber) throws Exception {
         switch (eventType) {
             case read:
-                return new ReadEvent(timestamp, subject, parseFileInfo(objectStr), flags);
             case write:
-                return new WriteEvent(timestamp, subject, parseFileInfo(objectStr), flags);
             case execute:
-                return new ExecuteEvent(timestamp, subject, parseFileInfo(objectStr), flags);
             case open:
-                return new OpenEvent(timestamp, subject, parseFileInfo(objectStr), flags);
             case close:
-                return new CloseEvent(timestamp, subject, parseFileInfo(objectStr), flags);
+                return newEvent(cache, eventType, timestamp, subject, parseFileInfo(objectStr), flags);
             case sendto:
-                return new SendToEvent(timestamp, subject, parseNetworkInfo(objectStr), flags);
             case receivefrom:
-                return new ReceiveFromEvent(timestamp, subject, parseNetworkInfo(objectStr), flags);
+                return newEvent(cache, eventType, timestamp, subject, parseNetworkInfo(objectStr), flags);
             case fork:
-                return new ForkEvent(timestamp, subject, parseProcessInfo(objectStr), flags);
+                return newEvent(cache, eventType, timestamp, subject, parseProcessInfo(objectStr), flags);
             default:
                 throw new IllegalArgumentException("Unsupported event type: " + eventType);
         }
     }
+
+    /**
+     * Instantiate the concrete event class for an already validated object, sharing
+     * entities and flags through the cache when there is one.
+     */
+    static Event newEvent(EntityCache cache, EventType eventType, Instant timestamp, ProcessInfo subject,
+                          ObjectInfo object, String flags) {
+        if (cache != null) {
+            subject = cache.intern(subject);
+            object = cache.intern(object);
+            flags = cache.intern(flags);
+        }
+        return Event.of(eventType, timestamp, subject, object, flags);
+    }
     
-    private ProcessInfo parseProcessInfo(String data) throws Exception {
+    private ProcessInfo parseProcessInfo(String data) throws InvalidFieldException {
         Map<String, String> fields = parseKeyValuePairs(data);
-        
-        String name = fields.get("name");
-        String pidStr = fields.get("pid");
-        String path = fields.get("path");
-        String privilege = fields.get("privilege");
-        
+        return toProcessInfo(fields.get("name"), fields.get("pid"), fields.get("path"), fields.get("privilege"));
+    }
+
+    /**
+     * Validate raw subject/fork-child values and build the ProcessInfo.
+     * Shared by the line and byte parsing modes so both report identical errors.
+     */
+    static ProcessInfo toProcessInfo(String name, String pidStr, String path, String privilege) throws InvalidFieldException {
         if (name == null || name.isEmpty()) {
-            throw new Exception("Missing or empty 'name' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'name' field");
         }
         if (pidStr == null || pidStr.isEmpty()) {
-            throw new Exception("Missing or empty 'pid' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'pid' field");
         }
         if (path == null || path.isEmpty()) {
-            throw new Exception("Missing or empty 'path' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'path' field");
         }
         if (privilege == null || privilege.isEmpty()) {
-            throw new Exception("Missing or empty 'privilege' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'privilege' field");
         }
         
         // Validate PID
@@ -188,35 +363,38 @@ public class EventParser {
         try {
             pid = Integer.parseInt(pidStr);
             if (pid <= 0) {
-                throw new Exception("PID must be positive, got: " + pid);
+                throw new InvalidFieldException(RejectReason.INVALID_PID, "PID must be positive, got: " + pid);
             }
         } catch (NumberFormatException e) {
-            throw new Exception("Invalid PID format: " + pidStr);
+            throw new InvalidFieldException(RejectReason.INVALID_PID, "Invalid PID format: " + pidStr);
         }
         
         // Validate privilege
         if (!ProcessInfo.PRIV_USER.equals(privilege) && !ProcessInfo.PRIV_ROOT.equals(privilege)) {
-            throw new Exception("Privilege must be 'user' or 'root', got: " + privilege);
+            throw new InvalidFieldException(RejectReason.INVALID_PRIVILEGE,
+                "Privilege must be 'user' or 'root', got: " + privilege);
         }
         
         return new ProcessInfo(name, pid, path, privilege);
     }
     
-    private FileInfo parseFileInfo(String data) throws Exception {
+    private FileInfo parseFileInfo(String data) throws InvalidFieldException {
         Map<String, String> fields = parseKeyValuePairs(data);
-        
-        String path = fields.get("path");
-        String fdStr = fields.get("fd");
-        String permissions = fields.get("permissions");
-        
+        return toFileInfo(fields.get("path"), fields.get("fd"), fields.get("permissions"));
+    }
+
+    /**
+     * Validate raw file object values and build the FileInfo.
+     */
+    static FileInfo toFileInfo(String path, String fdStr, String permissions) throws InvalidFieldException {
         if (path == null || path.isEmpty()) {
-            throw new Exception("Missing or empty 'path' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'path' field");
         }
         if (fdStr == null || fdStr.isEmpty()) {
-            throw new Exception("Missing or empty 'fd' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'fd' field");
         }
         if (permissions == null || permissions.isEmpty()) {
-            throw new Exception("Missing or empty 'permissions' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'permissions' field");
         }
         
         // Validate file descriptor
@@ -224,40 +402,47 @@ public class EventParser {
         try {
             fd = Integer.parseInt(fdStr);
             if (fd < 0) {
-                throw new Exception("File descriptor must be non-negative, got: " + fd);
+                throw new InvalidFieldException(RejectReason.INVALID_FIELD_FORMAT,
+                    "File descriptor must be non-negative, got: " + fd);
             }
         } catch (NumberFormatException e) {
-            throw new Exception("Invalid file descriptor format: " + fdStr);
+            throw new InvalidFieldException(RejectReason.INVALID_FIELD_FORMAT,
+                "Invalid file descriptor format: " + fdStr);
         }
         
         // Validate permissions (3-digit octal)
         if (!OCTAL_PATTERN.matcher(permissions).matches()) {
-            throw new Exception("Permissions must be 3-digit octal format, got: " + permissions);
+            throw new InvalidFieldException(RejectReason.INVALID_PERMISSIONS,
+                "Permissions must be 3-digit octal format, got: " + permissions);
         }
         
         return new FileInfo(path, fd, permissions);
     }
     
-    private NetworkInfo parseNetworkInfo(String data) throws Exception {
+    private NetworkInfo parseNetworkInfo(String data) throws InvalidFieldException {
         Map<String, String> fields = parseKeyValuePairs(data);
-        
-        String ip = fields.get("ip");
-        String portStr = fields.get("port");
-        String protocol = fields.get("protocol");
-        
+        return toNetworkInfo(fields.get("ip"), fields.get("port"), fields.get("protocol"));
+    }
+
+    /**
+     * Validate raw network object values and build the NetworkInfo.
+     */
+    static NetworkInfo toNetworkInfo(String ip, String portStr, String protocol) throws InvalidFieldException {
         if (ip == null || ip.isEmpty()) {
-            throw new Exception("Missing or empty 'ip' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'ip' field");
         }
         if (portStr == null || portStr.isEmpty()) {
-            throw new Exception("Missing or empty 'port' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'port' field");
         }
         if (protocol == null || protocol.isEmpty()) {
-            throw new Exception("Missing or empty 'protocol' field");
+            throw new InvalidFieldException(RejectReason.MISSING_FIELD, "Missing or empty 'protocol' field");
         }
         
         // Validate IP address
-        if (!IPV4_PATTERN.matcher(ip).matches()) {
-            throw new Exception("Invalid IPv4 address format: " + ip);
+        try {
+            NetworkInfo.packAddress(ip);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidFieldException(RejectReason.INVALID_IP, e.getMessage());
         }
         
         // Validate port
@@ -265,26 +450,28 @@ public class EventParser {
         try {
             port = Integer.parseInt(portStr);
             if (port < 0 || port > 65535) {
-                throw new Exception("Port must be between 0-65535, got: " + port);
+                throw new InvalidFieldException(RejectReason.INVALID_PORT,
+                    "Port must be between 0-65535, got: " + port);
             }
         } catch (NumberFormatException e) {
-            throw new Exception("Invalid port format: " + portStr);
+            throw new InvalidFieldException(RejectReason.INVALID_PORT, "Invalid port format: " + portStr);
         }
         
         // Validate protocol (case-insensitive)
         String protocolUpper = protocol.toUpperCase();
         if (!protocolUpper.equals("TCP") && !protocolUpper.equals("UDP") && !protocolUpper.equals("ICMP")) {
-            throw new Exception("Protocol must be TCP, UDP, or ICMP, got: " + protocol);
+            throw new InvalidFieldException(RejectReason.INVALID_FIELD_FORMAT,
+                "Protocol must be TCP, UDP, or ICMP, got: " + protocol);
         }
         
         return new NetworkInfo(ip, port, protocolUpper);
     }
     
-    private Map<String, String> parseKeyValuePairs(String data) throws Exception {
+    private Map<String, String> parseKeyValuePairs(String data) throws InvalidFieldException {
         Map<String, String> result = new HashMap<>();
         
         if (data == null || data.trim().isEmpty()) {
-            throw new Exception("Empty key=value data");
+            throw new InvalidFieldException(RejectReason.MALFORMED_KEY_VALUE, "Empty key=value data");
         }
         
         String[] pairs = data.split(";");
@@ -295,14 +482,16 @@ public class EventParser {
             
             int equalsIndex = pair.indexOf('=');
             if (equalsIndex == -1) {
-                throw new Exception("Malformed key=value pair (missing '='): " + pair);
+                throw new InvalidFieldException(RejectReason.MALFORMED_KEY_VALUE,
+                    "Malformed key=value pair (missing '='): " + pair);
             }
             
             String key = pair.substring(0, equalsIndex).trim();
             String value = pair.substring(equalsIndex + 1).trim();
             
             if (key.isEmpty()) {
-                throw new Exception("Empty key in key=value pair: " + pair);
+                throw new InvalidFieldException(RejectReason.MALFORMED_KEY_VALUE,
+                    "Empty key in key=value pair: " + pair);
             }
             
             result.put(key, value);
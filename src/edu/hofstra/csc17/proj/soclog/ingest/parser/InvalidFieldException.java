@@ -0,0 +1,24 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+/**
+ * A subject or object value failed validation. Thrown once per bad record, so it carries
+ * its reason and skips the stack trace.
+ */
+final class InvalidFieldException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final RejectReason reason;
+
+    InvalidFieldException(RejectReason reason, String message) {
+        super(message, null, false, false);
+        this.reason = reason;
+    }
+
+    /**
+     * Reason for any exception thrown while building a subject or object.
+     */
+    static RejectReason reasonOf(Exception e) {
+        return e instanceof InvalidFieldException ? ((InvalidFieldException) e).reason
+            : RejectReason.INVALID_FIELD_FORMAT;
+    }
+}
@@ -0,0 +1,90 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits raw bytes into lines the way BufferedReader.readLine does: lines end at \n, \r or
+ * \r\n, and a last line without a terminator still counts at the end of the input.
+ *
+ * The input may arrive in pieces. {@link #scan} only hands over lines whose terminator it
+ * has seen and reports how far it got, so the caller keeps the rest for the next call. A \r
+ * that ends one piece is remembered, and a \n that starts the next is treated as part of
+ * the same terminator. Lines are numbered from 1 across all pieces; blank lines are counted
+ * but not handed over.
+ *
+ * Not thread-safe; keep one per file.
+ */
+public final class LineScanner {
+
+    /**
+     * Receives each non-blank line, without its terminator.
+     */
+    public interface Handler {
+        void line(ByteBuffer buf, int start, int end, long lineNumber);
+    }
+
+    private long lineCount;
+    private boolean afterReturn;
+
+    /**
+     * Hand every complete line in [from, limit) of buf to the handler, in order.
+     * @param atEnd true if no more input follows, so an unterminated last line is complete too
+     * @return the position just after the last line handed over; the bytes from there to
+     *         limit start an unfinished line
+     */
+    public int scan(ByteBuffer buf, int from, int limit, boolean atEnd, Handler handler) {
+        int pos = from;
+        if (afterReturn && pos < limit) {
+            if (buf.get(pos) == '\n') {
+                pos++;
+            }
+            afterReturn = false;
+        }
+
+        while (pos < limit) {
+            int eol = pos;
+            while (eol < limit && buf.get(eol) != '\n' && buf.get(eol) != '\r') {
+                eol++;
+            }
+            if (eol == limit) {
+                if (!atEnd) {
+                    return pos;
+                }
+                lineCount++;
+                if (!ByteRecordParser.isBlank(buf, pos, eol)) {
+                    handler.line(buf, pos, eol, lineCount);
+                }
+                return limit;
+            }
+
+            lineCount++;
+            if (!ByteRecordParser.isBlank(buf, pos, eol)) {
+                handler.line(buf, pos, eol, lineCount);
+            }
+            pos = eol + 1;
+            if (buf.get(eol) == '\r') {
+                if (pos == limit) {
+                    afterReturn = true;
+                } else if (buf.get(pos) == '\n') {
+                    pos++;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Lines seen so far, blank ones included.
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Start over at line 1, for a file that is read again from the beginning.
+     */
+    public void reset() {
+        lineCount = 0;
+        afterReturn = false;
+    }
+}
@@ -0,0 +1,327 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import edu.hofstra.csc17.proj.soclog.metrics.IngestMetrics;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+/**
+ * Parses one large CSV file in parallel by memory-mapping it in newline-aligned chunks.
+ *
+ * Every chunk is tokenized on its own worker with a ByteRecordParser. The chronological-order
+ * check and the "Line N" numbering both depend on everything before the chunk, so workers
+ * only record each line's timestamp and outcome; the chunks are then stitched together in
+ * file order, which is where line numbers are offset and out-of-order records rejected.
+ * The result is identical to {@link EventParser#parse(Path)}.
+ *
+ * At most one chunk per worker is mapped and parsed ahead of the stitcher, so memory follows
+ * the worker count rather than the file size. Workers come from the executor given to the
+ * constructor or from one pool the parser keeps across files until {@link #close}.
+ */
+public class MappedChunkParser implements Closeable {
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    private static final int BOUNDARY_PROBE_SIZE = 64 * 1024;
+
+    private final int workers;
+    private final long chunkSize;
+    private final EntityCache cache;
+    private final IngestMetrics metrics;
+    private final ExecutorService executor;
+    private ExecutorService ownPool; // created on first use when no executor was given
+
+    public MappedChunkParser(int workers) {
+        this(workers, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Parse without interning, like {@link EventParser#EventParser(EventParser.Mode)}.
+     */
+    public MappedChunkParser(int workers, long chunkSize) {
+        this(workers, chunkSize, null);
+    }
+
+    /**
+     * @param cache shared by all chunk workers, or null to build fresh entities per record
+     */
+    public MappedChunkParser(int workers, long chunkSize, EntityCache cache) {
+        this(workers, chunkSize, cache, null);
+    }
+
+    /**
+     * @param metrics shared by all chunk workers for per-file counts and stage timings, or null
+     */
+    public MappedChunkParser(int workers, long chunkSize, EntityCache cache, IngestMetrics metrics) {
+        this(workers, chunkSize, cache, metrics, null);
+    }
+
+    /**
+     * @param executor runs the chunk tasks; owned (and shut down) by the caller, and must not be
+     *                 the executor the parse itself runs on. Null for a pool of workers threads
+     *                 owned by the parser.
+     */
+    public MappedChunkParser(int workers, long chunkSize, EntityCache cache, IngestMetrics metrics,
+                             ExecutorService executor) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive, got: " + workers);
+        }
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + Integer.MAX_VALUE / 2
+                + " bytes, got: " + chunkSize);
+        }
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.executor = executor;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public IngestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stop the parser's own pool, if it started one; a caller's executor is left alone.
+     */
+    @Override
+    public synchronized void close() {
+        if (ownPool != null) {
+            ownPool.shutdownNow();
+            ownPool = null;
+        }
+    }
+
+    private synchronized ExecutorService pool() {
+        if (executor != null) {
+            return executor;
+        }
+        if (ownPool == null) {
+            ownPool = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "soclog-chunk-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return ownPool;
+    }
+
+    public EventParser.ParseResult parse(Path path) throws IOException {
+        List<Event> events = new ArrayList<>();
+        List<Rejection> rejections = new ArrayList<>();
+        parse(path, events::add, rejections::add);
+        return new EventParser.ParseResult(events, rejections);
+    }
+
+    /**
+     * Push-style variant of {@link #parse(Path)}; chunks are handed over as soon as they
+     * and every chunk before them are done.
+     */
+    public void parse(Path path, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
+        if (metrics == null) {
+            parseFile(path, events, errors);
+            return;
+        }
+        IngestMetrics.FileRun run = metrics.startFile(path, Files.size(path));
+        try {
+            parseFile(path, run.events(events), run.errors(errors));
+        } finally {
+            run.finish();
+        }
+    }
+
+    private void parseFile(Path path, Consumer<Event> events, Consumer<Rejection> errors) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<long[]> bounds = split(channel);
+            ExecutorService pool = pool();
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            RecordSequencer sequencer = new RecordSequencer(path, events, errors, metrics);
+            long lineOffset = 0;
+            int next = 0;
+            try {
+                while (next < bounds.size() || !pending.isEmpty()) {
+                    while (next < bounds.size() && pending.size() < workers) {
+                        long[] range = bounds.get(next++);
+                        long t = metrics == null ? 0 : System.nanoTime();
+                        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                            range[0], range[1] - range[0]);
+                        if (metrics != null) {
+                            metrics.record(IngestMetrics.Stage.READ, t);
+                        }
+                        pending.add(pool.submit(() -> parseChunk(mapped)));
+                    }
+                    Chunk chunk = await(pending.poll());
+                    chunk.stitch(sequencer, lineOffset);
+                    lineOffset += chunk.lineCount;
+                }
+            } finally {
+                for (Future<Chunk> future : pending) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cut the file into ranges of roughly chunkSize bytes, each ending just after a '\n'
+     * so that no record (and no \r\n pair) straddles two chunks.
+     */
+    private List<long[]> split(FileChannel channel) throws IOException {
+        List<long[]> bounds = new ArrayList<>();
+        long size = channel.size();
+        long start = 0;
+        ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE_SIZE);
+
+        while (start < size) {
+            long end = start + chunkSize;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = nextLineStart(channel, end, size, probe);
+            }
+            bounds.add(new long[] {start, end});
+            start = end;
+        }
+        if (bounds.isEmpty()) {
+            bounds.add(new long[] {0, 0});
+        }
+        return bounds;
+    }
+
+    private long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private Chunk parseChunk(ByteBuffer buf) {
+        Chunk chunk = new Chunk();
+        ByteRecordParser records = new ByteRecordParser(cache, metrics);
+        LineScanner lines = new LineScanner();
+        lines.scan(buf, 0, buf.limit(), true, (b, start, end, lineNumber) -> {
+            Rejection error = records.parseHead(b, start, end);
+            if (error != null) {
+                chunk.reject((int) lineNumber, null, error);
+                return;
+            }
+            // Built eagerly; stitch() may still reject the line as out of order
+            Instant timestamp = records.getTimestamp();
+            error = records.parseBody();
+            if (error != null) {
+                chunk.reject((int) lineNumber, timestamp, error);
+            } else {
+                chunk.accept((int) lineNumber, records.getEvent());
+            }
+        });
+        chunk.lineCount = (int) lines.getLineCount();
+        return chunk;
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing chunk", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Chunk parse failed", cause);
+        }
+    }
+
+    /**
+     * Per-line outcomes of one chunk, with line numbers relative to the chunk start. Each
+     * outcome is the line's event or, for the few rejected lines, a Rejected.
+     */
+    private static final class Chunk {
+        private int lineCount;
+        private int size;
+        private int[] lines = new int[1024];
+        private Object[] outcomes = new Object[1024];
+
+        void accept(int line, Event event) {
+            add(line, event);
+        }
+
+        void reject(int line, Instant timestamp, Rejection error) {
+            add(line, new Rejected(timestamp, error));
+        }
+
+        private void add(int line, Object outcome) {
+            if (size == lines.length) {
+                lines = Arrays.copyOf(lines, size * 2);
+                outcomes = Arrays.copyOf(outcomes, size * 2);
+            }
+            lines[size] = line;
+            outcomes[size++] = outcome;
+        }
+
+        /**
+         * Replay the chunk in order against everything before it.
+         */
+        void stitch(RecordSequencer sequencer, long lineOffset) {
+            for (int i = 0; i < size; i++) {
+                if (outcomes[i] instanceof Event) {
+                    Event event = (Event) outcomes[i];
+                    sequencer.add(lineOffset + lines[i], event.getTimestamp(), event, null);
+                } else {
+                    Rejected rejected = (Rejected) outcomes[i];
+                    sequencer.add(lineOffset + lines[i], rejected.timestamp, null, rejected.error);
+                }
+            }
+        }
+    }
+
+    /**
+     * A line rejected on its worker, with its timestamp if the head was valid so it still
+     * counts for the order check.
+     */
+    private static final class Rejected {
+        private final Instant timestamp;
+        private final Rejection error;
+
+        Rejected(Instant timestamp, Rejection error) {
+            this.timestamp = timestamp;
+            this.error = error;
+        }
+    }
+}
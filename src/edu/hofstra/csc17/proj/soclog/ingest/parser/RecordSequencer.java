@@ -0,0 +1,95 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import edu.hofstra.csc17.proj.soclog.metrics.IngestMetrics;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+/**
+ * Applies the chronological-order check to the records of one file, in file order, and
+ * hands each record's event or rejection (tied to the file and line) to the consumers.
+ *
+ * A record whose timestamp precedes the last accepted one is rejected as out of order,
+ * which takes precedence over any problem in its subject or object. A record with a valid
+ * head that is in order moves the running timestamp forward even if its body is rejected.
+ *
+ * Not thread-safe; keep one per file.
+ */
+public final class RecordSequencer {
+    private final Path path;
+    private final Consumer<Event> events;
+    private final Consumer<Rejection> errors;
+    private final IngestMetrics metrics;
+    private Instant lastTimestamp;
+
+    /**
+     * @param metrics times the hand-off of rejections as the reject stage, or null
+     */
+    public RecordSequencer(Path path, Consumer<Event> events, Consumer<Rejection> errors, IngestMetrics metrics) {
+        this.path = path;
+        this.events = events;
+        this.errors = errors;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Parse the record in [start, end) of buf with records: the head, then the order check,
+     * then the body only if the record is in order.
+     */
+    public void parse(ByteRecordParser records, ByteBuffer buf, int start, int end, long lineNumber) {
+        Rejection error = records.parseHead(buf, start, end);
+        if (error == null) {
+            error = advance(records.getTimestamp());
+            if (error == null) {
+                error = records.parseBody();
+            }
+        }
+        emit(lineNumber, error == null ? records.getEvent() : null, error);
+    }
+
+    /**
+     * Take a record whose head and body were parsed ahead of time.
+     * @param timestamp the record's timestamp, or null if its head was rejected
+     * @param event     the event built from it, or null if error is set
+     * @param error     the head or body rejection, or null
+     */
+    public void add(long lineNumber, Instant timestamp, Event event, Rejection error) {
+        if (timestamp != null) {
+            Rejection outOfOrder = advance(timestamp);
+            if (outOfOrder != null) {
+                error = outOfOrder;
+            }
+        }
+        emit(lineNumber, event, error);
+    }
+
+    /**
+     * Forget the running timestamp, for a file that is read again from the beginning.
+     */
+    public void reset() {
+        lastTimestamp = null;
+    }
+
+    private Rejection advance(Instant timestamp) {
+        if (lastTimestamp != null && timestamp.isBefore(lastTimestamp)) {
+            return Rejection.outOfOrder(timestamp, lastTimestamp);
+        }
+        lastTimestamp = timestamp;
+        return null;
+    }
+
+    private void emit(long lineNumber, Event event, Rejection error) {
+        if (error == null) {
+            events.accept(event);
+        } else if (metrics == null) {
+            errors.accept(error.at(path, lineNumber));
+        } else {
+            long t = System.nanoTime();
+            errors.accept(error.at(path, lineNumber));
+            metrics.record(IngestMetrics.Stage.REJECT, t);
+        }
+    }
+}
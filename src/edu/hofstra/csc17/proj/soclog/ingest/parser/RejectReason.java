@@ -0,0 +1,68 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+/**
+ * Why a record (or a whole file) was rejected. Each reason has the label used in
+ * ingestion summaries.
+ */
+public enum RejectReason {
+    INVALID_STRUCTURE("Invalid record structure"),
+    INVALID_EVENT_TYPE("Invalid event type"),
+    MALFORMED_TIMESTAMP("Malformed timestamp"),
+    OUT_OF_ORDER_TIMESTAMP("Out-of-order timestamp"),
+    MISSING_FIELD("Missing required field"),
+    MALFORMED_KEY_VALUE("Malformed key=value pairs"),
+    INVALID_PID("Invalid PID"),
+    INVALID_PRIVILEGE("Invalid privilege value"),
+    INVALID_PERMISSIONS("Invalid file permissions"),
+    INVALID_PORT("Invalid network port"),
+    INVALID_IP("Invalid IP address"),
+    /** Any other subject or object value that failed validation. */
+    INVALID_FIELD_FORMAT("Invalid field format"),
+    MISSING_FILE("Missing file"),
+    OTHER("Other error");
+
+    private final String label;
+
+    RejectReason(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Best-effort reason for a message that only exists as text, such as errors handed to
+     * the public IngestionResult constructors.
+     */
+    public static RejectReason classify(String message) {
+        if (message.contains("Invalid event type")) {
+            return INVALID_EVENT_TYPE;
+        } else if (message.contains("Malformed timestamp")) {
+            return MALFORMED_TIMESTAMP;
+        } else if (message.contains("is before previous timestamp")) {
+            return OUT_OF_ORDER_TIMESTAMP;
+        } else if (message.contains("Missing or empty")) {
+            return MISSING_FIELD;
+        } else if (message.contains("Missing file")) {
+            return MISSING_FILE;
+        } else if (message.contains("Privilege must be")) {
+            return INVALID_PRIVILEGE;
+        } else if (message.contains("PID")) {
+            return INVALID_PID;
+        } else if (message.contains("Permissions must be")) {
+            return INVALID_PERMISSIONS;
+        } else if (message.contains("Port must be") || message.contains("port format")) {
+            return INVALID_PORT;
+        } else if (message.contains("Invalid IPv4")) {
+            return INVALID_IP;
+        } else if (message.contains("key=value")) {
+            return MALFORMED_KEY_VALUE;
+        } else if (message.contains("Expected 5 fields")) {
+            return INVALID_STRUCTURE;
+        } else if (message.contains("Invalid subject") || message.contains("Invalid object")) {
+            return INVALID_FIELD_FORMAT;
+        }
+        return OTHER;
+    }
+}
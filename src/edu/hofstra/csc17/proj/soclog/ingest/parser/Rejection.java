@@ -0,0 +1,121 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * One rejected record: reason, file, line number and a message that is only formatted
+ * when someone asks for it. Files with a high error rate therefore cost a small object per
+ * bad line rather than a String.format call.
+ *
+ * {@link #getMessage()} is the text the parser has always reported, e.g.
+ * "Line 3: Invalid event type 'bogus'"; the file is not part of it.
+ */
+public final class Rejection {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final RejectReason reason;
+    private final Path file;
+    private final long line;
+    private final String format;
+    private final Object[] args;
+    private String message;
+
+    /**
+     * A rejection not yet tied to a position; see {@link #at}.
+     * @param format String.format pattern of the detail, rendered lazily
+     */
+    public Rejection(RejectReason reason, String format, Object... args) {
+        this(reason, null, 0, format, args);
+    }
+
+    /**
+     * @param line 1-based line number, or 0 for the file as a whole
+     */
+    public Rejection(RejectReason reason, Path file, long line, String format, Object... args) {
+        if (reason == null || format == null) {
+            throw new IllegalArgumentException("Reason and format cannot be null");
+        }
+        this.reason = reason;
+        this.file = file;
+        this.line = line;
+        this.format = format;
+        this.args = args == null ? NO_ARGS : args;
+    }
+
+    /**
+     * The same rejection at a line of a file.
+     * @param line 1-based line number, or 0 for the file as a whole
+     */
+    public Rejection at(Path file, long line) {
+        return new Rejection(reason, file, line, format, args);
+    }
+
+    public static Rejection missingFile(Path file) {
+        return new Rejection(RejectReason.MISSING_FILE, file, 0, "Missing file: %s", new Object[] {file});
+    }
+
+    public static Rejection outOfOrder(Instant timestamp, Instant previous) {
+        return new Rejection(RejectReason.OUT_OF_ORDER_TIMESTAMP, "Timestamp %s is before previous timestamp %s",
+            timestamp, previous);
+    }
+
+    /**
+     * Read-only view rendering each rejection's message on access.
+     */
+    public static List<String> messages(List<Rejection> rejections) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return rejections.get(index).getMessage();
+            }
+
+            @Override
+            public int size() {
+                return rejections.size();
+            }
+        };
+    }
+
+    /**
+     * A rejection for a message that only exists as text, classified by {@link RejectReason#classify}.
+     */
+    public static Rejection of(String message) {
+        Rejection rejection = new Rejection(RejectReason.classify(message), "%s", message);
+        rejection.message = message;
+        return rejection;
+    }
+
+    public RejectReason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the file the record came from, or null if not known
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return 1-based line number, or 0 when the rejection is about the whole file
+     */
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        if (message == null) {
+            String detail = args.length == 0 ? format : String.format(format, args);
+            message = line > 0 ? "Line " + line + ": " + detail : detail;
+        }
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
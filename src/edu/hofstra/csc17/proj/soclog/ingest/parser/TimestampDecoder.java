@@ -0,0 +1,133 @@
+package edu.hofstra.csc17.proj.soclog.ingest.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Decodes record timestamps without going through {@link Instant#parse} for the common case.
+ *
+ * Every timestamp in our logs has the fixed shape yyyy-MM-ddTHH:mm:ssZ, so those 20
+ * characters are checked and turned into epoch seconds with plain digit arithmetic. The
+ * previous timestamp is remembered: consecutive records usually fall in the same second,
+ * which then costs one 19-byte comparison and returns the same Instant, and within the same
+ * day only the time of day is decoded. Anything else (fractions, offsets, leap seconds,
+ * out-of-range fields) goes to Instant.parse, so the accepted inputs and results are exactly
+ * those of Instant.parse. Malformed input gives null instead of an exception.
+ *
+ * Not thread-safe; each parser keeps its own.
+ */
+public final class TimestampDecoder {
+    private static final int LENGTH = 20; // yyyy-MM-ddTHH:mm:ssZ
+    private static final int DATE_LENGTH = 10;
+    private static final int SECOND_LENGTH = 19;
+
+    private final byte[] key = new byte[LENGTH];
+    private final byte[] lastKey = new byte[LENGTH];
+    private Instant lastInstant;
+    private long lastDaySeconds;
+    private boolean hasDay;
+
+    /**
+     * @return the instant, or null if text is not an ISO-8601 instant
+     */
+    public Instant parse(CharSequence text) {
+        if (text.length() == LENGTH) {
+            boolean ascii = true;
+            for (int i = 0; i < LENGTH; i++) {
+                char c = text.charAt(i);
+                ascii &= c < 0x80;
+                key[i] = (byte) c;
+            }
+            if (ascii) {
+                Instant instant = decodeKey();
+                if (instant != null) {
+                    return instant;
+                }
+            }
+        }
+        return fallback(text);
+    }
+
+    /**
+     * Decode the UTF-8 bytes in [start, end) of buf, which is left unchanged.
+     *
+     * @return the instant, or null if the bytes are not an ISO-8601 instant
+     */
+    public Instant parse(ByteBuffer buf, int start, int end) {
+        if (end - start == LENGTH) {
+            buf.get(start, key, 0, LENGTH);
+            Instant instant = decodeKey();
+            if (instant != null) {
+                return instant;
+            }
+        }
+        byte[] bytes = new byte[end - start];
+        buf.get(start, bytes, 0, bytes.length);
+        return fallback(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Fast path for the bytes in key; null if they are not a plain in-range timestamp.
+     */
+    private Instant decodeKey() {
+        if (key[LENGTH - 1] != 'Z') {
+            return null;
+        }
+        if (lastInstant != null && Arrays.equals(key, 0, SECOND_LENGTH, lastKey, 0, SECOND_LENGTH)) {
+            return lastInstant;
+        }
+        if (key[4] != '-' || key[7] != '-' || key[10] != 'T' || key[13] != ':' || key[16] != ':') {
+            return null;
+        }
+        int hour = number(11, 13);
+        int minute = number(14, 16);
+        int second = number(17, 19);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+
+        if (!hasDay || !Arrays.equals(key, 0, DATE_LENGTH, lastKey, 0, DATE_LENGTH)) {
+            int year = number(0, 4);
+            int month = number(5, 7);
+            int day = number(8, 10);
+            if (year < 0 || month < 1 || month > 12 || day < 1
+                    || day > Month.of(month).length(Year.isLeap(year))) {
+                return null;
+            }
+            lastDaySeconds = LocalDate.of(year, month, day).toEpochDay() * 86_400L;
+            hasDay = true;
+        }
+        System.arraycopy(key, 0, lastKey, 0, LENGTH);
+        lastInstant = Instant.ofEpochSecond(lastDaySeconds + hour * 3_600 + minute * 60 + second);
+        return lastInstant;
+    }
+
+    /**
+     * Decimal value of key[from, to), or -1 if it holds anything but ASCII digits.
+     */
+    private int number(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = key[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static Instant fallback(CharSequence text) {
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+/**
+ * Counters and per-stage latency histograms for ingestion.
+ *
+ * Parsers take an IngestMetrics, or null to skip instrumentation entirely: with null there
+ * is no clock read and no counter update on the hot path, only a null check per stage.
+ * When enabled, each record costs a handful of System.nanoTime calls and LongAdder updates,
+ * and any number of parser threads can share one instance.
+ *
+ * Totals are updated per record, so a periodic dump shows progress through a large file;
+ * per-file figures are added when the file is done.
+ */
+public final class IngestMetrics implements IngestMetricsMBean {
+
+    /**
+     * Where a record's parse time goes.
+     */
+    public enum Stage {
+        /** Reading from disk: one readLine, buffer fill or chunk mapping per sample. */
+        READ,
+        /** Splitting the record into fields and matching the event type. */
+        TOKENIZE,
+        /** Parsing the timestamp and checking its order. */
+        TIMESTAMP,
+        /** Validating the subject and object and building the event. */
+        ENTITY,
+        /** Handing a rejection to the caller. */
+        REJECT
+    }
+
+    private static final String DOMAIN = "edu.hofstra.csc17.proj.soclog";
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+    private final LongAdder files = new LongAdder();
+    private final LongAdder missingFiles = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Map<Path, FileStats> perFile = new ConcurrentHashMap<>();
+
+    // Wall-clock span with at least one file being parsed, for the rates
+    private final LongAccumulator firstStart = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator lastEnd = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public IngestMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Record the time since {@code since} (a System.nanoTime value) against the stage.
+     * @return the current System.nanoTime, to start the next stage from
+     */
+    public long record(Stage stage, long since) {
+        long now = System.nanoTime();
+        stages[stage.ordinal()].record(now - since);
+        return now;
+    }
+
+    public LatencyHistogram getStage(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /**
+     * Start counting one file. The returned run is used by a single thread.
+     */
+    public FileRun startFile(Path file, long size) {
+        long now = System.nanoTime();
+        active.incrementAndGet();
+        firstStart.accumulate(now);
+        return new FileRun(file, size, now);
+    }
+
+    /**
+     * Count a file that was asked for but does not exist.
+     */
+    public void missingFile() {
+        missingFiles.increment();
+    }
+
+    @Override
+    public long getFiles() {
+        return files.sum();
+    }
+
+    @Override
+    public long getMissingFiles() {
+        return missingFiles.sum();
+    }
+
+    @Override
+    public long getRecords() {
+        return getEvents() + getRejections();
+    }
+
+    @Override
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getRecordsPerSecond() {
+        return perSecond(getRecords());
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return perSecond(getBytes());
+    }
+
+    /**
+     * Figures of every finished file, in no particular order.
+     */
+    public List<FileStats> getFileStats() {
+        return new ArrayList<>(perFile.values());
+    }
+
+    @Override
+    public String[] getFileSummary() {
+        return getFileStats().stream().map(FileStats::toString).sorted().toArray(String[]::new);
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram stage : stages) {
+            stage.reset();
+        }
+        files.reset();
+        missingFiles.reset();
+        events.reset();
+        rejections.reset();
+        bytes.reset();
+        perFile.clear();
+        firstStart.reset();
+        lastEnd.reset();
+    }
+
+    /**
+     * Register this instance and one MBean per stage with the platform MBean server, as
+     * edu.hofstra.csc17.proj.soclog:type=Ingest,name=&lt;name&gt; and type=IngestStage,name=&lt;name&gt;,stage=...
+     *
+     * @throws IllegalStateException if the name is taken or not a valid ObjectName value
+     */
+    public synchronized void register(String name) {
+        if (!registered.isEmpty()) {
+            throw new IllegalStateException("Ingest metrics are already registered");
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName self = new ObjectName(DOMAIN + ":type=Ingest,name=" + name);
+            server.registerMBean(this, self);
+            registered.add(self);
+            for (Stage stage : Stage.values()) {
+                ObjectName stageName = new ObjectName(DOMAIN + ":type=IngestStage,name=" + name
+                    + ",stage=" + stage.name().toLowerCase());
+                server.registerMBean(getStage(stage), stageName);
+                registered.add(stageName);
+            }
+        } catch (JMException e) {
+            unregister();
+            throw new IllegalStateException("Cannot register ingest metrics as " + name, e);
+        }
+    }
+
+    /**
+     * Remove everything {@link #register} added; does nothing if not registered.
+     */
+    public synchronized void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+        registered.clear();
+    }
+
+    /**
+     * Multi-line text report of the totals, rates, stage latencies and per-file figures.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "Ingest: %d file(s), %d missing, %d record(s): %d event(s), "
+                + "%d rejection(s), %d byte(s)%n", getFiles(), getMissingFiles(), getRecords(), getEvents(),
+            getRejections(), getBytes()));
+        out.append(String.format(Locale.ROOT, "  Rate: %.0f records/s, %.2f MB/s%n",
+            getRecordsPerSecond(), getBytesPerSecond() / 1e6));
+        out.append(String.format(Locale.ROOT, "  %-10s %10s %11s %11s %11s %11s%n",
+            "Stage", "Count", "Mean us", "P50 us", "P99 us", "Max us"));
+        for (Stage stage : Stage.values()) {
+            out.append(String.format(Locale.ROOT, "  %-10s %s%n", stage.name().toLowerCase(), getStage(stage)));
+        }
+        for (String file : getFileSummary()) {
+            out.append("  ").append(file).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private double perSecond(long count) {
+        long start = firstStart.get();
+        if (start == Long.MAX_VALUE) {
+            return 0;
+        }
+        long end = active.get() > 0 ? System.nanoTime() : lastEnd.get();
+        return end > start ? count * 1e9 / (end - start) : 0;
+    }
+
+    /**
+     * Counts for one file while it is parsed. Not thread-safe; finish it exactly once.
+     */
+    public final class FileRun {
+        private final Path file;
+        private final long size;
+        private final long startNanos;
+        private long fileEvents;
+        private long fileRejections;
+
+        private FileRun(Path file, long size, long startNanos) {
+            this.file = file;
+            this.size = size;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Wrap the event callback so every event is counted.
+         */
+        public Consumer<Event> events(Consumer<Event> delegate) {
+            return event -> {
+                fileEvents++;
+                events.increment();
+                delegate.accept(event);
+            };
+        }
+
+        /**
+         * Wrap the rejection callback so every rejection is counted.
+         */
+        public Consumer<Rejection> errors(Consumer<Rejection> delegate) {
+            return error -> {
+                fileRejections++;
+                rejections.increment();
+                delegate.accept(error);
+            };
+        }
+
+        public void finish() {
+            long nanos = System.nanoTime() - startNanos;
+            files.increment();
+            bytes.add(size);
+            perFile.merge(file, new FileStats(file, fileEvents + fileRejections, fileRejections, size, nanos),
+                FileStats::plus);
+            lastEnd.accumulate(System.nanoTime());
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * What ingesting one file took. A file parsed more than once accumulates.
+     */
+    public static final class FileStats {
+        private final Path file;
+        private final long records;
+        private final long rejections;
+        private final long bytes;
+        private final long nanos;
+
+        FileStats(Path file, long records, long rejections, long bytes, long nanos) {
+            this.file = file;
+            this.records = records;
+            this.rejections = rejections;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getRejections() {
+            return rejections;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        private FileStats plus(FileStats other) {
+            return new FileStats(file, records + other.records, rejections + other.rejections,
+                bytes + other.bytes, nanos + other.nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d record(s), %d rejection(s), %d byte(s), %.1f ms",
+                file, records, rejections, bytes, nanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+/**
+ * JMX view of {@link IngestMetrics}. Per-stage latencies are registered as separate
+ * {@link LatencyHistogramMBean}s.
+ */
+public interface IngestMetricsMBean {
+
+    long getFiles();
+
+    long getMissingFiles();
+
+    long getRecords();
+
+    long getEvents();
+
+    long getRejections();
+
+    long getBytes();
+
+    double getRecordsPerSecond();
+
+    double getBytesPerSecond();
+
+    /**
+     * One line per parsed file: path, records, rejections, bytes and milliseconds.
+     */
+    String[] getFileSummary();
+
+    void reset();
+}
@@ -0,0 +1,19 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}. Times are in microseconds.
+ */
+public interface LatencyHistogramMBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,43 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Prints a text report at a fixed interval on a daemon thread, e.g.
+ * {@code new MetricsReporter(metrics::format, System.err, 10_000)}.
+ */
+public final class MetricsReporter implements Closeable {
+    private final ScheduledExecutorService timer;
+
+    /**
+     * @param report       produces the text to print; called on the reporter thread
+     * @param periodMillis time between reports, the first one a full period after construction
+     */
+    public MetricsReporter(Supplier<String> report, PrintStream out, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Period must be positive, got: " + periodMillis);
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soclog-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(() -> {
+            out.print(report.get());
+            out.flush();
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop reporting. A report already being printed is allowed to finish.
+     */
+    @Override
+    public void close() {
+        timer.shutdown();
+    }
+}
@@ -0,0 +1,162 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-query call counts, latency, rows scanned and matched, and group cardinality for an
+ * AnalyticsEngine, plus a slow-query log.
+ *
+ * The engine takes a QueryMetrics, or null for no instrumentation. Each query gets its own
+ * {@link QueryStats} on first call. A call that takes at least the slow threshold is also
+ * written to the slow log with its window and row counts, which is where full scans from
+ * unbounded dashboard queries show up.
+ */
+public final class QueryMetrics {
+    private static final String DOMAIN = "edu.hofstra.csc17.proj.soclog";
+
+    private final long slowThresholdNanos;
+    private final Consumer<String> slowLog;
+    private final Map<String, QueryStats> queries = new ConcurrentSkipListMap<>();
+    private String registeredAs;
+
+    /**
+     * Collect figures without a slow-query log.
+     */
+    public QueryMetrics() {
+        this(Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param slowThresholdMillis calls at least this long are logged
+     * @param slowLog             receives one line per slow call, e.g. System.err::println
+     */
+    public QueryMetrics(long slowThresholdMillis, Consumer<String> slowLog) {
+        if (slowThresholdMillis < 0) {
+            throw new IllegalArgumentException("Slow threshold must be non-negative, got: " + slowThresholdMillis);
+        }
+        this.slowThresholdNanos = slowThresholdMillis >= Long.MAX_VALUE / 1_000_000
+            ? Long.MAX_VALUE : slowThresholdMillis * 1_000_000;
+        this.slowLog = slowLog;
+    }
+
+    /**
+     * Record one finished call.
+     * @param startNanos System.nanoTime when the call started
+     * @param from       start of the queried window, or null for the whole dataset
+     * @param to         end of the queried window, or null for the whole dataset
+     */
+    public void record(String query, long startNanos, Instant from, Instant to, long scanned, long matched,
+                       long groups) {
+        long nanos = System.nanoTime() - startNanos;
+        boolean slow = nanos >= slowThresholdNanos && slowLog != null;
+        get(query).record(nanos, scanned, matched, groups, slow);
+        if (slow) {
+            slowLog.accept(String.format(Locale.ROOT,
+                "Slow query %s [%s, %s]: %.1f ms, %d row(s) scanned, %d matched, %d group(s)",
+                query, from == null ? "*" : from, to == null ? "*" : to, nanos / 1e6, scanned, matched, groups));
+        }
+    }
+
+    /**
+     * Figures for one query, created empty if it has not been called yet.
+     */
+    public QueryStats get(String query) {
+        QueryStats stats = queries.get(query);
+        if (stats == null) {
+            stats = queries.computeIfAbsent(query, QueryStats::new);
+            registerIfNeeded(stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Every query called so far, by name.
+     */
+    public List<QueryStats> getQueries() {
+        return new ArrayList<>(queries.values());
+    }
+
+    /**
+     * Register one MBean per query with the platform MBean server, as
+     * edu.hofstra.csc17.proj.soclog:type=Query,name=&lt;name&gt;,query=...; queries first called
+     * later are registered as they appear.
+     *
+     * @throws IllegalStateException if already registered or the name is taken
+     */
+    public synchronized void register(String name) {
+        if (registeredAs != null) {
+            throw new IllegalStateException("Query metrics are already registered");
+        }
+        registeredAs = name;
+        try {
+            for (QueryStats stats : queries.values()) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName(stats));
+            }
+        } catch (JMException e) {
+            unregister();
+            throw new IllegalStateException("Cannot register query metrics as " + name, e);
+        }
+    }
+
+    /**
+     * Remove everything {@link #register} added; does nothing if not registered.
+     */
+    public synchronized void unregister() {
+        if (registeredAs == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (QueryStats stats : queries.values()) {
+            try {
+                server.unregisterMBean(objectName(stats));
+            } catch (JMException e) {
+                // Not registered
+            }
+        }
+        registeredAs = null;
+    }
+
+    /**
+     * Multi-line text report with one row per query.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "Queries: %d distinct%n", queries.size()));
+        out.append(String.format(Locale.ROOT, "  %-36s %8s %6s %11s %11s %11s %12s %12s %9s%n",
+            "Query", "Calls", "Slow", "Mean us", "P99 us", "Max us", "Scanned", "Matched", "Groups"));
+        for (QueryStats stats : queries.values()) {
+            out.append("  ").append(stats).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private synchronized void registerIfNeeded(QueryStats stats) {
+        if (registeredAs == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(stats);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(stats, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register query metrics for " + stats.getQuery(), e);
+        }
+    }
+
+    private ObjectName objectName(QueryStats stats) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Query,name=" + registeredAs + ",query=" + stats.getQuery());
+    }
+}
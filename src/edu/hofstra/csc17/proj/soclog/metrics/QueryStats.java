@@ -0,0 +1,99 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running figures for one query method.
+ *
+ * Rows scanned are the rows (or time-index positions) the call visited; a query answered
+ * from precomputed tallies scans none. Rows matched are those that passed the query's
+ * filter, and groups is the number of distinct keys it grouped by (events, process names,
+ * endpoints, rules or files).
+ */
+public final class QueryStats implements QueryStatsMBean {
+    private final String query;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder rowsScanned = new LongAdder();
+    private final LongAdder rowsMatched = new LongAdder();
+    private final AtomicLong lastGroups = new AtomicLong();
+    private final LongAccumulator maxGroups = new LongAccumulator(Math::max, 0);
+
+    QueryStats(String query) {
+        this.query = query;
+    }
+
+    void record(long nanos, long scanned, long matched, long groups, boolean slow) {
+        latency.record(nanos);
+        rowsScanned.add(scanned);
+        rowsMatched.add(matched);
+        lastGroups.set(groups);
+        maxGroups.accumulate(groups);
+        if (slow) {
+            slowCalls.increment();
+        }
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMeanMicros();
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getP99Micros();
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMaxMicros();
+    }
+
+    @Override
+    public long getRowsScanned() {
+        return rowsScanned.sum();
+    }
+
+    @Override
+    public long getRowsMatched() {
+        return rowsMatched.sum();
+    }
+
+    @Override
+    public long getLastGroups() {
+        return lastGroups.get();
+    }
+
+    @Override
+    public long getMaxGroups() {
+        return maxGroups.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-36s %8d %6d %11.2f %11.2f %11.2f %12d %12d %9d",
+            query, getCalls(), getSlowCalls(), getMeanMicros(), getP99Micros(), getMaxMicros(),
+            getRowsScanned(), getRowsMatched(), getMaxGroups());
+    }
+}
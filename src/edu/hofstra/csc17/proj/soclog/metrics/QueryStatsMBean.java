@@ -0,0 +1,25 @@
+package edu.hofstra.csc17.proj.soclog.metrics;
+
+/**
+ * JMX view of one query's {@link QueryStats}. Times are in microseconds.
+ */
+public interface QueryStatsMBean {
+
+    long getCalls();
+
+    long getSlowCalls();
+
+    double getMeanMicros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    long getRowsScanned();
+
+    long getRowsMatched();
+
+    long getLastGroups();
+
+    long getMaxGroups();
+}
@@ -1,15 +1,18 @@
 package edu.hofstra.csc17.proj.soclog.model.entity;
 
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 /**
  * Metadata describing a file or resource referenced by an event.
  */
 public final class FileInfo extends ObjectInfo {
+    private static final Pattern OCTAL_PATTERN = Pattern.compile("^[0-7]{3}$");
 
     private final String path;
     private final Integer fileDescriptor;
     private final String permissions;
+    private int hash; // cached hashCode(), 0 until first computed
 
     public FileInfo(String path, Integer fileDescriptor, String permissions) {
         this.path = path;
@@ -32,7 +35,7 @@ public final class FileInfo extends ObjectInfo {
         }
         
         // Validate 3-digit octal format (e.g., 640, 755)
-        if (!permissions.matches("^[0-7]{3}$")) {
+        if (!OCTAL_PATTERN.matcher(permissions).matches()) {
             throw new IllegalArgumentException(
                 "Permissions must be a 3-digit octal string (e.g., '640', '755'), got: " + permissions);
         }
@@ -90,7 +93,12 @@ public final class FileInfo extends ObjectInfo {
 
     @Override
     public int hashCode() {
-        return Objects.hash(path, fileDescriptor, permissions);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(path, fileDescriptor, permissions);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -1,19 +1,16 @@
 package edu.hofstra.csc17.proj.soclog.model.entity;
 
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 /**
  * Represents network endpoint information for sendto/receivefrom events.
  */
 public class NetworkInfo extends ObjectInfo {
-    private static final Pattern IPV4_PATTERN = Pattern.compile(
-        "^((25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$"
-    );
-    
     private final String ipAddress;
+    private final int address;
     private final int port;
     private final String protocol;
+    private int hash;
 
     public NetworkInfo(String ipAddress, int port, String protocol) {
         this.ipAddress = Objects.requireNonNull(ipAddress, "IP address cannot be null");
@@ -23,10 +20,8 @@ public class NetworkInfo extends ObjectInfo {
         Objects.requireNonNull(protocol, "Protocol cannot be null");
         String protocolUpper = protocol.toUpperCase();
         
-        // Validate IP address format (IPv4)
-        if (!IPV4_PATTERN.matcher(ipAddress).matches()) {
-            throw new IllegalArgumentException("Invalid IPv4 address format: " + ipAddress);
-        }
+        // Validate IP address format (IPv4) and keep it packed for range queries
+        this.address = packAddress(ipAddress);
         
         // Validate port range (0-65535, where 0 is a wildcard)
         if (port < 0 || port > 65535) {
@@ -46,6 +41,14 @@ public class NetworkInfo extends ObjectInfo {
         return ipAddress;
     }
 
+    /**
+     * The IPv4 address packed into an int, first octet in the high byte.
+     * Compare with {@link Integer#compareUnsigned} to order addresses.
+     */
+    public int getAddress() {
+        return address;
+    }
+
     public int getPort() {
         return port;
     }
@@ -80,7 +83,54 @@ public class NetworkInfo extends ObjectInfo {
 
     @Override
     public int hashCode() {
-        return Objects.hash(ipAddress, port, protocol);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(ipAddress, port, protocol);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Parse a dotted IPv4 address (four octets of 1-3 digits, each at most 255) into an int.
+     * @throws IllegalArgumentException if the text is not such an address
+     */
+    public static int packAddress(String ip) {
+        int packed = 0;
+        int octets = 0;
+        int i = 0;
+        int length = ip.length();
+        while (true) {
+            int value = 0;
+            int digits = 0;
+            while (i < length && digits < 4 && ip.charAt(i) >= '0' && ip.charAt(i) <= '9') {
+                value = value * 10 + (ip.charAt(i++) - '0');
+                digits++;
+            }
+            if (digits == 0 || digits > 3 || value > 255) {
+                throw new IllegalArgumentException("Invalid IPv4 address format: " + ip);
+            }
+            packed = (packed << 8) | value;
+            octets++;
+            if (octets == 4) {
+                break;
+            }
+            if (i >= length || ip.charAt(i) != '.') {
+                throw new IllegalArgumentException("Invalid IPv4 address format: " + ip);
+            }
+            i++;
+        }
+        if (i != length) {
+            throw new IllegalArgumentException("Invalid IPv4 address format: " + ip);
+        }
+        return packed;
+    }
+
+    /**
+     * Dotted form of a packed address.
+     */
+    public static String formatAddress(int address) {
+        return (address >>> 24) + "." + ((address >>> 16) & 0xFF) + "." + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
     }
 
     @Override
@@ -11,6 +11,7 @@ public final class ProcessInfo extends ObjectInfo {
     private final Integer pid;
     private final String modulePath;
     private final String privilege;
+    private int hash;
 
     public ProcessInfo(String name, Integer pid, String modulePath, String privilege) { 
         this.name = name;
@@ -103,7 +104,12 @@ public final class ProcessInfo extends ObjectInfo {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, pid, modulePath, privilege);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, pid, modulePath, privilege);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
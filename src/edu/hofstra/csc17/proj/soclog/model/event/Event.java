@@ -3,6 +3,7 @@ package edu.hofstra.csc17.proj.soclog.model.event;
 import java.time.Instant;
 import java.util.Objects;
 
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
 import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
 import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
 
@@ -28,6 +29,33 @@ public abstract class Event {
         this.flags = flags;
     }
 
+    /**
+     * Instantiate the concrete event class for the given type.
+     * @throws ClassCastException if the object does not fit the type (e.g. a FileInfo for sendto)
+     */
+    public static Event of(EventType type, Instant timestamp, ProcessInfo subject, ObjectInfo object, String flags) {
+        switch (type) {
+            case read:
+                return new ReadEvent(timestamp, subject, object, flags);
+            case write:
+                return new WriteEvent(timestamp, subject, object, flags);
+            case execute:
+                return new ExecuteEvent(timestamp, subject, object, flags);
+            case open:
+                return new OpenEvent(timestamp, subject, object, flags);
+            case close:
+                return new CloseEvent(timestamp, subject, object, flags);
+            case sendto:
+                return new SendToEvent(timestamp, subject, (NetworkInfo) object, flags);
+            case receivefrom:
+                return new ReceiveFromEvent(timestamp, subject, (NetworkInfo) object, flags);
+            case fork:
+                return new ForkEvent(timestamp, subject, (ProcessInfo) object, flags);
+            default:
+                throw new IllegalArgumentException("Unsupported event type: " + type);
+        }
+    }
+
     public EventType getType() {
         return type;
     }
@@ -0,0 +1,124 @@
+package edu.hofstra.csc17.proj.soclog.rules;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+
+/**
+ * Event fields a rule can test, with the key used for them in rule files.
+ * "process" is the subject of every event and "child" the object of a fork.
+ */
+public enum Field {
+    PROCESS_NAME("process.name", false),
+    PROCESS_PRIVILEGE("process.privilege", false),
+    PROCESS_PATH("process.path", true),
+    CHILD_NAME("child.name", false),
+    CHILD_PRIVILEGE("child.privilege", false),
+    CHILD_PATH("child.path", true),
+    FILE_PATH("file.path", true),
+    FILE_PERMISSIONS("file.permissions", false),
+    NET_IP("net.ip", false),
+    NET_PORT("net.port", false),
+    NET_PROTOCOL("net.protocol", false);
+
+    private final String key;
+    private final boolean path;
+
+    Field(String key, boolean path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Path fields match the value itself and everything below it ({@code value + "/..."}),
+     * other fields match the value exactly.
+     */
+    public boolean isPath() {
+        return path;
+    }
+
+    /**
+     * @return the field named by the rule-file key, or null if there is none
+     */
+    public static Field forKey(String key) {
+        for (Field field : values()) {
+            if (field.key.equals(key)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The field's value in an event, or null if the event has no such field
+     * (e.g. a network field of a file event, or a process field of an event without a subject).
+     */
+    String extract(ProcessInfo subject, ObjectInfo object) {
+        switch (this) {
+            case PROCESS_NAME:
+                return subject == null ? null : subject.getName();
+            case PROCESS_PRIVILEGE:
+                return subject == null ? null : subject.getPrivilege();
+            case PROCESS_PATH:
+                return subject == null ? null : subject.getModulePath();
+            case CHILD_NAME:
+                return object instanceof ProcessInfo ? ((ProcessInfo) object).getName() : null;
+            case CHILD_PRIVILEGE:
+                return object instanceof ProcessInfo ? ((ProcessInfo) object).getPrivilege() : null;
+            case CHILD_PATH:
+                return object instanceof ProcessInfo ? ((ProcessInfo) object).getModulePath() : null;
+            case FILE_PATH:
+                return object instanceof FileInfo ? ((FileInfo) object).getPath() : null;
+            case FILE_PERMISSIONS:
+                return object instanceof FileInfo ? ((FileInfo) object).getPermissions() : null;
+            case NET_IP:
+                // As written; Rule and RuleSet compare getAddress() against packed rule values instead
+                return object instanceof NetworkInfo ? ((NetworkInfo) object).getIpAddress() : null;
+            case NET_PORT:
+                return object instanceof NetworkInfo ? Integer.toString(((NetworkInfo) object).getPort()) : null;
+            case NET_PROTOCOL:
+                return object instanceof NetworkInfo ? ((NetworkInfo) object).getProtocol() : null;
+            default:
+                throw new AssertionError(this);
+        }
+    }
+
+    /**
+     * Bring a rule value into the form extract() produces, so matching is plain equality.
+     * @throws IllegalArgumentException if the value can never match
+     */
+    String normalize(String value) {
+        switch (this) {
+            case PROCESS_PRIVILEGE:
+            case CHILD_PRIVILEGE:
+                String privilege = value.toLowerCase();
+                if (!privilege.equals(ProcessInfo.PRIV_USER) && !privilege.equals(ProcessInfo.PRIV_ROOT)) {
+                    throw new IllegalArgumentException("Privilege must be '" + ProcessInfo.PRIV_USER
+                        + "' or '" + ProcessInfo.PRIV_ROOT + "', got: " + value);
+                }
+                return privilege;
+            case NET_PORT:
+                int port;
+                try {
+                    port = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid port: " + value);
+                }
+                if (port < 0 || port > 65535) {
+                    throw new IllegalArgumentException("Port must be between 0-65535, got: " + port);
+                }
+                return Integer.toString(port);
+            case NET_IP:
+                return NetworkInfo.formatAddress(NetworkInfo.packAddress(value));
+            case NET_PROTOCOL:
+                return value.toUpperCase();
+            default:
+                return value;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package edu.hofstra.csc17.proj.soclog.rules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * A watch-list rule: an event matches when its type is one of the rule's types (any type if
+ * none are given) and every field condition holds. A condition holds when the field equals
+ * one of its values (for path fields: equals or lies below one of them).
+ */
+public final class Rule {
+    private final String id;
+    private final Set<EventType> types;
+    private final Map<Field, Set<String>> conditions;
+    private final int[] addresses; // packed net.ip values, sorted; null without that condition
+
+    /**
+     * @param types      event types the rule applies to; empty for all types
+     * @param conditions field -> accepted values, already normalized
+     */
+    Rule(String id, Set<EventType> types, Map<Field, Set<String>> conditions) {
+        this.id = Objects.requireNonNull(id);
+        this.types = types.isEmpty() ? EnumSet.noneOf(EventType.class) : EnumSet.copyOf(types);
+        this.conditions = new EnumMap<>(Field.class);
+        for (Map.Entry<Field, Set<String>> entry : conditions.entrySet()) {
+            this.conditions.put(entry.getKey(), Collections.unmodifiableSet(new LinkedHashSet<>(entry.getValue())));
+        }
+        Set<String> ips = this.conditions.get(Field.NET_IP);
+        this.addresses = ips == null ? null : ips.stream().mapToInt(NetworkInfo::packAddress).sorted().toArray();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Event types the rule applies to; empty means every type.
+     */
+    public Set<EventType> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    public Map<Field, Set<String>> getConditions() {
+        return Collections.unmodifiableMap(conditions);
+    }
+
+    public boolean matches(EventType type, ProcessInfo subject, ObjectInfo object) {
+        if (!types.isEmpty() && !types.contains(type)) {
+            return false;
+        }
+        for (Map.Entry<Field, Set<String>> condition : conditions.entrySet()) {
+            Field field = condition.getKey();
+            if (field == Field.NET_IP) {
+                if (!(object instanceof NetworkInfo) || !acceptsAddress(((NetworkInfo) object).getAddress())) {
+                    return false;
+                }
+                continue;
+            }
+            String value = field.extract(subject, object);
+            if (value == null || !accepts(field, condition.getValue(), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a packed address is one of the rule's net.ip values.
+     */
+    boolean acceptsAddress(int address) {
+        return addresses != null && Arrays.binarySearch(addresses, address) >= 0;
+    }
+
+    /**
+     * Packed net.ip values, or null if the rule has no such condition.
+     */
+    int[] getAddresses() {
+        return addresses;
+    }
+
+    private static boolean accepts(Field field, Set<String> accepted, String value) {
+        if (accepted.contains(value)) {
+            return true;
+        }
+        if (field.isPath()) {
+            for (String prefix : accepted) {
+                if (value.length() > prefix.length() && value.startsWith(prefix)
+                        && value.charAt(prefix.length()) == '/') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "Rule{id='" + id + "', types=" + types + ", conditions=" + conditions + '}';
+    }
+}
@@ -0,0 +1,289 @@
+package edu.hofstra.csc17.proj.soclog.rules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * A compiled set of watch-list rules.
+ *
+ * Rule files have one rule per line, {@code id: key=value; key=value ...}, where keys are
+ * {@code type} or a {@link Field} key and a value may list alternatives separated by '|':
+ * <pre>
+ * # comment
+ * shadow-read: type=read|open; file.path=/etc/shadow
+ * dns-out:     type=sendto; net.port=53; net.protocol=udp
+ * user-to-root: type=fork; process.privilege=user; child.privilege=root
+ * </pre>
+ *
+ * Rules are bucketed by event type, and inside a bucket indexed by their most selective
+ * field (file path, ip, process name, ...) under each accepted value. Matching an event
+ * looks up its own values of the indexed fields (for paths: the path and each parent
+ * directory) and only fully checks the rules found there, plus the few rules that have no
+ * indexable field. The cost follows the number of candidate rules, not the rule count.
+ */
+public final class RuleSet {
+    private static final EventType[] TYPES = EventType.values();
+
+    // Preference order for the field a rule is indexed by; the rest are only checked
+    private static final Field[] INDEX_FIELDS = {
+        Field.FILE_PATH, Field.NET_IP, Field.PROCESS_NAME, Field.CHILD_NAME,
+        Field.PROCESS_PATH, Field.CHILD_PATH, Field.NET_PORT, Field.FILE_PERMISSIONS
+    };
+
+    private final List<Rule> rules;
+    private final Map<Rule, Integer> order = new HashMap<>();
+    private final Bucket[] buckets = new Bucket[TYPES.length];
+
+    public RuleSet(List<Rule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        for (int t = 0; t < buckets.length; t++) {
+            buckets[t] = new Bucket();
+        }
+        for (Rule rule : this.rules) {
+            order.put(rule, order.size());
+            Field indexField = null;
+            for (Field field : INDEX_FIELDS) {
+                if (rule.getConditions().containsKey(field)) {
+                    indexField = field;
+                    break;
+                }
+            }
+            for (EventType type : rule.getTypes().isEmpty() ? EnumSet.allOf(EventType.class) : rule.getTypes()) {
+                buckets[type.ordinal()].add(rule, indexField);
+            }
+        }
+        for (Bucket bucket : buckets) {
+            bucket.sortAddresses();
+        }
+    }
+
+    /**
+     * Read and compile a rule file.
+     * @throws IllegalArgumentException with the line number if a rule is malformed
+     */
+    public static RuleSet load(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    /**
+     * Compile rule-file lines; blank lines and lines starting with '#' are skipped.
+     * @throws IllegalArgumentException with the line number if a rule is malformed
+     */
+    public static RuleSet parse(List<String> lines) {
+        List<Rule> rules = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                Rule rule = parseRule(line);
+                if (!ids.add(rule.getId())) {
+                    throw new IllegalArgumentException("Duplicate rule id '" + rule.getId() + "'");
+                }
+                rules.add(rule);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Line %d: %s", i + 1, e.getMessage()), e);
+            }
+        }
+        return new RuleSet(rules);
+    }
+
+    private static Rule parseRule(String line) {
+        int colon = line.indexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Expected 'id: conditions', got: " + line);
+        }
+        String id = line.substring(0, colon).trim();
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("Empty rule id");
+        }
+
+        Set<EventType> types = EnumSet.noneOf(EventType.class);
+        Map<Field, Set<String>> conditions = new EnumMap<>(Field.class);
+        boolean any = false;
+        for (String pair : line.substring(colon + 1).split(";")) {
+            if (pair.trim().isEmpty()) {
+                continue;
+            }
+            String[] kv = pair.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Malformed key=value pair (missing '='): " + pair.trim());
+            }
+            String key = kv[0].trim();
+            Field field = key.equals("type") ? null : Field.forKey(key);
+            if (field == null && !key.equals("type")) {
+                throw new IllegalArgumentException("Unknown rule key '" + key + "'");
+            }
+
+            Set<String> values = new LinkedHashSet<>();
+            for (String value : kv[1].split("\\|")) {
+                value = value.trim();
+                if (value.isEmpty()) {
+                    throw new IllegalArgumentException("Empty value for '" + key + "'");
+                }
+                if (field == null) {
+                    try {
+                        types.add(EventType.valueOf(value.toLowerCase()));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Invalid event type '" + value + "'");
+                    }
+                } else {
+                    values.add(field.normalize(value));
+                }
+            }
+            if (field != null) {
+                // Repeating a key narrows the rule, like any other extra condition
+                Set<String> existing = conditions.get(field);
+                if (existing != null) {
+                    values.retainAll(existing);
+                    if (values.isEmpty()) {
+                        throw new IllegalArgumentException("Repeated key '" + key + "' leaves no value in common, rule '"
+                            + id + "' can never match");
+                    }
+                }
+                conditions.put(field, values);
+            }
+            any = true;
+        }
+        if (!any) {
+            throw new IllegalArgumentException("Rule '" + id + "' has no conditions");
+        }
+        return new Rule(id, types, conditions);
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    /**
+     * All rules, in file order.
+     */
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public List<Rule> match(Event event) {
+        return match(event.getType(), event.getSubject(), event.getObject());
+    }
+
+    /**
+     * Rules matching an event given by its parts, in file order. Returns a shared empty
+     * list when nothing matches, which is the common case.
+     */
+    public List<Rule> match(EventType type, ProcessInfo subject, ObjectInfo object) {
+        Bucket bucket = buckets[type.ordinal()];
+        List<Rule> result = null;
+
+        for (Map.Entry<Field, Map<String, List<Rule>>> index : bucket.indexes.entrySet()) {
+            Field field = index.getKey();
+            String value = field.extract(subject, object);
+            if (value == null) {
+                continue;
+            }
+            result = check(index.getValue().get(value), type, subject, object, result);
+            if (field.isPath()) {
+                // Rules on a parent directory cover the path too
+                for (int i = value.length() - 1; i >= 0; i--) {
+                    if (value.charAt(i) == '/') {
+                        result = check(index.getValue().get(value.substring(0, i)), type, subject, object, result);
+                    }
+                }
+            }
+        }
+        if (bucket.addresses.length > 0 && object instanceof NetworkInfo) {
+            int i = Arrays.binarySearch(bucket.addresses, ((NetworkInfo) object).getAddress());
+            if (i >= 0) {
+                result = check(bucket.addressRules.get(i), type, subject, object, result);
+            }
+        }
+        result = check(bucket.unindexed, type, subject, object, result);
+
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        if (result.size() > 1) {
+            // A rule listing several values can be found more than once
+            result.sort((a, b) -> Integer.compare(order.get(a), order.get(b)));
+            for (int i = result.size() - 1; i > 0; i--) {
+                if (result.get(i) == result.get(i - 1)) {
+                    result.remove(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Rule> check(List<Rule> candidates, EventType type, ProcessInfo subject, ObjectInfo object,
+                                    List<Rule> result) {
+        if (candidates == null) {
+            return result;
+        }
+        for (Rule rule : candidates) {
+            if (rule.matches(type, subject, object)) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(rule);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rules that apply to one event type.
+     */
+    private static final class Bucket {
+        private final Map<Field, Map<String, List<Rule>>> indexes = new EnumMap<>(Field.class);
+        private final List<Rule> unindexed = new ArrayList<>();
+        // net.ip rules by packed address, looked up by binary search so matching allocates nothing
+        private final Map<Integer, List<Rule>> byAddress = new HashMap<>();
+        private int[] addresses;
+        private List<List<Rule>> addressRules;
+
+        void add(Rule rule, Field indexField) {
+            if (indexField == null) {
+                unindexed.add(rule);
+                return;
+            }
+            if (indexField == Field.NET_IP) {
+                for (int address : rule.getAddresses()) {
+                    byAddress.computeIfAbsent(address, a -> new ArrayList<>()).add(rule);
+                }
+                return;
+            }
+            Map<String, List<Rule>> index = indexes.computeIfAbsent(indexField, f -> new HashMap<>());
+            for (String value : rule.getConditions().get(indexField)) {
+                index.computeIfAbsent(value, v -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        void sortAddresses() {
+            addresses = byAddress.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            addressRules = new ArrayList<>(addresses.length);
+            for (int address : addresses) {
+                addressRules.add(byAddress.get(address));
+            }
+            byAddress.clear();
+        }
+    }
+}
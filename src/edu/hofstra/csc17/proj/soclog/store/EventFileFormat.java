@@ -0,0 +1,41 @@
+package edu.hofstra.csc17.proj.soclog.store;
+
+/**
+ * Layout of the binary event file shared by {@link EventFileWriter} and {@link EventFileReader}.
+ *
+ * <pre>
+ * file    := MAGIC VERSION record* END
+ * record  := type:byte  seconds:zigzag-varlong  nanos:varint  subject:entity  object:entity  flags:string
+ * entity  := ref:varint [kind:byte fields]      ref 0 = null, ref n = n-th entity (from 1)
+ * string  := ref:varint [length:varint utf8]    ref 0 = null, ref n = n-th string (from 1)
+ * </pre>
+ *
+ * Seconds are the delta from the previous record, so sorted logs spend one or two bytes on a
+ * timestamp. Entities and strings form dictionaries built while writing: a ref one past the
+ * last assigned id defines the next entry inline, so the file streams in a single pass and
+ * each distinct process, file or endpoint is written and validated only once. Endpoint
+ * addresses are kept as written (e.g. with leading zeros), so reloaded events equal the
+ * parsed ones.
+ */
+final class EventFileFormat {
+    static final int MAGIC = 0x534F4345; // "SOCE"
+    static final int VERSION = 2;
+    static final int END = 0xFF;
+
+    static final int PROCESS = 1;
+    static final int FILE = 2;
+    static final int NETWORK = 3;
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private EventFileFormat() {
+    }
+}
@@ -0,0 +1,236 @@
+package edu.hofstra.csc17.proj.soclog.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * Reads an event file written by {@link EventFileWriter}, in the order it was written.
+ *
+ * Every distinct entity and string is decoded once and shared by all events that refer to
+ * it, so reloading does no per-record validation or string parsing. A file that is cut short
+ * or does not follow the format fails with an IOException rather than returning partial data
+ * silently.
+ */
+public final class EventFileReader implements Closeable {
+    private static final EventType[] TYPES = EventType.values();
+
+    private final String source;
+    private final InputStream in;
+    private final byte[] buffer = new byte[EventFileFormat.BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final List<ObjectInfo> entities = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private long previousSecond;
+    private boolean finished;
+
+    public EventFileReader(Path file) throws IOException {
+        this(Files.newInputStream(file), file.toString());
+    }
+
+    /**
+     * Read from an open stream, which is closed with the reader.
+     * @param source file name for error messages
+     */
+    EventFileReader(InputStream in, String source) throws IOException {
+        this.source = source;
+        this.in = in;
+        try {
+            if (readInt() != EventFileFormat.MAGIC) {
+                throw corrupt("not an event file");
+            }
+            int version = readByte();
+            if (version != EventFileFormat.VERSION) {
+                throw corrupt("unsupported version " + version);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read every event in the file.
+     */
+    public static List<Event> readAll(Path file) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (EventFileReader reader = new EventFileReader(file)) {
+            for (Event event = reader.read(); event != null; event = reader.read()) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Append every event in the file to the engine, without building an intermediate list.
+     * @return the number of events loaded
+     */
+    public static long loadInto(Path file, AnalyticsEngine engine) throws IOException {
+        long count = 0;
+        try (EventFileReader reader = new EventFileReader(file)) {
+            for (Event event = reader.read(); event != null; event = reader.read()) {
+                engine.append(event);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the next event, or null once the end of the file is reached
+     */
+    public Event read() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int type = readByte();
+        if (type == EventFileFormat.END) {
+            finished = true;
+            return null;
+        }
+        if (type >= TYPES.length) {
+            throw corrupt("unknown event type " + type);
+        }
+        long second = previousSecond + EventFileFormat.unzigzag(readVarLong());
+        int nano = (int) readVarLong();
+        ObjectInfo subject = readEntity();
+        ObjectInfo object = readEntity();
+        String flags = readString();
+        previousSecond = second;
+        try {
+            return Event.of(TYPES[type], Instant.ofEpochSecond(second, nano), (ProcessInfo) subject, object, flags);
+        } catch (ClassCastException | IllegalArgumentException | DateTimeException e) {
+            throw corrupt("invalid " + TYPES[type] + " event (" + e.getMessage() + ")");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private ObjectInfo readEntity() throws IOException {
+        int ref = readRef(entities.size());
+        if (ref == 0) {
+            return null;
+        }
+        if (ref <= entities.size()) {
+            return entities.get(ref - 1);
+        }
+
+        ObjectInfo entity;
+        int kind = readByte();
+        try {
+            switch (kind) {
+                case EventFileFormat.PROCESS:
+                    entity = new ProcessInfo(readString(), (int) readVarLong(), readString(), readString());
+                    break;
+                case EventFileFormat.FILE:
+                    entity = new FileInfo(readString(), (int) readVarLong(), readString());
+                    break;
+                case EventFileFormat.NETWORK:
+                    entity = new NetworkInfo(readString(), (int) readVarLong(), readString());
+                    break;
+                default:
+                    throw corrupt("unknown entity kind " + kind);
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw corrupt("invalid entity (" + e.getMessage() + ")");
+        }
+        entities.add(entity);
+        return entity;
+    }
+
+    private String readString() throws IOException {
+        int ref = readRef(strings.size());
+        if (ref == 0) {
+            return null;
+        }
+        if (ref <= strings.size()) {
+            return strings.get(ref - 1);
+        }
+
+        int length = (int) readVarLong();
+        if (length < 0) {
+            throw corrupt("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        for (int copied = 0; copied < length; ) {
+            if (position == limit) {
+                fill();
+            }
+            int n = Math.min(length - copied, limit - position);
+            System.arraycopy(buffer, position, bytes, copied, n);
+            position += n;
+            copied += n;
+        }
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    /**
+     * A dictionary reference: 0, an existing id, or the next id to be defined.
+     */
+    private int readRef(int assigned) throws IOException {
+        long ref = readVarLong();
+        if (ref < 0 || ref > assigned + 1L) {
+            throw corrupt("reference " + ref + " out of range");
+        }
+        return (int) ref;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw corrupt("malformed varint");
+    }
+
+    private int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit) {
+            fill();
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private void fill() throws IOException {
+        int n = in.read(buffer);
+        if (n <= 0) {
+            throw corrupt("unexpected end of file");
+        }
+        position = 0;
+        limit = n;
+    }
+
+    private IOException corrupt(String reason) {
+        return new IOException("Corrupt event file " + source + ": " + reason);
+    }
+}
@@ -0,0 +1,200 @@
+package edu.hofstra.csc17.proj.soclog.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ObjectInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+/**
+ * Writes validated events to the compact binary format described in {@link EventFileFormat},
+ * so a later run can reload them with {@link EventFileReader} instead of parsing the CSVs again.
+ * Events are written in the order given. The file is only complete after {@link #close()}.
+ */
+public final class EventFileWriter implements Closeable {
+    /**
+     * Conventional extension for event files.
+     */
+    public static final String EXTENSION = ".events";
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[EventFileFormat.BUFFER_SIZE];
+    private int position;
+
+    private final Map<ObjectInfo, Integer> entityIds = new HashMap<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long previousSecond;
+    private long count;
+    private boolean closed;
+
+    public EventFileWriter(Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    /**
+     * Write to an open stream, which is closed with the writer.
+     */
+    EventFileWriter(OutputStream out) throws IOException {
+        this.out = out;
+        writeInt(EventFileFormat.MAGIC);
+        writeByte(EventFileFormat.VERSION);
+    }
+
+    /**
+     * Write all events to a new file, replacing any existing one.
+     */
+    public static void writeAll(Path file, Collection<? extends Event> events) throws IOException {
+        try (EventFileWriter writer = new EventFileWriter(file)) {
+            for (Event event : events) {
+                writer.write(event);
+            }
+        }
+    }
+
+    public void write(Event event) throws IOException {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        if (closed) {
+            throw new IOException("Event file is closed");
+        }
+        long second = event.getTimestamp().getEpochSecond();
+        writeByte(event.getType().ordinal());
+        writeVarLong(EventFileFormat.zigzag(second - previousSecond));
+        writeVarLong(event.getTimestamp().getNano());
+        writeEntity(event.getSubject());
+        writeEntity(event.getObject());
+        writeString(event.getFlags());
+        previousSecond = second;
+        count++;
+    }
+
+    /**
+     * Number of events written so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeByte(EventFileFormat.END);
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeEntity(ObjectInfo entity) throws IOException {
+        if (entity == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer id = entityIds.get(entity);
+        if (id != null) {
+            writeVarLong(id);
+            return;
+        }
+        id = entityIds.size() + 1;
+        entityIds.put(entity, id);
+        writeVarLong(id);
+
+        if (entity instanceof ProcessInfo) {
+            ProcessInfo process = (ProcessInfo) entity;
+            writeByte(EventFileFormat.PROCESS);
+            writeString(process.getName());
+            writeVarLong(process.getPid());
+            writeString(process.getModulePath());
+            writeString(process.getPrivilege());
+        } else if (entity instanceof FileInfo) {
+            FileInfo file = (FileInfo) entity;
+            writeByte(EventFileFormat.FILE);
+            writeString(file.getPath());
+            writeVarLong(file.getFileDescriptor());
+            writeString(file.getPermissions());
+        } else if (entity instanceof NetworkInfo) {
+            NetworkInfo endpoint = (NetworkInfo) entity;
+            writeByte(EventFileFormat.NETWORK);
+            writeString(endpoint.getIpAddress());
+            writeVarLong(endpoint.getPort());
+            writeString(endpoint.getProtocol());
+        } else {
+            throw new IllegalArgumentException("Unsupported entity type: " + entity.getClass().getName());
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            writeVarLong(id);
+            return;
+        }
+        id = stringIds.size() + 1;
+        stringIds.put(value, id);
+        writeVarLong(id);
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        if (bytes.length > buffer.length - position) {
+            flush();
+        }
+        if (bytes.length > buffer.length) {
+            out.write(bytes);
+        } else {
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        if (buffer.length - position < 10) {
+            flush();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeInt(int value) throws IOException {
+        if (buffer.length - position < 4) {
+            flush();
+        }
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
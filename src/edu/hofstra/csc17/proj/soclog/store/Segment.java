@@ -0,0 +1,191 @@
+package edu.hofstra.csc17.proj.soclog.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * One time-partitioned segment file written by {@link SegmentWriter}: an event file (see
+ * {@link EventFileFormat}) behind a fixed header that holds the event count, the min/max
+ * timestamp and the count per event type.
+ *
+ * <pre>
+ * header := MAGIC VERSION count:long minSecond:long minNano:int maxSecond:long maxNano:int
+ *           typeCount:int typeCounts:long[typeCount]
+ * </pre>
+ *
+ * The header is all {@link SegmentStore} reads to decide whether the segment is needed for
+ * a query window; the events behind it are only read once it is.
+ */
+public final class Segment {
+    static final int MAGIC = 0x534F4353; // "SOCS"
+    static final int VERSION = 1;
+
+    private static final EventType[] TYPES = EventType.values();
+    private static final int FIXED_HEADER_SIZE = 4 + 1 + 8 + 8 + 4 + 8 + 4 + 4;
+    static final int HEADER_SIZE = FIXED_HEADER_SIZE + 8 * TYPES.length;
+
+    private final Path file;
+    private final long count;
+    private final Instant minTimestamp;
+    private final Instant maxTimestamp;
+    private final long[] typeCounts;
+    private final int headerSize;
+
+    /**
+     * @param typeCounts count per EventType ordinal
+     */
+    Segment(Path file, long count, Instant minTimestamp, Instant maxTimestamp, long[] typeCounts) {
+        this(file, count, minTimestamp, maxTimestamp, typeCounts, HEADER_SIZE);
+    }
+
+    private Segment(Path file, long count, Instant minTimestamp, Instant maxTimestamp, long[] typeCounts,
+                    int headerSize) {
+        this.file = file;
+        this.count = count;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.typeCounts = typeCounts;
+        this.headerSize = headerSize;
+    }
+
+    /**
+     * Read only the header of a segment file.
+     */
+    static Segment readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            ByteBuffer fixed = read(channel, file, 0, FIXED_HEADER_SIZE);
+            if (fixed.getInt() != MAGIC) {
+                throw new IOException("Corrupt segment file " + file + ": not a segment file");
+            }
+            int version = fixed.get();
+            if (version != VERSION) {
+                throw new IOException("Corrupt segment file " + file + ": unsupported version " + version);
+            }
+            long count = fixed.getLong();
+            Instant min = Instant.ofEpochSecond(fixed.getLong(), fixed.getInt());
+            Instant max = Instant.ofEpochSecond(fixed.getLong(), fixed.getInt());
+            int typeCount = fixed.getInt();
+            if (typeCount < 0 || typeCount > TYPES.length) {
+                throw new IOException("Corrupt segment file " + file + ": " + typeCount + " event types");
+            }
+            ByteBuffer types = read(channel, file, FIXED_HEADER_SIZE, 8 * typeCount);
+            long[] typeCounts = new long[TYPES.length];
+            for (int t = 0; t < typeCount; t++) {
+                typeCounts[t] = types.getLong();
+            }
+            // Files written before a type was added have a shorter header
+            return new Segment(file, count, min, max, typeCounts, FIXED_HEADER_SIZE + 8 * typeCount);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, Path file, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Corrupt segment file " + file + ": header cut short");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Write this segment's header at the start of the channel.
+     */
+    void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(MAGIC);
+        header.put((byte) VERSION);
+        header.putLong(count);
+        header.putLong(minTimestamp.getEpochSecond());
+        header.putInt(minTimestamp.getNano());
+        header.putLong(maxTimestamp.getEpochSecond());
+        header.putInt(maxTimestamp.getNano());
+        header.putInt(TYPES.length);
+        for (long typeCount : typeCounts) {
+            header.putLong(typeCount);
+        }
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Open the events behind the header.
+     */
+    public EventFileReader open() throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            long skipped = 0;
+            while (skipped < headerSize) {
+                long n = in.skip(headerSize - skipped);
+                if (n <= 0) {
+                    throw new IOException("Corrupt segment file " + file + ": header cut short");
+                }
+                skipped += n;
+            }
+            return new EventFileReader(in, file.toString());
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Instant getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public Instant getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /**
+     * Event count per type, for the types that occur in the segment.
+     */
+    public Map<EventType, Long> getTypeCounts() {
+        Map<EventType, Long> result = new EnumMap<>(EventType.class);
+        for (EventType type : TYPES) {
+            if (typeCounts[type.ordinal()] > 0) {
+                result.put(type, typeCounts[type.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether any event of the segment can fall inside the window.
+     */
+    public boolean overlaps(Instant startInclusive, Instant endInclusive) {
+        return !minTimestamp.isAfter(endInclusive) && !maxTimestamp.isBefore(startInclusive);
+    }
+
+    /**
+     * Whether every event of the segment falls inside the window.
+     */
+    public boolean isWithin(Instant startInclusive, Instant endInclusive) {
+        return !minTimestamp.isBefore(startInclusive) && !maxTimestamp.isAfter(endInclusive);
+    }
+
+    @Override
+    public String toString() {
+        return "Segment{file=" + file + ", count=" + count + ", min=" + minTimestamp + ", max=" + maxTimestamp + '}';
+    }
+}
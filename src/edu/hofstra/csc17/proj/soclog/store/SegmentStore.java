@@ -0,0 +1,127 @@
+package edu.hofstra.csc17.proj.soclog.store;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * A directory of segment files written by {@link SegmentWriter}.
+ *
+ * Opening the store reads only the segment headers. A windowed query then reads just the
+ * segments whose min/max timestamps overlap the window, so asking about the last fifteen
+ * minutes touches one or two hourly segments no matter how much history the directory holds.
+ * Segments entirely inside the window are taken whole; the ones on its edges are filtered
+ * event by event.
+ */
+public final class SegmentStore {
+    public static final String EXTENSION = ".seg";
+
+    private final Path directory;
+    private final List<Segment> segments = new ArrayList<>();
+
+    public SegmentStore(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Segment directory cannot be null");
+        }
+        this.directory = directory;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                segments.add(Segment.readHeader(file));
+            }
+        }
+        segments.sort((a, b) -> {
+            int c = a.getMinTimestamp().compareTo(b.getMinTimestamp());
+            return c != 0 ? c : a.getFile().compareTo(b.getFile());
+        });
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * All segments, ordered by their earliest event.
+     */
+    public List<Segment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Segments that may hold events in the window, ordered by their earliest event.
+     */
+    public List<Segment> overlapping(Instant startInclusive, Instant endInclusive) {
+        validateWindow(startInclusive, endInclusive);
+        List<Segment> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.overlaps(startInclusive, endInclusive)) {
+                result.add(segment);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Load the events in the window into a new engine, reading only the overlapping segments.
+     */
+    public AnalyticsEngine load(Instant startInclusive, Instant endInclusive) throws IOException {
+        AnalyticsEngine engine = new AnalyticsEngine(new ArrayList<>());
+        for (Segment segment : overlapping(startInclusive, endInclusive)) {
+            boolean whole = segment.isWithin(startInclusive, endInclusive);
+            try (EventFileReader reader = segment.open()) {
+                for (Event event = reader.read(); event != null; event = reader.read()) {
+                    if (whole || inWindow(event, startInclusive, endInclusive)) {
+                        engine.append(event);
+                    }
+                }
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Count events in the window by type. Segments entirely inside the window are answered
+     * from their headers without reading any events.
+     */
+    public Map<EventType, Long> countByEventType(Instant startInclusive, Instant endInclusive) throws IOException {
+        Map<EventType, Long> result = new EnumMap<>(EventType.class);
+        for (Segment segment : overlapping(startInclusive, endInclusive)) {
+            if (segment.isWithin(startInclusive, endInclusive)) {
+                segment.getTypeCounts().forEach((type, count) -> result.merge(type, count, Long::sum));
+                continue;
+            }
+            try (EventFileReader reader = segment.open()) {
+                for (Event event = reader.read(); event != null; event = reader.read()) {
+                    if (inWindow(event, startInclusive, endInclusive)) {
+                        result.merge(event.getType(), 1L, Long::sum);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean inWindow(Event event, Instant startInclusive, Instant endInclusive) {
+        Instant timestamp = event.getTimestamp();
+        return !timestamp.isBefore(startInclusive) && !timestamp.isAfter(endInclusive);
+    }
+
+    private static void validateWindow(Instant startInclusive, Instant endInclusive) {
+        if (startInclusive == null || endInclusive == null) {
+            throw new IllegalArgumentException("Start and end timestamps cannot be null");
+        }
+        if (startInclusive.isAfter(endInclusive)) {
+            throw new IllegalArgumentException("Start time must not be after end time");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package edu.hofstra.csc17.proj.soclog.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.EventType;
+
+/**
+ * Splits events into time-partitioned segment files (hourly by default) in a directory.
+ *
+ * Each partition being written has its own open segment; a segment's header is filled in
+ * and the file renamed from *.seg.tmp to *.seg when it is closed, so a {@link SegmentStore}
+ * never sees a half-written segment. Only a few partitions stay open at a time: late events
+ * for a partition that was already closed start another segment for it, which is fine since
+ * queries prune by each segment's own min/max timestamp. Existing segments are never
+ * overwritten, so a directory can collect segments from several ingestion runs.
+ */
+public final class SegmentWriter implements Closeable {
+    public static final Duration DEFAULT_PARTITION = Duration.ofHours(1);
+
+    // Partitions with an open segment; enough for logs that are roughly in time order
+    private static final int MAX_OPEN_SEGMENTS = 8;
+    private static final int TYPE_COUNT = EventType.values().length;
+    private static final DateTimeFormatter NAME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final long partitionSeconds;
+    private final Map<Long, Open> open = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<Segment> written = new ArrayList<>();
+    private boolean closed;
+
+    public SegmentWriter(Path directory) throws IOException {
+        this(directory, DEFAULT_PARTITION);
+    }
+
+    public SegmentWriter(Path directory, Duration partition) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Segment directory cannot be null");
+        }
+        if (partition == null || partition.getSeconds() < 1 || partition.getNano() != 0) {
+            throw new IllegalArgumentException("Partition must be a positive whole number of seconds, got: " + partition);
+        }
+        this.directory = directory;
+        this.partitionSeconds = partition.getSeconds();
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Write all events into new hourly segments in the directory.
+     * @return the segments written
+     */
+    public static List<Segment> writeAll(Path directory, Collection<? extends Event> events) throws IOException {
+        SegmentWriter writer = new SegmentWriter(directory);
+        try (SegmentWriter closing = writer) {
+            for (Event event : events) {
+                closing.write(event);
+            }
+        }
+        return writer.getSegments();
+    }
+
+    public void write(Event event) throws IOException {
+        if (event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        if (closed) {
+            throw new IOException("Segment writer is closed");
+        }
+        long partition = Math.floorDiv(event.getTimestamp().getEpochSecond(), partitionSeconds);
+        Open segment = open.get(partition);
+        if (segment == null) {
+            if (open.size() == MAX_OPEN_SEGMENTS) {
+                Iterator<Open> eldest = open.values().iterator();
+                Open evicted = eldest.next();
+                eldest.remove();
+                finish(evicted);
+            }
+            segment = new Open(newSegmentFile(partition));
+            open.put(partition, segment);
+        }
+        segment.write(event);
+    }
+
+    /**
+     * Segments completed so far, in the order they were closed.
+     */
+    public List<Segment> getSegments() {
+        return Collections.unmodifiableList(written);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        for (Open segment : open.values()) {
+            try {
+                finish(segment);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        open.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Path newSegmentFile(long partition) {
+        String base = "segment-" + NAME_FORMAT.format(Instant.ofEpochSecond(partition * partitionSeconds));
+        for (int sequence = 0; ; sequence++) {
+            Path file = directory.resolve(base + "-" + sequence + SegmentStore.EXTENSION);
+            if (!Files.exists(file) && !Files.exists(temporary(file))) {
+                return file;
+            }
+        }
+    }
+
+    private static Path temporary(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private void finish(Open segment) throws IOException {
+        segment.events.close();
+        Segment finished = new Segment(segment.file, segment.count, segment.min, segment.max, segment.typeCounts);
+        Path temporary = temporary(segment.file);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            finished.writeHeader(channel);
+        }
+        Files.move(temporary, segment.file, StandardCopyOption.ATOMIC_MOVE);
+        written.add(finished);
+    }
+
+    /**
+     * A segment being written, with the statistics that go into its header.
+     */
+    private static final class Open {
+        final Path file;
+        final EventFileWriter events;
+        final long[] typeCounts = new long[TYPE_COUNT];
+        long count;
+        Instant min;
+        Instant max;
+
+        Open(Path file) throws IOException {
+            this.file = file;
+            FileChannel channel = FileChannel.open(temporary(file),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                // Placeholder header, filled in once the statistics are known
+                ByteBuffer header = ByteBuffer.allocate(Segment.HEADER_SIZE);
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                this.events = new EventFileWriter(Channels.newOutputStream(channel));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void write(Event event) throws IOException {
+            events.write(event);
+            Instant timestamp = event.getTimestamp();
+            if (min == null || timestamp.isBefore(min)) {
+                min = timestamp;
+            }
+            if (max == null || timestamp.isAfter(max)) {
+                max = timestamp;
+            }
+            typeCounts[event.getType().ordinal()]++;
+            count++;
+        }
+    }
+}
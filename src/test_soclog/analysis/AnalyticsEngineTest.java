@@ -7,8 +7,13 @@ import static org.junit.Assert.*;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
 import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
@@ -67,6 +72,14 @@ public class AnalyticsEngineTest {
         assertEquals(6, unique.size());
     }
     
+    @Test
+    public void testUniqueEvents_RepeatedCallsAreIndependent() {
+        List<Event> first = analyticsEngine.uniqueEvents();
+        first.clear();
+        assertEquals(6, analyticsEngine.uniqueEvents().size());
+        assertEquals(analyticsEngine.topKFrequentEvents(3), analyticsEngine.topKFrequentEvents(3));
+    }
+
     @Test
     public void testUniqueEvents_EmptyDataset() {
         List<Event> unique = emptyEngine.uniqueEvents();
@@ -103,6 +116,17 @@ public class AnalyticsEngineTest {
         assertEquals(2, topK.size());
     }
 
+    @Test
+    public void testTopKFrequentEvents_RankingIsStableAcrossK() {
+        // The duplicated read comes first; ties are ordered by canonical key
+        List<Event> all = analyticsEngine.topKFrequentEvents(6);
+        assertEquals(sampleEvents.get(0), all.get(0));
+        assertEquals(EventType.execute, all.get(1).getType());
+        for (int k = 1; k <= 6; k++) {
+            assertEquals(all.subList(0, k), analyticsEngine.topKFrequentEvents(k));
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testTopKFrequentEvents_InvalidK_Zero() {
         analyticsEngine.topKFrequentEvents(0);
@@ -315,4 +339,114 @@ public class AnalyticsEngineTest {
         assertNotNull(sensitiveAccess);
         assertEquals(0, sensitiveAccess.size());
     }
+
+    // Windowed queries over out-of-order input
+
+    @Test
+    public void testWindowQueries_OutOfOrderInput() {
+        List<Event> shuffled = new ArrayList<>(sampleEvents);
+        Collections.reverse(shuffled);
+        shuffled.add(new ReadEvent(baseTime.plusSeconds(15), rootProcess, sampleFile, "mode=r"));
+        AnalyticsEngine engine = new AnalyticsEngine(shuffled);
+
+        Instant start = baseTime.plusSeconds(10);
+        Instant end = baseTime.plusSeconds(40);
+        List<Event> window = engine.uniqueEvents(start, end);
+        assertEquals(5, window.size());
+        assertEquals(baseTime.plusSeconds(40), window.get(0).getTimestamp()); // insertion order is kept
+        for (Event event : window) {
+            assertFalse(event.getTimestamp().isBefore(start));
+            assertFalse(event.getTimestamp().isAfter(end));
+        }
+
+        Map<String, Long> top = engine.topProcessesByWindow(start, end, 10);
+        assertEquals(Long.valueOf(3), top.get("test_proc"));
+        assertEquals(Long.valueOf(2), top.get("root_proc"));
+        assertEquals(Long.valueOf(1), engine.detectPrivilegeEscalation(baseTime, baseTime.plusSeconds(50)).get("test_proc"));
+        assertTrue(engine.detectPrivilegeEscalation(baseTime, baseTime.plusSeconds(49)).isEmpty());
+    }
+
+    // Appending events
+
+    @Test
+    public void testAppend_QueriesReflectNewEvents() {
+        assertEquals(6, analyticsEngine.topKFrequentEvents(6).size());
+        assertEquals(Long.valueOf(1), analyticsEngine.detectPrivilegeEscalation(null, null).get("test_proc"));
+
+        ProcessInfo childRoot = new ProcessInfo("child_root", 103, "/bin/child", ProcessInfo.PRIV_ROOT);
+        analyticsEngine.append(new ForkEvent(baseTime.plusSeconds(5), userProcess, childRoot, "escalation=true"));
+        analyticsEngine.appendAll(Arrays.asList(
+            new WriteEvent(baseTime.plusSeconds(20), userProcess, sampleFile, "mode=w"),
+            new WriteEvent(baseTime.plusSeconds(20), userProcess, sampleFile, "mode=w")));
+
+        assertEquals(7, analyticsEngine.uniqueEvents().size());
+        assertEquals(Long.valueOf(3), analyticsEngine.countByEventType(EventType.write));
+        assertEquals(Long.valueOf(3), analyticsEngine.countByEventType(EventType.fork));
+        assertEquals(EventType.write, analyticsEngine.topKFrequentEvents(1).get(0).getType());
+        assertEquals(Long.valueOf(2), analyticsEngine.detectPrivilegeEscalation(null, null).get("test_proc"));
+        assertEquals(Long.valueOf(1), analyticsEngine.detectPrivilegeEscalation(baseTime, baseTime.plusSeconds(10)).get("test_proc"));
+        assertEquals(2, analyticsEngine.uniqueEvents(baseTime, baseTime.plusSeconds(5)).size());
+    }
+
+    @Test
+    public void testAppend_EventsWithoutSubject() {
+        ProcessInfo childRoot = new ProcessInfo("child_root", 103, "/bin/child", ProcessInfo.PRIV_ROOT);
+        analyticsEngine.appendAll(Arrays.asList(
+            new ReadEvent(baseTime.plusSeconds(60), null, sampleFile, "mode=r"),
+            new ForkEvent(baseTime.plusSeconds(61), null, childRoot, "status=success"),
+            new ForkEvent(baseTime.plusSeconds(62), userProcess, null, "status=success")));
+
+        assertEquals(Long.valueOf(4), analyticsEngine.countByEventType(EventType.fork));
+        assertEquals(Long.valueOf(1), analyticsEngine.detectPrivilegeEscalation(null, null).get("test_proc"));
+        assertEquals(Long.valueOf(1),
+            analyticsEngine.detectPrivilegeEscalation(baseTime, baseTime.plusSeconds(70)).get("test_proc"));
+        assertEquals(Long.valueOf(7),
+            analyticsEngine.topProcessesByWindow(baseTime, baseTime.plusSeconds(70), 5).get("test_proc"));
+        assertTrue(analyticsEngine.detectHighFrequencyBursts(baseTime, baseTime.plusSeconds(70), 100).isEmpty());
+        assertEquals(9, analyticsEngine.topKFrequentEvents(9).size());
+    }
+
+    @Test
+    public void testQueries_ConcurrentReadersAfterLateAppends() throws Exception {
+        Random random = new Random(10);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // Out of order, so the time index needs an explicit permutation
+            Instant at = baseTime.plusSeconds(random.nextInt(3600));
+            events.add(i % 7 == 0
+                ? new ForkEvent(at, userProcess, new ProcessInfo("child", 200 + i, "/bin/c", ProcessInfo.PRIV_ROOT), "s")
+                : new ReadEvent(at, random.nextBoolean() ? userProcess : rootProcess, sampleFile, "mode=r"));
+        }
+        AnalyticsEngine engine = new AnalyticsEngine(events.subList(0, 2500));
+        for (Event event : events.subList(2500, events.size())) {
+            engine.append(event);
+        }
+
+        Instant start = baseTime.plusSeconds(600);
+        Instant end = baseTime.plusSeconds(1800);
+        AnalyticsEngine reference = new AnalyticsEngine(events);
+        List<Object> expected = Arrays.asList(reference.uniqueEvents(start, end).size(),
+            reference.topKFrequentEvents(3), reference.detectPrivilegeEscalationChains(),
+            reference.topProcessesByWindow(start, end, 2));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Object>>> answers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                answers.add(pool.submit(() -> Arrays.<Object>asList(engine.uniqueEvents(start, end).size(),
+                    engine.topKFrequentEvents(3), engine.detectPrivilegeEscalationChains(),
+                    engine.topProcessesByWindow(start, end, 2))));
+            }
+            for (Future<List<Object>> answer : answers) {
+                assertEquals(expected, answer.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppend_NullEvent() {
+        analyticsEngine.append(null);
+    }
 }
@@ -0,0 +1,143 @@
+package test_soclog.analysis;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.analysis.Cidr;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+
+public class CidrTest {
+
+    private ProcessInfo process;
+    private Instant time;
+
+    @Before
+    public void setUp() {
+        process = new ProcessInfo("curl", 200, "/usr/bin/curl", ProcessInfo.PRIV_USER);
+        time = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    private Event send(int second, String ip, int port) {
+        return new SendToEvent(time.plusSeconds(second), process, new NetworkInfo(ip, port, "UDP"), "p");
+    }
+
+    @Test
+    public void testPackAddress_RoundTrip() {
+        for (String ip : new String[] {"0.0.0.0", "10.1.2.3", "192.168.0.1", "255.255.255.255"}) {
+            assertEquals(ip, NetworkInfo.formatAddress(NetworkInfo.packAddress(ip)));
+        }
+        assertEquals(0x0A010203, new NetworkInfo("10.1.2.3", 80, "tcp").getAddress());
+        for (String bad : new String[] {"256.0.0.1", "1.2.3", "1.2.3.4.5", "1..2.3", "1.2.3.", "a.b.c.d", "1234.1.1.1", ""}) {
+            try {
+                NetworkInfo.packAddress(bad);
+                fail("Expected failure for " + bad);
+            } catch (IllegalArgumentException e) {
+                assertEquals("Invalid IPv4 address format: " + bad, e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testParse_RangeBounds() {
+        Cidr range = Cidr.parse("10.1.2.3/8");
+        assertEquals(Cidr.parse("10.0.0.0/8"), range);
+        assertEquals("10.0.0.0/8", range.toString());
+        assertEquals("10.0.0.0", NetworkInfo.formatAddress(range.first()));
+        assertEquals("10.255.255.255", NetworkInfo.formatAddress(range.last()));
+        assertTrue(range.contains(NetworkInfo.packAddress("10.200.0.1")));
+        assertFalse(range.contains(NetworkInfo.packAddress("11.0.0.0")));
+
+        assertEquals(32, Cidr.parse("8.8.8.8").getPrefixLength());
+        Cidr all = Cidr.parse("1.2.3.4/0");
+        assertTrue(all.contains(NetworkInfo.packAddress("255.255.255.255")));
+        assertEquals("0.0.0.0/0", all.toString());
+
+        for (String bad : new String[] {"10.0.0.0/33", "10.0.0.0/x", "10.0.0/8", null}) {
+            try {
+                Cidr.parse(bad);
+                fail("Expected failure for " + bad);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testFindNetworkEvents_RangePortAndWindow() {
+        AnalyticsEngine engine = new AnalyticsEngine(Arrays.asList(
+            send(3, "10.0.0.5", 53),
+            send(1, "10.9.9.9", 80),
+            send(2, "192.168.1.1", 53),
+            new ReadEvent(time, process, new FileInfo("/etc/hosts", 3, "644"), "mode=r"),
+            send(0, "10.0.0.5", 53)));
+
+        List<Event> inRange = engine.findNetworkEvents("10.0.0.0/8", null, null, null);
+        assertEquals(3, inRange.size());
+        assertEquals(time, inRange.get(0).getTimestamp());
+        assertEquals(time.plusSeconds(3), inRange.get(2).getTimestamp());
+
+        assertEquals(2, engine.findNetworkEvents("10.0.0.0/8", 53, null, null).size());
+        assertEquals(1, engine.findNetworkEvents("10.0.0.0/8", 53, time.plusSeconds(1), time.plusSeconds(5)).size());
+        assertEquals(4, engine.findNetworkEvents("0.0.0.0/0", null, null, null).size());
+        assertTrue(engine.findNetworkEvents("172.16.0.0/12", null, null, null).isEmpty());
+
+        // Endpoints added later are picked up by the index
+        engine.append(send(4, "10.0.0.1", 53));
+        assertEquals(3, engine.findNetworkEvents("10.0.0.0/8", 53, null, null).size());
+    }
+
+    @Test
+    public void testTopTalkers_CountsPerAddressAcrossPorts() {
+        AnalyticsEngine engine = new AnalyticsEngine(Arrays.asList(
+            send(0, "10.0.0.2", 53),
+            send(1, "10.0.0.2", 443),
+            send(2, "10.0.0.1", 80),
+            send(3, "10.0.0.3", 80),
+            send(4, "10.0.0.3", 80),
+            send(5, "8.8.8.8", 53)));
+
+        Map<String, Long> top = engine.topTalkers("10.0.0.0/24", null, null, 2);
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.3"), new ArrayList<>(top.keySet()));
+        assertEquals(Long.valueOf(2), top.get("10.0.0.2"));
+
+        Map<String, Long> windowed = engine.topTalkers("10.0.0.0/24", time.plusSeconds(1), time.plusSeconds(2), 5);
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"), new ArrayList<>(windowed.keySet()));
+    }
+
+    @Test
+    public void testFindNetworkEvents_SameAsScanning() {
+        Random random = new Random(11);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String ip = (random.nextBoolean() ? "10." : "200.") + random.nextInt(4) + ".0." + random.nextInt(4);
+            events.add(send(random.nextInt(100), ip, 50 + random.nextInt(4)));
+        }
+        AnalyticsEngine engine = new AnalyticsEngine(events);
+        for (String cidr : new String[] {"10.0.0.0/8", "10.1.0.0/16", "200.2.0.3", "128.0.0.0/1"}) {
+            Cidr range = Cidr.parse(cidr);
+            long expected = 0;
+            for (Event event : events) {
+                NetworkInfo endpoint = (NetworkInfo) event.getObject();
+                Instant at = event.getTimestamp();
+                if (range.contains(endpoint.getAddress()) && endpoint.getPort() == 52
+                        && !at.isBefore(time.plusSeconds(20)) && !at.isAfter(time.plusSeconds(60))) {
+                    expected++;
+                }
+            }
+            assertEquals(cidr, expected,
+                engine.findNetworkEvents(cidr, 52, time.plusSeconds(20), time.plusSeconds(60)).size());
+        }
+    }
+}
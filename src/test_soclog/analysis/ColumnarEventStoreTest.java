@@ -0,0 +1,82 @@
+package test_soclog.analysis;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+
+import edu.hofstra.csc17.proj.soclog.analysis.ColumnarEventStore;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+
+public class ColumnarEventStoreTest {
+
+    private ColumnarEventStore store;
+    private ProcessInfo shell;
+    private ProcessInfo worker;
+    private Instant baseTime;
+
+    @Before
+    public void setUp() {
+        store = new ColumnarEventStore();
+        shell = new ProcessInfo("shell", 1001, "/bin/bash", ProcessInfo.PRIV_USER);
+        worker = new ProcessInfo("worker", 1002, "/bin/bash", ProcessInfo.PRIV_ROOT);
+        baseTime = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    @Test
+    public void testRoundTrip_AllEventTypes() {
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        NetworkInfo endpoint = new NetworkInfo("10.0.0.1", 53, "UDP");
+        Event[] events = {
+            new ReadEvent(baseTime, shell, file, "mode=r"),
+            new WriteEvent(baseTime.plusNanos(1), shell, file, "mode=w"),
+            new ExecuteEvent(baseTime, shell, file, null),
+            new OpenEvent(baseTime, shell, file, "mode=r"),
+            new CloseEvent(baseTime, shell, file, "mode=r"),
+            new SendToEvent(baseTime, shell, endpoint, "protocol=UDP"),
+            new ReceiveFromEvent(baseTime, shell, endpoint, "protocol=UDP"),
+            new ForkEvent(baseTime, shell, worker, "status=success")
+        };
+        for (Event event : events) {
+            store.add(event);
+        }
+
+        assertEquals(events.length, store.size());
+        for (int row = 0; row < events.length; row++) {
+            Event rebuilt = store.event(row);
+            assertEquals(events[row], rebuilt);
+            assertEquals(events[row].getClass(), rebuilt.getClass());
+        }
+    }
+
+    @Test
+    public void testDictionaries_StoreRepeatedValuesOnce() {
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        store.add(new ReadEvent(baseTime, shell, file, "mode=r"));
+        store.add(new ReadEvent(baseTime.plusSeconds(1), shell, new FileInfo("/tmp/file.txt", 5, "644"), "mode=r"));
+        store.add(new ForkEvent(baseTime.plusSeconds(2), shell, worker, "mode=r"));
+
+        assertEquals(3, store.entityCount()); // shell, file, worker
+        assertEquals(store.subjectId(0), store.subjectId(2));
+        assertEquals(store.objectId(0), store.objectId(1));
+        assertEquals(store.flagsId(0), store.flagsId(2));
+        assertEquals(-1, store.processNameId(store.objectId(0)));
+        assertEquals("worker", store.processName(store.processNameId(store.objectId(2))));
+    }
+
+    @Test
+    public void testSameRow_MatchesEventEquality() {
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        store.add(new ReadEvent(baseTime, shell, file, "mode=r"));
+        store.add(new ReadEvent(baseTime, shell, file, "mode=r"));
+        store.add(new ReadEvent(baseTime, shell, file, "mode=rw"));
+
+        assertTrue(store.sameRow(0, 1));
+        assertEquals(store.rowHash(0), store.rowHash(1));
+        assertFalse(store.sameRow(0, 2));
+    }
+}
@@ -0,0 +1,167 @@
+package test_soclog.analysis;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.analysis.OffHeapEventStore;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+
+public class OffHeapEventStoreTest {
+
+    private OffHeapEventStore store;
+    private ProcessInfo shell;
+    private ProcessInfo worker;
+    private Instant baseTime;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new OffHeapEventStore();
+        shell = new ProcessInfo("shell", 1001, "/bin/bash", ProcessInfo.PRIV_USER);
+        worker = new ProcessInfo("worker", 1002, "/bin/bash", ProcessInfo.PRIV_ROOT);
+        baseTime = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void testRoundTrip_AllEventTypes() {
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        NetworkInfo endpoint = new NetworkInfo("10.0.0.1", 53, "UDP");
+        Event[] events = {
+            new ReadEvent(baseTime, shell, file, "mode=r"),
+            new WriteEvent(baseTime.plusNanos(1), shell, file, "mode=w"),
+            new ExecuteEvent(baseTime.minusSeconds(1_000_000_000L), shell, file, null),
+            new SendToEvent(baseTime, shell, endpoint, "protocol=UDP"),
+            new ForkEvent(baseTime, shell, worker, "status=success")
+        };
+        for (Event event : events) {
+            store.add(event);
+        }
+
+        assertEquals(events.length, store.size());
+        for (int row = 0; row < events.length; row++) {
+            assertEquals(events[row], store.event(row));
+        }
+        assertTrue(store.sameRow(0, store.add(events[0])));
+    }
+
+    @Test
+    public void testRows_SpanSeveralMappedChunks() {
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        int rows = (1 << 20) + 1000;
+        for (int i = 0; i < rows; i++) {
+            store.add(new ReadEvent(baseTime.plusSeconds(i), i % 2 == 0 ? shell : worker, file, "r"));
+        }
+        assertEquals(rows, store.size());
+        for (int row : new int[] {0, (1 << 20) - 1, 1 << 20, rows - 1}) {
+            assertEquals(baseTime.plusSeconds(row), store.timestamp(row));
+            assertEquals(row % 2 == 0 ? shell : worker, store.entity(store.subjectId(row)));
+        }
+    }
+
+    @Test
+    public void testEngine_SameAnswersAsOnHeap() {
+        Random random = new Random(9);
+        FileInfo[] files = {new FileInfo("/etc/passwd", 3, "644"), new FileInfo("/var/log/a", 4, "640")};
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Instant at = baseTime.plusSeconds(random.nextInt(600));
+            events.add(random.nextInt(4) == 0
+                ? new ForkEvent(at, shell, worker, "s")
+                : new ReadEvent(at, random.nextBoolean() ? shell : worker, files[random.nextInt(2)], "r"));
+        }
+        AnalyticsEngine onHeap = new AnalyticsEngine(events);
+        AnalyticsEngine offHeap = new AnalyticsEngine(store);
+        offHeap.appendAll(events);
+
+        Instant start = baseTime.plusSeconds(100);
+        Instant end = baseTime.plusSeconds(300);
+        assertEquals(onHeap.uniqueEvents(), offHeap.uniqueEvents());
+        assertEquals(onHeap.uniqueEvents(start, end), offHeap.uniqueEvents(start, end));
+        assertEquals(onHeap.topKFrequentEvents(start, end, 3), offHeap.topKFrequentEvents(start, end, 3));
+        assertEquals(onHeap.countByEventType(), offHeap.countByEventType());
+        assertEquals(onHeap.detectPrivilegeEscalation(start, end), offHeap.detectPrivilegeEscalation(start, end));
+
+        // An engine over a store that already has rows picks them up
+        AnalyticsEngine reopened = new AnalyticsEngine(store);
+        assertEquals(onHeap.topProcessesByWindow(start, end, 2), reopened.topProcessesByWindow(start, end, 2));
+    }
+
+    private static long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static long indexFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("soclog-index")).count();
+        }
+    }
+
+    @Test
+    public void testEngine_HeapDoesNotGrowWithRows() throws IOException {
+        Path directory = Files.createTempDirectory("soclog-offheap-test");
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        int rows = 2_000_000;
+        try (OffHeapEventStore large = new OffHeapEventStore(directory)) {
+            // Two interleaved files: every event is distinct and half of them arrive late
+            for (int i = 0; i < rows; i++) {
+                long second = i % 2 == 0 ? i / 2 : rows / 2 + i / 2;
+                large.add(new ReadEvent(baseTime.plusSeconds(second), i % 3 == 0 ? shell : worker, file, "r"));
+            }
+
+            long before = usedHeap();
+            AnalyticsEngine engine = new AnalyticsEngine(large);
+            long grown = usedHeap() - before;
+            // Heap-resident dedup table and time order would take over 20 bytes per row
+            assertTrue("Engine grew the heap by " + grown + " bytes", grown < rows);
+            assertTrue(indexFiles(directory) > 0);
+
+            Instant start = baseTime.plusSeconds(rows / 2 - 5);
+            List<Event> window = engine.uniqueEvents(start, start.plusSeconds(9));
+            assertEquals(10, window.size());
+            assertEquals(rows, engine.uniqueEvents().size());
+        } finally {
+            assertEquals(0, indexFiles(directory));
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testClose_DeletesScratchFile() throws IOException {
+        Path file = store.getFile();
+        store.add(new ReadEvent(baseTime, shell, new FileInfo("/tmp/file.txt", 5, "644"), "r"));
+        assertTrue(Files.exists(file));
+        store.close();
+        assertFalse(Files.exists(file));
+        try {
+            store.add(new ReadEvent(baseTime, shell, new FileInfo("/tmp/file.txt", 5, "644"), "r"));
+            fail("Expected failure after close");
+        } catch (IllegalStateException e) {
+            assertEquals("Event store is closed", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package test_soclog.analysis;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.analysis.PathTrie;
+
+public class PathTrieTest {
+
+    // The rule findSensitiveFileAccess used before the trie
+    private static boolean naiveMatch(String path, List<String> sensitivePaths) {
+        return sensitivePaths.stream()
+            .anyMatch(sensitivePath ->
+                path.equals(sensitivePath) ||
+                path.startsWith(sensitivePath + "/") ||
+                sensitivePath.startsWith(path + "/"));
+    }
+
+    @Test
+    public void testMatches_ExactPrefixAndParent() {
+        PathTrie trie = new PathTrie(Arrays.asList("/etc/shadow", "/var/log", "/etc/ssh/sshd_config"));
+
+        assertTrue(trie.matches("/etc/shadow"));
+        assertTrue(trie.matches("/var/log/auth.log"));
+        assertTrue(trie.matches("/etc")); // parent directory of a watched file
+        assertTrue(trie.matches("/etc/ssh"));
+        assertFalse(trie.matches("/etc/shadow.bak"));
+        assertFalse(trie.matches("/var/logs"));
+        assertFalse(trie.matches("/et"));
+        assertFalse(trie.matches("/tmp/file"));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    public void testMatches_EmptyTrie() {
+        PathTrie trie = new PathTrie(new ArrayList<>());
+        assertFalse(trie.matches("/etc/shadow"));
+        assertFalse(trie.matches(""));
+    }
+
+    @Test
+    public void testMatches_SameAsNaiveRule() {
+        // A tiny alphabet makes shared prefixes, edge splits and odd slashes common
+        Random random = new Random(42);
+        char[] alphabet = {'/', 'a', 'b', 'c'};
+        for (int round = 0; round < 500; round++) {
+            List<String> watched = new ArrayList<>();
+            int count = random.nextInt(6);
+            for (int i = 0; i < count; i++) {
+                watched.add(randomPath(random, alphabet));
+            }
+            PathTrie trie = new PathTrie(watched);
+            for (int i = 0; i < 50; i++) {
+                String path = random.nextBoolean() && !watched.isEmpty()
+                    ? mutate(watched.get(random.nextInt(watched.size())), random, alphabet)
+                    : randomPath(random, alphabet);
+                assertEquals(watched + " vs " + path, naiveMatch(path, watched), trie.matches(path));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPath() {
+        new PathTrie(Arrays.asList("/etc", null));
+    }
+
+    private static String randomPath(Random random, char[] alphabet) {
+        int length = random.nextInt(7);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(String path, Random random, char[] alphabet) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return path.substring(0, random.nextInt(path.length() + 1));
+            case 1:
+                return path + "/" + randomPath(random, alphabet);
+            default:
+                return path + alphabet[random.nextInt(alphabet.length)];
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package test_soclog.analysis;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.analysis.ProcessLineage;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+import edu.hofstra.csc17.proj.soclog.model.event.ForkEvent;
+
+public class ProcessLineageTest {
+
+    private ProcessLineage lineage;
+    private ProcessInfo init;
+    private ProcessInfo shell;
+    private ProcessInfo sudo;
+    private ProcessInfo rootShell;
+    private ProcessInfo daemon;
+
+    @Before
+    public void setUp() {
+        lineage = new ProcessLineage();
+        init = new ProcessInfo("init", 1, "/sbin/init", ProcessInfo.PRIV_ROOT);
+        shell = new ProcessInfo("bash", 100, "/bin/bash", ProcessInfo.PRIV_USER);
+        sudo = new ProcessInfo("sudo", 101, "/usr/bin/sudo", ProcessInfo.PRIV_ROOT);
+        rootShell = new ProcessInfo("sh", 102, "/bin/sh", ProcessInfo.PRIV_ROOT);
+        daemon = new ProcessInfo("cron", 2, "/usr/sbin/cron", ProcessInfo.PRIV_ROOT);
+
+        // init -> bash -> sudo -> sh, init -> cron
+        lineage.addFork(init, shell);
+        lineage.addFork(shell, sudo);
+        lineage.addFork(sudo, rootShell);
+        lineage.addFork(init, daemon);
+    }
+
+    @Test
+    public void testAncestryQueries() {
+        assertEquals(5, lineage.size());
+        assertTrue(lineage.isAncestor(1, 102));
+        assertTrue(lineage.isAncestor(100, 102));
+        assertFalse(lineage.isAncestor(102, 100));
+        assertFalse(lineage.isAncestor(2, 102));
+        assertFalse(lineage.isAncestor(102, 102));
+        assertEquals(Arrays.asList(sudo, shell, init), lineage.ancestors(102));
+        assertEquals(Arrays.asList(shell, sudo, rootShell, daemon), lineage.descendants(1));
+        assertEquals(sudo, lineage.getParent(102));
+        assertNull(lineage.getParent(1));
+    }
+
+    @Test
+    public void testMultiHopEscalation() {
+        assertEquals(shell, lineage.nearestUserAncestor(102));
+        assertEquals(Arrays.asList(shell, sudo, rootShell), lineage.escalationChain(102));
+        assertTrue(lineage.escalationChain(2).isEmpty()); // root all the way up
+        assertTrue(lineage.escalationChain(100).isEmpty()); // not root
+        assertEquals(Arrays.asList(sudo, rootShell), lineage.escalatedProcesses());
+    }
+
+    @Test
+    public void testCyclesAndReparentingAreIgnored() {
+        assertFalse(lineage.addFork(rootShell, init));
+        assertFalse(lineage.addFork(daemon, rootShell));
+        assertFalse(lineage.addFork(shell, shell));
+        assertEquals(sudo, lineage.getParent(102));
+        assertTrue(lineage.ancestors(1).isEmpty());
+    }
+
+    @Test
+    public void testDeepForkChain() {
+        ProcessLineage chain = new ProcessLineage();
+        ProcessInfo previous = new ProcessInfo("p", 1, "/bin/p", ProcessInfo.PRIV_USER);
+        for (int pid = 2; pid <= 200_001; pid++) {
+            ProcessInfo next = new ProcessInfo("p", pid, "/bin/p", ProcessInfo.PRIV_ROOT);
+            chain.addFork(previous, next);
+            previous = next;
+        }
+        assertTrue(chain.isAncestor(1, 200_001));
+        assertEquals(200_000, chain.descendants(1).size());
+        assertEquals(1, chain.nearestUserAncestor(200_001).getPid().intValue());
+    }
+
+    @Test
+    public void testEngineEscalationChains() {
+        Instant time = Instant.parse("2024-01-01T00:00:00Z");
+        List<Event> forks = Arrays.asList(
+            new ForkEvent(time, init, shell, "status=success"),
+            new ForkEvent(time.plusSeconds(1), shell, sudo, "status=success"),
+            new ForkEvent(time.plusSeconds(2), sudo, rootShell, "status=success"));
+        AnalyticsEngine engine = new AnalyticsEngine(forks);
+
+        // The single-edge check only sees bash -> sudo
+        assertEquals(Long.valueOf(1), engine.detectPrivilegeEscalation(null, null).get("bash"));
+        Map<String, Long> chains = engine.detectPrivilegeEscalationChains();
+        assertEquals(1, chains.size());
+        assertEquals(Long.valueOf(2), chains.get("bash"));
+    }
+}
@@ -0,0 +1,111 @@
+package test_soclog.analysis;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.analysis.SlidingWindowDetector;
+import edu.hofstra.csc17.proj.soclog.analysis.SlidingWindowDetector.Alert;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+
+public class SlidingWindowDetectorTest {
+
+    private List<Alert> alerts;
+    private SlidingWindowDetector detector;
+    private Instant baseTime;
+
+    @Before
+    public void setUp() {
+        alerts = new ArrayList<>();
+        detector = new SlidingWindowDetector(10, alerts::add);
+        baseTime = Instant.parse("2024-01-01T12:00:00Z");
+    }
+
+    @Test
+    public void testBurstInsideLongQuietWindow() {
+        ProcessInfo steady = new ProcessInfo("steady", 1, "/bin/steady", ProcessInfo.PRIV_USER);
+        ProcessInfo bursty = new ProcessInfo("bursty", 2, "/bin/bursty", ProcessInfo.PRIV_USER);
+        FileInfo file = new FileInfo("/tmp/file.txt", 5, "644");
+        List<Event> events = new ArrayList<>();
+        for (int minute = 0; minute < 60; minute++) {
+            Instant time = baseTime.plusSeconds(minute * 60L);
+            events.add(new ReadEvent(time, steady, file, "mode=r"));
+            if (minute == 30) {
+                for (int i = 0; i < 20; i++) {
+                    events.add(new WriteEvent(time.plusMillis(500L * i), bursty, file, "mode=w"));
+                }
+            }
+        }
+        AnalyticsEngine engine = new AnalyticsEngine(events);
+        Instant end = baseTime.plusSeconds(3600);
+
+        // 20 events over an hour is far below 10 per minute on average
+        assertTrue(engine.detectHighFrequencyProcesses(baseTime, end, 10).isEmpty());
+
+        List<Alert> bursts = engine.detectHighFrequencyBursts(baseTime, end, 10);
+        assertEquals(1, bursts.size());
+        assertEquals("bursty", bursts.get(0).getProcessName());
+        assertEquals(11, bursts.get(0).getCount());
+        assertEquals(baseTime.plusSeconds(1800).plusMillis(5000), bursts.get(0).getTimestamp());
+    }
+
+    @Test
+    public void testOldEventsSlideOut() {
+        for (int i = 0; i < 10; i++) {
+            detector.accept("proc", baseTime.plusSeconds(i));
+        }
+        assertEquals(10, detector.count("proc"));
+        assertTrue(alerts.isEmpty());
+
+        detector.accept("proc", baseTime.plusSeconds(65));
+        assertEquals(5, detector.count("proc"));
+        assertTrue(alerts.isEmpty());
+    }
+
+    @Test
+    public void testAlertsOncePerBurst() {
+        for (int burst = 0; burst < 2; burst++) {
+            Instant start = baseTime.plusSeconds(burst * 600L);
+            for (int i = 0; i < 30; i++) {
+                detector.accept("proc", start.plusSeconds(i));
+            }
+        }
+        assertEquals(2, alerts.size());
+        assertEquals(baseTime.plusSeconds(610), alerts.get(1).getTimestamp());
+    }
+
+    @Test
+    public void testIdleProcessesAreDropped() {
+        detector.accept("a", baseTime);
+        detector.accept("b", baseTime.plusSeconds(30));
+        assertEquals(2, detector.activeProcesses());
+
+        detector.accept("b", baseTime.plusSeconds(200));
+        assertEquals(1, detector.activeProcesses());
+        assertEquals(0, detector.count("a"));
+    }
+
+    @Test
+    public void testThresholdScalesWithWindow() {
+        SlidingWindowDetector shortWindow = new SlidingWindowDetector(Duration.ofSeconds(10), 10, 60, alerts::add);
+        assertEquals(10, shortWindow.getLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBucketsMustDivideWindow() {
+        new SlidingWindowDetector(Duration.ofSeconds(10), 3, 60, alerts::add);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        new SlidingWindowDetector(0, alerts::add);
+    }
+}
@@ -0,0 +1,71 @@
+package test_soclog.bench;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import bench_soclog.LogGenerator;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser.ParseResult;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+public class LogGeneratorTest {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("soclog-generator-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testClean_ParsesBackToSameEvents() throws IOException {
+        Path file = directory.resolve("clean.csv");
+        new LogGenerator(7, LogGenerator.Profile.CLEAN).writeCsv(file, 5000);
+        List<Event> expected = new LogGenerator(7, LogGenerator.Profile.CLEAN).events(5000);
+
+        for (EventParser.Mode mode : EventParser.Mode.values()) {
+            ParseResult result = new EventParser(mode).parse(file);
+            assertEquals(mode.toString(), 0, result.getErrors().size());
+            assertEquals(mode.toString(), expected, result.getEvents());
+        }
+    }
+
+    @Test
+    public void testMalformed_EveryRecordParsedOrRejected() throws IOException {
+        Path file = directory.resolve("malformed.csv");
+        new LogGenerator(7, LogGenerator.Profile.MALFORMED).writeCsv(file, 5000);
+
+        ParseResult result = new EventParser().parse(file);
+        assertEquals(5000, result.getEvents().size() + result.getErrors().size());
+        assertTrue(result.getErrors().size() > 300);
+        assertTrue(result.getErrors().size() < 700);
+    }
+
+    @Test
+    public void testWriteFiles_SameSeedSameBytes() throws IOException {
+        List<Path> first = LogGenerator.writeFiles(directory.resolve("a"), 2, 500, LogGenerator.Profile.BURST, 3);
+        List<Path> second = LogGenerator.writeFiles(directory.resolve("b"), 2, 500, LogGenerator.Profile.BURST, 3);
+
+        assertEquals("log-001.csv", first.get(1).getFileName().toString());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(Files.readAllBytes(first.get(i)), Files.readAllBytes(second.get(i)));
+        }
+        assertEquals(500, new EventParser().parse(first.get(0)).getEvents().size());
+    }
+}
@@ -0,0 +1,175 @@
+package test_soclog.ingest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EntityCache;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser.ParseResult;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+
+public class EventParserTest {
+
+    private EventParser lineParser;
+    private EventParser byteParser;
+    private Path testDataDir;
+
+    @Before
+    public void setUp() throws IOException {
+        lineParser = new EventParser();
+        byteParser = new EventParser(EventParser.Mode.BYTE);
+        testDataDir = Files.createTempDirectory("soclog-parser-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (testDataDir != null && Files.exists(testDataDir)) {
+            Files.walk(testDataDir)
+                .sorted((a, b) -> -a.compareTo(b))
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        // Ignore
+                    }
+                });
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = testDataDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void assertSameResult(Path file) throws IOException {
+        ParseResult expected = lineParser.parse(file);
+        ParseResult actual = byteParser.parse(file);
+        assertEquals(expected.getEvents(), actual.getEvents());
+        assertEquals(expected.getErrors(), actual.getErrors());
+    }
+
+    // Byte mode must match line mode exactly
+
+    @Test
+    public void testByteMode_MatchesLineModeOnDataFiles() throws IOException {
+        Path dataDir = Paths.get("data");
+        if (!Files.isDirectory(dataDir)) {
+            return; // Skip if fixtures are not available
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataDir, "*.csv")) {
+            for (Path file : files) {
+                assertSameResult(file);
+            }
+        }
+    }
+
+    @Test
+    public void testByteMode_LineEndingsAndBlankLines() throws IOException {
+        String record = "read,2024-01-01T00:00:00Z,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/file.txt;fd=5;permissions=644";
+        Path file = write("endings.csv", record + "\r\n\r\n  \t\n" + record + "\r" + record);
+
+        ParseResult result = byteParser.parse(file);
+        assertEquals(3, result.getEvents().size());
+        assertSameResult(file);
+    }
+
+    @Test
+    public void testByteMode_MalformedFields() throws IOException {
+        StringBuilder content = new StringBuilder();
+        content.append("READ , 2024-01-01T00:00:00Z ,mode=r, name=test ; pid=123;path=/bin/test;privilege=user ,path=/tmp/a;fd=5;permissions=644\n");
+        content.append("read,2024-01-01T00:00:01Z,mode=r,name=test;pid123;path=/bin/test;privilege=user,path=/tmp/a;fd=5;permissions=644\n");
+        content.append("read,2024-01-01T00:00:02Z,mode=r,name=test;pid=1;path=/bin/test;privilege=user;=x,path=/tmp/a;fd=5;permissions=644\n");
+        content.append("read,2024-01-01T00:00:03Z,mode=r,name=test;pid=-4;path=/bin/test;privilege=user,path=/tmp/a;fd=5;permissions=644\n");
+        content.append("sendto,2024-01-01T00:00:04Z,p,name=test;pid=4;path=/bin/test;privilege=root,ip=10.0.0.1;port=70000;protocol=udp\n");
+        content.append("fork,2024-01-01T00:00:05Z,s,name=test;pid=4;path=/bin/test;privilege=root,name=child;pid=5;path=/bin/c;privilege=admin\n");
+        content.append("write,2024-01-01T00:00:06Z,mode=w,name=test;pid=4;path=/bin/test;privilege=root,\n");
+        content.append("close,2024-01-01T00:00:07Z,only,four\n");
+        content.append("open,2024-01-01T00:00:00Z,mode=r,name=test;pid=4;path=/bin/test;privilege=root,path=/tmp/a;fd=5;permissions=644\n");
+        Path file = write("malformed.csv", content.toString());
+
+        ParseResult result = byteParser.parse(file);
+        assertEquals(1, result.getEvents().size());
+        assertEquals(8, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Line 2: Invalid subject: Malformed key=value pair"));
+        assertTrue(result.getErrors().get(7).contains("before previous timestamp"));
+        assertSameResult(file);
+    }
+
+    @Test
+    public void testByteMode_RecordLongerThanReadBuffer() throws IOException {
+        StringBuilder flags = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            flags.append('f');
+        }
+        Path file = write("long.csv", "read,2024-01-01T00:00:00Z," + flags
+            + ",name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/file.txt;fd=5;permissions=644\n");
+
+        ParseResult result = byteParser.parse(file);
+        assertEquals(1, result.getEvents().size());
+        assertEquals(100_000, result.getEvents().get(0).getFlags().length());
+    }
+
+    @Test
+    public void testParse_SinkFailurePropagatesInBothModes() throws IOException {
+        Path file = write("sink.csv",
+            "read,2024-01-01T00:00:00Z,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/a;fd=5;permissions=644\n"
+            + "read,2024-01-01T00:00:01Z,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/b;fd=5;permissions=644\n");
+        for (EventParser parser : new EventParser[] {lineParser, byteParser}) {
+            List<Rejection> rejections = new ArrayList<>();
+            try {
+                parser.parse(file, event -> {
+                    throw new IllegalStateException("sink closed");
+                }, rejections::add);
+                fail("Expected the sink failure in " + parser.getMode() + " mode");
+            } catch (IllegalStateException e) {
+                assertEquals("sink closed", e.getMessage());
+            }
+            assertTrue(rejections.isEmpty());
+        }
+    }
+
+    // Entity cache
+
+    @Test
+    public void testEntityCache_SharesRepeatedEntities() throws IOException {
+        String record = "read,2024-01-01T00:00:00Z,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/file.txt;fd=5;permissions=644\n";
+        Path file = write("repeated.csv", record + record + record);
+
+        assertNull(lineParser.getCache());
+        for (EventParser.Mode mode : EventParser.Mode.values()) {
+            ParseResult result = new EventParser(mode, new EntityCache()).parse(file);
+            assertEquals(3, result.getEvents().size());
+            assertSame(result.getEvents().get(0).getSubject(), result.getEvents().get(2).getSubject());
+            assertSame(result.getEvents().get(0).getObject(), result.getEvents().get(1).getObject());
+            assertSame(result.getEvents().get(0).getFlags(), result.getEvents().get(1).getFlags());
+        }
+    }
+
+    @Test
+    public void testEntityCache_EvictsLeastRecentlyUsed() {
+        EntityCache cache = new EntityCache(16); // one entry per segment
+        ProcessInfo first = new ProcessInfo("a", 1, "/bin/a", ProcessInfo.PRIV_USER);
+        assertSame(first, cache.intern(first));
+        assertSame(first, cache.intern(new ProcessInfo("a", 1, "/bin/a", ProcessInfo.PRIV_USER)));
+        for (int pid = 2; pid < 2000; pid++) {
+            cache.intern(new ProcessInfo("a", pid, "/bin/a", ProcessInfo.PRIV_USER));
+        }
+        assertTrue(cache.size() <= 16);
+        ProcessInfo again = new ProcessInfo("a", 1, "/bin/a", ProcessInfo.PRIV_USER);
+        assertSame(again, cache.intern(again));
+        assertEquals(1, cache.hits());
+    }
+}
@@ -0,0 +1,101 @@
+package test_soclog.ingest;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.LineScanner;
+
+public class LineScannerTest {
+
+    /**
+     * Non-blank lines as "number:text", the way BufferedReader.readLine numbers them.
+     */
+    private static List<String> reference(String text) throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(text));
+        long number = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            number++;
+            if (!line.trim().isEmpty()) {
+                lines.add(number + ":" + line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Feed text to one scanner in pieces of the given sizes, keeping unfinished lines like a reader would.
+     */
+    private static List<String> scan(String text, int[] pieces) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        LineScanner.Handler handler = (buf, start, end, lineNumber) ->
+            lines.add(lineNumber + ":" + new String(buf.array(), start, end - start, StandardCharsets.UTF_8));
+        LineScanner scanner = new LineScanner();
+        byte[] buffer = new byte[bytes.length];
+        int limit = 0;
+        int read = 0;
+        for (int piece : pieces) {
+            int length = Math.min(piece, bytes.length - read);
+            System.arraycopy(bytes, read, buffer, limit, length);
+            read += length;
+            limit += length;
+            int consumed = scanner.scan(ByteBuffer.wrap(buffer), 0, limit, read == bytes.length, handler);
+            System.arraycopy(buffer, consumed, buffer, 0, limit - consumed);
+            limit -= consumed;
+        }
+        return lines;
+    }
+
+    @Test
+    public void testScan_TerminatorsAndBlankLines() throws IOException {
+        String text = "a\nb\r\nc\rd\n\n  \r\ne";
+        assertEquals(Arrays.asList("1:a", "2:b", "3:c", "4:d", "7:e"), scan(text, new int[] {text.length()}));
+        assertEquals(reference(text), scan(text, new int[] {text.length()}));
+    }
+
+    @Test
+    public void testScan_UnfinishedLineIsKept() {
+        LineScanner scanner = new LineScanner();
+        List<String> lines = new ArrayList<>();
+        ByteBuffer buf = ByteBuffer.wrap("one\ntw".getBytes(StandardCharsets.UTF_8));
+        int consumed = scanner.scan(buf, 0, buf.limit(), false, (b, start, end, lineNumber) -> lines.add(lineNumber + ""));
+        assertEquals(4, consumed);
+        assertEquals(Arrays.asList("1"), lines);
+        assertEquals(1, scanner.getLineCount());
+    }
+
+    @Test
+    public void testScan_ReturnThenNewlineAcrossPieces() {
+        assertEquals(Arrays.asList("1:a", "2:b"), scan("a\r\nb\n", new int[] {2, 4}));
+        assertEquals(Arrays.asList("1:a", "3:b"), scan("a\r\rb", new int[] {2, 3}));
+    }
+
+    @Test
+    public void testScan_AnySplitMatchesReadLine() throws IOException {
+        Random random = new Random(11);
+        String[] parts = {"x", "yz", " ", "\n", "\r", "\r\n"};
+        for (int round = 0; round < 500; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                text.append(parts[random.nextInt(parts.length)]);
+            }
+            int[] pieces = new int[text.length() + 1];
+            for (int i = 0; i < pieces.length; i++) {
+                pieces[i] = 1 + random.nextInt(4);
+            }
+            pieces[pieces.length - 1] = text.length();
+            assertEquals(text.toString(), reference(text.toString()), scan(text.toString(), pieces));
+        }
+    }
+}
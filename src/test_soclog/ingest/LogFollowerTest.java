@@ -0,0 +1,146 @@
+package test_soclog.ingest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.hofstra.csc17.proj.soclog.ingest.EventSink;
+import edu.hofstra.csc17.proj.soclog.ingest.LogFollower;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
+
+public class LogFollowerTest {
+
+    private Path testDataDir;
+    private List<Event> events;
+    private List<String> errors;
+    private EventSink sink;
+
+    @Before
+    public void setUp() throws IOException {
+        testDataDir = Files.createTempDirectory("soclog-follow-test");
+        events = new ArrayList<>();
+        errors = new ArrayList<>();
+        sink = new EventSink() {
+            @Override
+            public void accept(Event event) {
+                events.add(event);
+            }
+
+            @Override
+            public void reject(String error) {
+                errors.add(error);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (testDataDir != null && Files.exists(testDataDir)) {
+            Files.walk(testDataDir)
+                .sorted((a, b) -> -a.compareTo(b))
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        // Ignore
+                    }
+                });
+        }
+    }
+
+    private static String record(int second) {
+        return String.format("read,2024-01-01T00:00:%02dZ,mode=r,name=test;pid=123;path=/bin/test;privilege=user,"
+            + "path=/tmp/file.txt;fd=5;permissions=644", second);
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void testPoll_ReadsOnlyCompleteAppendedLines() throws IOException {
+        Path file = testDataDir.resolve("live.csv");
+        append(file, record(0) + "\n" + record(1).substring(0, 20));
+
+        try (LogFollower follower = new LogFollower(Collections.singletonList(file), sink)) {
+            assertTrue(follower.poll());
+            assertEquals(1, events.size());
+            assertFalse(follower.poll());
+
+            append(file, record(1).substring(20) + "\r");
+            assertTrue(follower.poll());
+            assertEquals(2, events.size());
+
+            // The \n completes the earlier \r terminator and must not count as a line
+            append(file, "\n" + record(0) + "\n");
+            assertTrue(follower.poll());
+            assertEquals(2, events.size());
+            assertEquals(Arrays.asList("Line 3: Timestamp 2024-01-01T00:00:00Z is before previous timestamp 2024-01-01T00:00:01Z"),
+                errors);
+        }
+    }
+
+    @Test
+    public void testPoll_TruncatedFileIsReadFromStart() throws IOException {
+        Path file = testDataDir.resolve("rotating.csv");
+        append(file, record(5) + "\n" + record(6) + "\n");
+
+        try (LogFollower follower = new LogFollower(Collections.singletonList(file), sink)) {
+            follower.poll();
+            assertEquals(2, events.size());
+
+            // Earlier timestamps are fine in what is now a new file
+            Files.write(file, (record(1) + "\n").getBytes(StandardCharsets.UTF_8));
+            follower.poll();
+            assertEquals(3, events.size());
+            assertEquals(1, events.get(2).getTimestamp().getEpochSecond() % 60);
+            assertTrue(errors.isEmpty());
+        }
+    }
+
+    @Test
+    public void testPoll_DirectoryPicksUpNewFiles() throws IOException {
+        append(testDataDir.resolve("a.csv"), record(0) + "\n");
+
+        try (LogFollower follower = new LogFollower(Collections.singletonList(testDataDir), sink)) {
+            follower.poll();
+            assertEquals(1, events.size());
+
+            append(testDataDir.resolve("b.csv"), record(0) + "\n");
+            append(testDataDir.resolve("notes.txt"), "ignored\n");
+            follower.poll();
+            assertEquals(2, events.size());
+            assertEquals(2, follower.getFiles().size());
+        }
+    }
+
+    @Test
+    public void testPoll_MissingFileIsWaitedFor() throws IOException {
+        Path file = testDataDir.resolve("later.csv");
+
+        try (LogFollower follower = new LogFollower(Collections.singletonList(file), sink)) {
+            assertFalse(follower.poll());
+            append(file, record(0) + "\n");
+            assertTrue(follower.poll());
+            assertEquals(1, events.size());
+            assertTrue(errors.isEmpty());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_NoTargets() throws IOException {
+        new LogFollower(new ArrayList<>(), sink);
+    }
+}
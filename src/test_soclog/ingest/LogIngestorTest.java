@@ -11,10 +11,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
 
+import edu.hofstra.csc17.proj.soclog.ingest.EventSink;
 import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor;
 import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor.IngestionResult;
 import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.MappedChunkParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+import edu.hofstra.csc17.proj.soclog.model.event.Event;
 
 public class LogIngestorTest {
 
@@ -280,4 +289,147 @@ public class LogIngestorTest {
         // Should not throw exception
         result.datasetSummary();
     }
-}
\ No newline at end of file
+
+    // Chunked ingestion tests
+
+    @Test
+    public void testIngest_MappedChunksMatchSequential() throws IOException {
+        Path testFile = testDataDir.resolve("chunked.csv");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            int second = (i % 7 == 3) ? 0 : i; // periodic out-of-order records
+            content.append(String.format("read,2024-01-01T00:%02d:%02dZ,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/f%d;fd=5;permissions=644", second / 60, second % 60, i));
+            content.append(i % 2 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                content.append("bogus,line\n\n");
+            }
+        }
+        Files.write(testFile, content.toString().getBytes());
+
+        IngestionResult sequential = ingestor.ingest(Arrays.asList(testFile));
+        try (MappedChunkParser chunkParser = new MappedChunkParser(4, 512)) {
+            IngestionResult parallel = new LogIngestor(parser, chunkParser).ingest(Arrays.asList(testFile));
+
+            assertEquals(sequential.getEvents(), parallel.getEvents());
+            assertEquals(sequential.getErrors(), parallel.getErrors());
+            assertTrue(parallel.getErrors().size() > 0);
+        }
+    }
+
+    @Test
+    public void testIngest_MappedChunksBoundedByWorkers() throws IOException {
+        // Every record is longer than a chunk, so chunk k holds exactly line k
+        Path testFile = testDataDir.resolve("window.csv");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append(String.format("read,2024-01-01T00:%02d:%02dZ,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/f%d;fd=5;permissions=644\n", i / 60, i % 60, i));
+        }
+        Files.write(testFile, content.toString().getBytes());
+
+        int workers = 3;
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(workers);
+        try {
+            MappedChunkParser chunkParser = new MappedChunkParser(workers, 64, null, null, pool);
+            for (int run = 0; run < 2; run++) {
+                long submittedBefore = pool.getTaskCount();
+                List<Event> events = new ArrayList<>();
+                chunkParser.parse(testFile, event -> {
+                    // Chunk k is being stitched, so at most workers - 1 chunks after it were started
+                    assertTrue(pool.getTaskCount() - submittedBefore <= events.size() + workers);
+                    events.add(event);
+                }, rejection -> fail(rejection.toString()));
+                assertEquals(100, events.size());
+                assertEquals(100, pool.getTaskCount() - submittedBefore);
+            }
+            assertFalse(pool.isShutdown());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIngest_ParallelFilesMergedInInputOrder() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int f = 0; f < 6; f++) {
+            Path file = testDataDir.resolve("parallel" + f + ".csv");
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                content.append(String.format("write,2024-01-01T00:00:%02dZ,mode=w,name=p%d;pid=%d;path=/bin/p;privilege=user,path=/tmp/f%d;fd=5;permissions=644\n", i, f, 100 + f, i));
+                if (i % 10 == 0) {
+                    content.append("bogus,2024-01-01T00:00:00Z,mode=w,x,y\n");
+                }
+            }
+            Files.write(file, content.toString().getBytes());
+            files.add(file);
+        }
+        files.add(2, testDataDir.resolve("missing.csv"));
+
+        IngestionResult sequential = ingestor.ingest(files);
+        ExecutorService pool = LogIngestor.newWorkerPool(3, true);
+        try {
+            LogIngestor parallel = new LogIngestor(parser, null, pool, 3, 6);
+            IngestionResult result = parallel.ingest(files);
+
+            assertEquals(sequential.getEvents(), result.getEvents());
+            assertEquals(sequential.getErrors(), result.getErrors());
+            assertEquals(240, result.getEvents().size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testIngest_ParallelWorkerErrorReachesCaller() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int f = 0; f < 3; f++) {
+            Path file = testDataDir.resolve("error" + f + ".csv");
+            Files.write(file, "read,2024-01-01T00:00:00Z,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/a;fd=5;permissions=644\n".getBytes());
+            files.add(file);
+        }
+        EventParser failing = new EventParser() {
+            @Override
+            public void parse(Path path, Consumer<Event> events, Consumer<Rejection> errors) {
+                throw new AssertionError("worker failed on " + path.getFileName());
+            }
+        };
+        ExecutorService pool = LogIngestor.newWorkerPool(2, false);
+        try {
+            new LogIngestor(failing, null, pool, 2, 10).ingest(files);
+            fail("Expected the worker's error");
+        } catch (AssertionError e) {
+            assertEquals("worker failed on error0.csv", e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Streaming sink tests
+
+    @Test
+    public void testIngest_StreamingSinkSeesRecordsInOrder() throws IOException {
+        Path file1 = testDataDir.resolve("stream1.csv");
+        Path file2 = testDataDir.resolve("stream2.csv");
+        Files.write(file1, ("read,2024-01-01T00:00:00Z,mode=r,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/a;fd=5;permissions=644\n"
+            + "bogus,2024-01-01T00:00:01Z,mode=r,x,y\n").getBytes());
+        Files.write(file2, "write,2024-01-01T00:00:02Z,mode=w,name=test;pid=123;path=/bin/test;privilege=user,path=/tmp/b;fd=5;permissions=644".getBytes());
+
+        List<String> seen = new ArrayList<>();
+        ingestor.ingest(Arrays.asList(file1, testDataDir.resolve("missing.csv"), file2), new EventSink() {
+            @Override
+            public void accept(Event event) {
+                seen.add("event:" + event.getType());
+            }
+
+            @Override
+            public void reject(String error) {
+                seen.add("error:" + error);
+            }
+        });
+
+        assertEquals(4, seen.size());
+        assertEquals("event:read", seen.get(0));
+        assertTrue(seen.get(1).startsWith("error:Line 2: Invalid event type"));
+        assertTrue(seen.get(2).startsWith("error:Missing file"));
+        assertEquals("event:write", seen.get(3));
+    }
+}
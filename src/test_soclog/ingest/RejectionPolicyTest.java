@@ -0,0 +1,115 @@
+package test_soclog.ingest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor;
+import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor.IngestionResult;
+import edu.hofstra.csc17.proj.soclog.ingest.RejectionPolicy;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.RejectReason;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+
+public class RejectionPolicyTest {
+
+    private static final String PROCESS = "name=test;pid=123;path=/bin/test;privilege=user";
+    private static final String FILE = "path=/tmp/file.txt;fd=5;permissions=644";
+
+    private LogIngestor ingestor;
+    private Path testDataDir;
+    private List<Path> files;
+
+    @Before
+    public void setUp() throws IOException {
+        ingestor = new LogIngestor(new EventParser());
+        testDataDir = Files.createTempDirectory("soclog-policy-test");
+
+        // 100 bad event types interleaved with 50 bad timestamps and 50 valid records
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String time = String.format("2024-01-01T00:%02d:%02dZ", i / 60, i % 60);
+            lines.add("bogus" + i + "," + time + ",mode=r," + PROCESS + "," + FILE);
+            lines.add("read,not-a-time-" + i + ",mode=r," + PROCESS + "," + FILE);
+            lines.add("bogus" + (i + 50) + "," + time + ",mode=r," + PROCESS + "," + FILE);
+            lines.add("read," + time + ",mode=r," + PROCESS + "," + FILE);
+        }
+        Path file = testDataDir.resolve("dirty.csv");
+        Files.write(file, lines);
+        files = Collections.singletonList(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(testDataDir)) {
+            paths.sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testKeepAll_SameAsDefault() throws IOException {
+        IngestionResult all = ingestor.ingest(files, RejectionPolicy.keepAll());
+        assertEquals(ingestor.ingest(files).getErrors(), all.getErrors());
+        assertEquals(150, all.getErrors().size());
+        assertEquals(150, all.getRejectionCount());
+    }
+
+    @Test
+    public void testFirstPerReason_KeepsFirstInInputOrder() throws IOException {
+        IngestionResult result = ingestor.ingest(files, RejectionPolicy.firstPerReason(3));
+
+        assertEquals(150, result.getRejectionCount());
+        assertEquals(Long.valueOf(100), result.getRejectionCounts().get(RejectReason.INVALID_EVENT_TYPE));
+        assertEquals(Long.valueOf(50), result.getRejectionCounts().get(RejectReason.MALFORMED_TIMESTAMP));
+        assertEquals(50, result.getEvents().size());
+
+        long[] lines = result.getRejections().stream().mapToLong(Rejection::getLine).toArray();
+        assertArrayEquals(new long[] {1, 2, 3, 5, 6, 10}, lines);
+    }
+
+    @Test
+    public void testReservoirPerReason_BoundedAndRepeatable() throws IOException {
+        IngestionResult first = ingestor.ingest(files, RejectionPolicy.reservoirPerReason(5, 7));
+        IngestionResult second = ingestor.ingest(files, RejectionPolicy.reservoirPerReason(5, 7));
+
+        assertEquals(10, first.getRejections().size());
+        assertEquals(150, first.getRejectionCount());
+        assertEquals(first.getErrors(), second.getErrors());
+
+        // Kept in input order, and not simply the first five of each reason
+        long previous = 0;
+        boolean beyondFirst = false;
+        for (Rejection rejection : first.getRejections()) {
+            assertTrue(rejection.getLine() > previous);
+            previous = rejection.getLine();
+            beyondFirst |= rejection.getLine() > 20;
+        }
+        assertTrue(beyondFirst);
+    }
+
+    @Test
+    public void testSpillTo_WritesEveryRejection() throws IOException {
+        Path spill = testDataDir.resolve("rejections.tsv");
+        IngestionResult result = ingestor.ingest(files, RejectionPolicy.firstPerReason(0).spillTo(spill));
+
+        assertTrue(result.getRejections().isEmpty());
+        List<String> lines = Files.readAllLines(spill);
+        assertEquals(150, lines.size());
+        assertEquals("INVALID_EVENT_TYPE\t" + files.get(0) + "\t1\tLine 1: Invalid event type 'bogus0'", lines.get(0));
+        assertTrue(lines.get(1).startsWith("MALFORMED_TIMESTAMP\t" + files.get(0) + "\t2\tLine 2: "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFirstPerReason_NegativeSamples() {
+        RejectionPolicy.firstPerReason(-1);
+    }
+}
@@ -0,0 +1,131 @@
+package test_soclog.ingest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor;
+import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor.IngestionResult;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.RejectReason;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.Rejection;
+
+public class RejectionTest {
+
+    private static final String PROCESS = "name=test;pid=123;path=/bin/test;privilege=user";
+    private static final String FILE = "path=/tmp/file.txt;fd=5;permissions=644";
+
+    private Path testDataDir;
+
+    @Before
+    public void setUp() throws IOException {
+        testDataDir = Files.createTempDirectory("soclog-rejection-test");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(testDataDir)) {
+            paths.sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path file = testDataDir.resolve(name);
+        Files.write(file, Arrays.asList(lines));
+        return file;
+    }
+
+    private Path malformedFile() throws IOException {
+        return write("malformed.csv",
+            "read,2024-01-01T00:00:00Z,mode=r",
+            "bogus,2024-01-01T00:00:01Z,mode=r," + PROCESS + "," + FILE,
+            "read,not-a-time,mode=r," + PROCESS + "," + FILE,
+            "read,2024-01-01T00:00:03Z,mode=r,name=test;pid=-1;path=/bin/test;privilege=user," + FILE,
+            "read,2024-01-01T00:00:04Z,mode=r,name=test;pid=1;path=/bin/test;privilege=admin," + FILE,
+            "read,2024-01-01T00:00:05Z,mode=r," + PROCESS + ",path=/tmp/file.txt;fd=5;permissions=999",
+            "sendto,2024-01-01T00:00:06Z,p=TCP," + PROCESS + ",ip=999.1.1.1;port=80;protocol=TCP",
+            "sendto,2024-01-01T00:00:07Z,p=TCP," + PROCESS + ",ip=10.0.0.1;port=70000;protocol=TCP",
+            "read,2024-01-01T00:00:08Z,mode=r," + PROCESS + "," + FILE,
+            "read,2024-01-01T00:00:02Z,mode=r," + PROCESS + "," + FILE);
+    }
+
+    private static final List<RejectReason> EXPECTED = Arrays.asList(
+        RejectReason.INVALID_STRUCTURE,
+        RejectReason.INVALID_EVENT_TYPE,
+        RejectReason.MALFORMED_TIMESTAMP,
+        RejectReason.INVALID_PID,
+        RejectReason.INVALID_PRIVILEGE,
+        RejectReason.INVALID_PERMISSIONS,
+        RejectReason.INVALID_IP,
+        RejectReason.INVALID_PORT,
+        RejectReason.OUT_OF_ORDER_TIMESTAMP);
+
+    @Test
+    public void testReasons_SameInBothModes() throws IOException {
+        Path file = malformedFile();
+        EventParser.ParseResult line = new EventParser(EventParser.Mode.LINE).parse(file);
+        EventParser.ParseResult bytes = new EventParser(EventParser.Mode.BYTE).parse(file);
+
+        List<RejectReason> lineReasons = new ArrayList<>();
+        for (Rejection rejection : line.getRejections()) {
+            lineReasons.add(rejection.getReason());
+            assertEquals(file, rejection.getFile());
+            assertTrue(rejection.getMessage().startsWith("Line " + rejection.getLine() + ": "));
+        }
+        assertEquals(EXPECTED, lineReasons);
+        assertEquals(line.getErrors(), bytes.getErrors());
+        assertEquals(1, line.getEvents().size());
+    }
+
+    @Test
+    public void testRejection_PositionAndMessage() {
+        Rejection detail = new Rejection(RejectReason.INVALID_PORT, "Invalid port: %d", 70000);
+        assertEquals(0, detail.getLine());
+        assertEquals("Invalid port: 70000", detail.getMessage());
+
+        Path file = testDataDir.resolve("a.csv");
+        Rejection placed = detail.at(file, 12);
+        assertEquals(RejectReason.INVALID_PORT, placed.getReason());
+        assertEquals(file, placed.getFile());
+        assertEquals("Line 12: Invalid port: 70000", placed.getMessage());
+        assertEquals(placed.getMessage(), placed.toString());
+    }
+
+    @Test
+    public void testIngestionResult_CountsPerReason() throws IOException {
+        Path missing = testDataDir.resolve("missing.csv");
+        IngestionResult result = new LogIngestor(new EventParser()).ingest(Arrays.asList(malformedFile(), missing));
+
+        Map<RejectReason, Long> counts = result.getRejectionCounts();
+        assertEquals(EXPECTED.size() + 1, counts.size());
+        assertEquals(Long.valueOf(1), counts.get(RejectReason.MISSING_FILE));
+        assertFalse(counts.containsKey(RejectReason.OTHER));
+        assertEquals(result.getRejections().size(), result.getErrors().size());
+        assertEquals("Missing file: " + missing, result.getErrors().get(result.getErrors().size() - 1));
+    }
+
+    @Test
+    public void testIngestionResult_ClassifiesTextErrors() {
+        IngestionResult result = new IngestionResult(Collections.emptyList(), Arrays.asList(
+            "Line 1: Invalid event type: bogus",
+            "Line 2: Malformed timestamp: x",
+            "Line 3: Malformed timestamp: y",
+            "something else"));
+        Map<RejectReason, Long> counts = result.getRejectionCounts();
+        assertEquals(Long.valueOf(1), counts.get(RejectReason.INVALID_EVENT_TYPE));
+        assertEquals(Long.valueOf(2), counts.get(RejectReason.MALFORMED_TIMESTAMP));
+        assertEquals(Long.valueOf(1), counts.get(RejectReason.OTHER));
+        assertEquals("Line 2: Malformed timestamp: x", result.getErrors().get(1));
+    }
+}
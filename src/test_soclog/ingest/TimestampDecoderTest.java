@@ -0,0 +1,95 @@
+package test_soclog.ingest;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.ingest.parser.TimestampDecoder;
+
+public class TimestampDecoderTest {
+
+    private TimestampDecoder decoder;
+
+    @Before
+    public void setUp() {
+        decoder = new TimestampDecoder();
+    }
+
+    private static Instant reference(String text) {
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Instant parseBytes(String text) {
+        byte[] bytes = ("xx," + text + ",yy").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int start = 3;
+        int end = bytes.length - 3;
+        Instant instant = decoder.parse(buf, start, end);
+        assertEquals(0, buf.position());
+        return instant;
+    }
+
+    @Test
+    public void testParse_FastPathShape() {
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), decoder.parse("2024-01-01T00:00:00Z"));
+        assertEquals(Instant.parse("2024-02-29T23:59:59Z"), decoder.parse("2024-02-29T23:59:59Z"));
+        assertEquals(Instant.parse("1969-12-31T23:59:59Z"), parseBytes("1969-12-31T23:59:59Z"));
+    }
+
+    @Test
+    public void testParse_OtherIsoVariantsFallBack() {
+        for (String text : new String[] {"2024-01-01T00:00:00.123456789Z", "2024-01-01T00:00:00+02:00",
+                "2024-01-01T00:00Z", "+12024-01-01T00:00:00Z", "2016-12-31T23:59:60Z",
+                "2024-01-01T24:00:00Z", "2024-01-01T00:00:00z"}) {
+            assertEquals(text, reference(text), decoder.parse(text));
+            assertEquals(text, reference(text), parseBytes(text));
+        }
+    }
+
+    @Test
+    public void testParse_MalformedGivesNull() {
+        for (String text : new String[] {"invalid-timestamp", "", "2024-13-01T00:00:00Z", "2023-02-29T00:00:00Z",
+                "2024-01-01 00:00:00Z", "2024-01-0aT00:00:00Z",
+                "2024-01-01T00:00:00é"}) {
+            assertNull(text, decoder.parse(text));
+            assertNull(text, parseBytes(text));
+        }
+    }
+
+    @Test
+    public void testParse_SecondCacheReturnsSameInstant() {
+        Instant first = decoder.parse("2024-01-01T10:00:00Z");
+        assertSame(first, decoder.parse("2024-01-01T10:00:00Z"));
+        assertSame(first, parseBytes("2024-01-01T10:00:00Z"));
+        assertNull(decoder.parse("2024-01-01T10:00:00X"));
+        assertEquals(Instant.parse("2024-01-01T10:00:01Z"), decoder.parse("2024-01-01T10:00:01Z"));
+        assertEquals(Instant.parse("2024-01-02T10:00:01Z"), decoder.parse("2024-01-02T10:00:01Z"));
+    }
+
+    @Test
+    public void testParse_MatchesInstantParse() {
+        Random random = new Random(25);
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 20_000; i++) {
+            String text = base.plusSeconds(random.nextInt(400 * 86_400) - 200 * 86_400).toString();
+            if (random.nextInt(4) == 0) {
+                // Corrupt one character
+                char[] chars = text.toCharArray();
+                chars[random.nextInt(chars.length)] = (char) ('+' + random.nextInt(80));
+                text = new String(chars);
+            }
+            Instant expected = reference(text);
+            assertEquals(text, expected, random.nextBoolean() ? decoder.parse(text) : parseBytes(text));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package test_soclog.metrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.management.ObjectName;
+
+import edu.hofstra.csc17.proj.soclog.ingest.LogIngestor;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EntityCache;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.EventParser;
+import edu.hofstra.csc17.proj.soclog.ingest.parser.MappedChunkParser;
+import edu.hofstra.csc17.proj.soclog.metrics.IngestMetrics;
+import edu.hofstra.csc17.proj.soclog.metrics.LatencyHistogram;
+import edu.hofstra.csc17.proj.soclog.metrics.MetricsReporter;
+
+public class IngestMetricsTest {
+
+    private static final String VALID = "read,2024-01-01T00:00:0%dZ,mode=r,"
+        + "name=bash;pid=100;path=/bin/bash;privilege=user,path=/tmp/a.txt;fd=3;permissions=644";
+
+    private Path directory;
+    private Path file;
+    private IngestMetrics metrics;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("soclog-metrics-test");
+        file = directory.resolve("log.csv");
+        Files.write(file, Arrays.asList(
+            String.format(VALID, 1),
+            "bogus,2024-01-01T00:00:02Z,x,y,z",
+            "",
+            String.format(VALID, 3),
+            "read,not-a-time,mode=r,name=bash;pid=100;path=/bin/bash;privilege=user,path=/a;fd=3;permissions=644",
+            String.format(VALID, 2)), StandardCharsets.UTF_8);
+        metrics = new IngestMetrics();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        metrics.unregister();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testHistogram_PercentilesWithinBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileNanos(0.99));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(1000 * 99 + 1_000_000, histogram.getTotalNanos());
+        long p50 = histogram.percentileNanos(0.5);
+        assertTrue(p50 >= 1000 && p50 < 2048);
+        assertEquals(1_000_000, histogram.percentileNanos(1.0));
+    }
+
+    @Test
+    public void testParse_CountsAndStagesInBothModes() throws IOException {
+        for (EventParser.Mode mode : EventParser.Mode.values()) {
+            metrics.reset();
+            EventParser.ParseResult result = new EventParser(mode, new EntityCache(), metrics).parse(file);
+
+            assertEquals(mode.toString(), 2, result.getEvents().size());
+            assertEquals(3, result.getErrors().size());
+            assertEquals(1, metrics.getFiles());
+            assertEquals(5, metrics.getRecords());
+            assertEquals(2, metrics.getEvents());
+            assertEquals(3, metrics.getRejections());
+            assertEquals(Files.size(file), metrics.getBytes());
+            assertEquals(5, metrics.getStage(IngestMetrics.Stage.TOKENIZE).getCount());
+            assertEquals(3, metrics.getStage(IngestMetrics.Stage.REJECT).getCount());
+            assertEquals(2, metrics.getStage(IngestMetrics.Stage.ENTITY).getCount());
+            assertTrue(metrics.getStage(IngestMetrics.Stage.READ).getCount() > 0);
+
+            List<IngestMetrics.FileStats> files = metrics.getFileStats();
+            assertEquals(1, files.size());
+            assertEquals(file, files.get(0).getFile());
+            assertEquals(5, files.get(0).getRecords());
+            assertEquals(3, files.get(0).getRejections());
+        }
+    }
+
+    @Test
+    public void testChunkParser_SameCountsAsSequential() throws IOException {
+        EventParser.ParseResult result;
+        try (MappedChunkParser chunkParser = new MappedChunkParser(3, 64, new EntityCache(), metrics)) {
+            result = chunkParser.parse(file);
+        }
+
+        assertEquals(result.getEvents().size(), metrics.getEvents());
+        assertEquals(result.getErrors().size(), metrics.getRejections());
+        assertEquals(5, metrics.getStage(IngestMetrics.Stage.TOKENIZE).getCount());
+        assertTrue(metrics.getRecordsPerSecond() > 0);
+    }
+
+    @Test
+    public void testIngestor_CountsMissingFiles() throws IOException {
+        LogIngestor ingestor = new LogIngestor(new EventParser(EventParser.Mode.LINE, null, metrics));
+        ingestor.ingest(Arrays.asList(file, directory.resolve("missing.csv"), file));
+
+        assertEquals(2, metrics.getFiles());
+        assertEquals(1, metrics.getMissingFiles());
+        assertEquals(10, metrics.getFileStats().get(0).getRecords());
+        assertTrue(metrics.format().contains("Ingest: 2 file(s), 1 missing, 10 record(s)"));
+    }
+
+    @Test
+    public void testRegister_VisibleOverJmx() throws Exception {
+        metrics.register("test");
+        new EventParser(EventParser.Mode.BYTE, null, metrics).parse(file);
+
+        ObjectName name = new ObjectName("edu.hofstra.csc17.proj.soclog:type=Ingest,name=test");
+        assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Events"));
+        ObjectName stage = new ObjectName("edu.hofstra.csc17.proj.soclog:type=IngestStage,name=test,stage=tokenize");
+        assertEquals(5L, ManagementFactory.getPlatformMBeanServer().getAttribute(stage, "Count"));
+
+        try {
+            new IngestMetrics().register("test");
+            fail("Expected a duplicate name to be refused");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("test"));
+        }
+        metrics.unregister();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    public void testReporter_PrintsPeriodically() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, true, "UTF-8");
+        MetricsReporter reporter = new MetricsReporter(metrics::format, out, 10);
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (buffer.size() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            reporter.close();
+        }
+        assertTrue(buffer.toString("UTF-8").startsWith("Ingest: 0 file(s)"));
+    }
+}
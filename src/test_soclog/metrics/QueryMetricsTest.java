@@ -0,0 +1,152 @@
+package test_soclog.metrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.analysis.ColumnarEventStore;
+import edu.hofstra.csc17.proj.soclog.metrics.QueryMetrics;
+import edu.hofstra.csc17.proj.soclog.metrics.QueryStats;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+import edu.hofstra.csc17.proj.soclog.rules.RuleSet;
+
+public class QueryMetricsTest {
+
+    private List<Event> events;
+    private Instant baseTime;
+    private List<String> slowLog;
+    private QueryMetrics metrics;
+    private AnalyticsEngine engine;
+
+    @Before
+    public void setUp() {
+        baseTime = Instant.parse("2024-01-01T00:00:00Z");
+        ProcessInfo shell = new ProcessInfo("shell", 1001, "/bin/bash", ProcessInfo.PRIV_USER);
+        ProcessInfo daemon = new ProcessInfo("daemon", 1002, "/usr/sbin/daemon", ProcessInfo.PRIV_ROOT);
+        FileInfo passwd = new FileInfo("/etc/passwd", 3, "644");
+        events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(new ReadEvent(baseTime.plusSeconds(i), i % 2 == 0 ? shell : daemon, passwd, "mode=r"));
+        }
+        events.add(new SendToEvent(baseTime.plusSeconds(3), shell, new NetworkInfo("10.0.0.1", 53, "UDP"), "p"));
+        events.add(new SendToEvent(baseTime.plusSeconds(4), shell, new NetworkInfo("10.0.0.2", 53, "UDP"), "p"));
+        events.add(new ForkEvent(baseTime.plusSeconds(5), shell, daemon, "status=success"));
+
+        slowLog = new ArrayList<>();
+        metrics = new QueryMetrics(0, slowLog::add);
+        engine = new AnalyticsEngine(new ColumnarEventStore(), metrics);
+        engine.appendAll(events);
+    }
+
+    @After
+    public void tearDown() {
+        metrics.unregister();
+    }
+
+    @Test
+    public void testScanned_Precomputed() {
+        engine.uniqueEvents();
+        engine.uniqueEvents();
+        engine.countByEventType();
+
+        // Both are answered from tallies kept up to date by append
+        QueryStats unique = metrics.get("uniqueEvents");
+        assertEquals(2, unique.getCalls());
+        assertEquals(0, unique.getRowsScanned());
+        assertEquals(26, unique.getRowsMatched());
+        assertEquals(13, unique.getLastGroups());
+        assertEquals(0, metrics.get("countByEventType").getRowsScanned());
+        assertEquals(3, metrics.get("countByEventType").getLastGroups());
+    }
+
+    @Test
+    public void testWindowQueries_CountRowsInWindow() {
+        Instant start = baseTime.plusSeconds(2);
+        Instant end = baseTime.plusSeconds(5);
+        engine.topProcessesByWindow(start, end, 1);
+        engine.findNetworkEvents("10.0.0.0/24", 53, start, end);
+        engine.topTalkers("10.0.0.0/8", null, null, 1);
+
+        QueryStats processes = metrics.get("topProcessesByWindow");
+        assertEquals(7, processes.getRowsScanned());
+        assertEquals(7, processes.getRowsMatched());
+        assertEquals(2, processes.getLastGroups());
+
+        QueryStats network = metrics.get("findNetworkEvents");
+        assertEquals(7, network.getRowsScanned());
+        assertEquals(2, network.getRowsMatched());
+        assertEquals(2, network.getLastGroups());
+
+        QueryStats talkers = metrics.get("topTalkers");
+        assertEquals(13, talkers.getRowsScanned());
+        assertEquals(2, talkers.getRowsMatched());
+        assertEquals(2, talkers.getLastGroups());
+    }
+
+    @Test
+    public void testResults_SameAsUninstrumented() {
+        AnalyticsEngine plain = new AnalyticsEngine(events);
+        Instant start = baseTime.plusSeconds(1);
+        Instant end = baseTime.plusSeconds(8);
+
+        assertEquals(plain.topKFrequentEvents(start, end, 3), engine.topKFrequentEvents(start, end, 3));
+        assertEquals(plain.detectPrivilegeEscalation(null, null), engine.detectPrivilegeEscalation(null, null));
+        assertEquals(plain.findSensitiveFileAccess(Arrays.asList("/etc")),
+            engine.findSensitiveFileAccess(Arrays.asList("/etc")));
+        assertEquals(1, metrics.get("findSensitiveFileAccess").getLastGroups());
+        assertEquals(10, metrics.get("findSensitiveFileAccess").getRowsMatched());
+    }
+
+    @Test
+    public void testSlowLog_IncludesWindowAndCounts() {
+        engine.uniqueEvents(baseTime, baseTime.plusSeconds(1));
+        engine.detectPrivilegeEscalation(null, null);
+
+        assertEquals(2, slowLog.size());
+        assertTrue(slowLog.get(0), slowLog.get(0).startsWith(
+            "Slow query uniqueEvents.window [2024-01-01T00:00:00Z, 2024-01-01T00:00:01Z]: "));
+        assertTrue(slowLog.get(0).endsWith("2 row(s) scanned, 2 matched, 2 group(s)"));
+        assertTrue(slowLog.get(1).startsWith("Slow query detectPrivilegeEscalation [*, *]: "));
+        assertEquals(1, metrics.get("uniqueEvents.window").getSlowCalls());
+    }
+
+    @Test
+    public void testNoSlowLog_BelowThreshold() {
+        QueryMetrics quiet = new QueryMetrics(60_000, slowLog::add);
+        AnalyticsEngine instrumented = new AnalyticsEngine(new ColumnarEventStore(), quiet);
+        instrumented.appendAll(events);
+        instrumented.detectPrivilegeEscalationChains();
+
+        assertTrue(slowLog.isEmpty());
+        assertEquals(1, quiet.get("detectPrivilegeEscalationChains").getCalls());
+        assertTrue(quiet.format().contains("detectPrivilegeEscalationChains"));
+    }
+
+    @Test
+    public void testRegister_QueriesCalledLaterAreVisible() throws Exception {
+        engine.countByEventType();
+        metrics.register("test");
+        engine.countRuleMatches(RuleSet.parse(Arrays.asList("fork: type=fork")));
+
+        ObjectName early = new ObjectName("edu.hofstra.csc17.proj.soclog:type=Query,name=test,query=countByEventType");
+        ObjectName late = new ObjectName("edu.hofstra.csc17.proj.soclog:type=Query,name=test,query=countRuleMatches");
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(early, "Calls"));
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(late, "RowsMatched"));
+
+        metrics.unregister();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(late));
+    }
+}
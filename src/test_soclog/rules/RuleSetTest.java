@@ -0,0 +1,170 @@
+package test_soclog.rules;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+import edu.hofstra.csc17.proj.soclog.rules.Rule;
+import edu.hofstra.csc17.proj.soclog.rules.RuleSet;
+
+public class RuleSetTest {
+
+    private RuleSet rules;
+    private ProcessInfo user;
+    private ProcessInfo root;
+    private Instant time;
+
+    @Before
+    public void setUp() {
+        rules = RuleSet.parse(Arrays.asList(
+            "# watch list",
+            "shadow-read: type=read|open; file.path=/etc/shadow",
+            "etc-write:   type=write; file.path=/etc",
+            "",
+            "dns-out:     type=sendto; net.port=53; net.protocol=udp",
+            "user-to-root: type=fork; process.privilege=user; child.privilege=root",
+            "bash-anything: process.name=bash",
+            "tmp-or-var: type=write; file.path=/tmp|/tmp/x"));
+        user = new ProcessInfo("bash", 100, "/bin/bash", ProcessInfo.PRIV_USER);
+        root = new ProcessInfo("sudo", 101, "/usr/bin/sudo", ProcessInfo.PRIV_ROOT);
+        time = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    private List<String> ids(List<Rule> matched) {
+        List<String> ids = new ArrayList<>();
+        for (Rule rule : matched) {
+            ids.add(rule.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testMatch_FileNetworkAndProcessRules() {
+        FileInfo shadow = new FileInfo("/etc/shadow", 3, "640");
+        assertEquals(Arrays.asList("shadow-read"), ids(rules.match(new ReadEvent(time, root, shadow, "mode=r"))));
+        assertEquals(Arrays.asList("shadow-read", "bash-anything"), ids(rules.match(new OpenEvent(time, user, shadow, "mode=r"))));
+        assertEquals(Arrays.asList("etc-write"), ids(rules.match(new WriteEvent(time, root, new FileInfo("/etc/ssh/sshd_config", 3, "600"), "mode=w"))));
+        assertTrue(rules.match(new WriteEvent(time, root, new FileInfo("/etcetera", 3, "600"), "mode=w")).isEmpty());
+
+        assertEquals(Arrays.asList("dns-out"), ids(rules.match(new SendToEvent(time, root, new NetworkInfo("8.8.8.8", 53, "UDP"), "p"))));
+        assertTrue(rules.match(new SendToEvent(time, root, new NetworkInfo("8.8.8.8", 53, "TCP"), "p")).isEmpty());
+
+        assertEquals(Arrays.asList("user-to-root", "bash-anything"), ids(rules.match(new ForkEvent(time, user, root, "s"))));
+        assertTrue(rules.match(new ForkEvent(time, root, user, "s")).isEmpty());
+    }
+
+    @Test
+    public void testMatch_IpComparedAsAddress() {
+        RuleSet ipRules = RuleSet.parse(Arrays.asList(
+            "padded-rule: net.ip=010.000.000.001",
+            "plain-rule:  net.ip=192.168.1.5; net.ip=192.168.001.005|10.0.0.9"));
+        assertEquals(Arrays.asList("padded-rule"), ids(ipRules.match(new SendToEvent(time, root, new NetworkInfo("10.0.0.1", 80, "TCP"), "p"))));
+        assertEquals(Arrays.asList("plain-rule"), ids(ipRules.match(new SendToEvent(time, root, new NetworkInfo("192.168.01.5", 80, "TCP"), "p"))));
+        assertTrue(ipRules.match(new SendToEvent(time, root, new NetworkInfo("10.0.0.9", 80, "TCP"), "p")).isEmpty());
+    }
+
+    @Test
+    public void testMatch_RuleFoundThroughSeveralValuesIsReportedOnce() {
+        List<Rule> matched = rules.match(new WriteEvent(time, root, new FileInfo("/tmp/x/y", 3, "600"), "mode=w"));
+        assertEquals(Arrays.asList("tmp-or-var"), ids(matched));
+    }
+
+    @Test
+    public void testMatch_SameAsCheckingEveryRule() {
+        Random random = new Random(7);
+        String[] paths = {"/etc/shadow", "/etc", "/etc/passwd", "/tmp/x", "/tmp/x/y", "/var/log/a"};
+        ProcessInfo[] processes = {user, root};
+        for (int i = 0; i < 2000; i++) {
+            ProcessInfo subject = processes[random.nextInt(2)];
+            Event event;
+            switch (random.nextInt(4)) {
+                case 0:
+                    event = new ReadEvent(time, subject, new FileInfo(paths[random.nextInt(paths.length)], 3, "644"), "r");
+                    break;
+                case 1:
+                    event = new WriteEvent(time, subject, new FileInfo(paths[random.nextInt(paths.length)], 3, "644"), "w");
+                    break;
+                case 2:
+                    event = new SendToEvent(time, subject, new NetworkInfo("10.0.0.1", 50 + random.nextInt(5), "UDP"), "p");
+                    break;
+                default:
+                    event = new ForkEvent(time, subject, processes[random.nextInt(2)], "s");
+                    break;
+            }
+            List<Rule> expected = new ArrayList<>();
+            for (Rule rule : rules.getRules()) {
+                if (rule.matches(event.getType(), event.getSubject(), event.getObject())) {
+                    expected.add(rule);
+                }
+            }
+            assertEquals(event.toString(), expected, rules.match(event));
+        }
+    }
+
+    @Test
+    public void testParse_Errors() {
+        String[][] bad = {
+            {"no-colon type=read"},
+            {"r: type=read; file.owner=root"},
+            {"r: type=bogus"},
+            {"r: net.port=99999"},
+            {"r: process.privilege=admin"},
+            {"r:"},
+            {"r: type=read", "r: type=write"},
+            {"r: file.path"},
+            {"r: net.ip=10.0.0"},
+            {"r: file.path=/a|/b; file.path=/c"}
+        };
+        for (String[] lines : bad) {
+            try {
+                RuleSet.parse(Arrays.asList(lines));
+                fail("Expected failure for " + Arrays.toString(lines));
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Line " + lines.length + ": "));
+            }
+        }
+    }
+
+    @Test
+    public void testEngine_CountRuleMatches() {
+        FileInfo shadow = new FileInfo("/etc/shadow", 3, "640");
+        AnalyticsEngine engine = new AnalyticsEngine(Arrays.asList(
+            new ReadEvent(time, root, shadow, "mode=r"),
+            new ReadEvent(time.plusSeconds(1), root, shadow, "mode=r"),
+            new ForkEvent(time.plusSeconds(2), user, root, "s")));
+
+        Map<String, Long> counts = engine.countRuleMatches(rules);
+        assertEquals(Arrays.asList("shadow-read", "user-to-root", "bash-anything"), new ArrayList<>(counts.keySet()));
+        assertEquals(Long.valueOf(2), counts.get("shadow-read"));
+        assertEquals(Long.valueOf(1), counts.get("bash-anything"));
+    }
+
+    @Test
+    public void testEngine_CountRuleMatchesWithoutSubject() {
+        FileInfo shadow = new FileInfo("/etc/shadow", 3, "640");
+        AnalyticsEngine engine = new AnalyticsEngine(Arrays.asList(
+            new ReadEvent(time, null, shadow, "mode=r"),
+            new ReadEvent(time.plusSeconds(1), user, shadow, "mode=r")));
+
+        Map<String, Long> counts = engine.countRuleMatches(RuleSet.parse(Arrays.asList(
+            "sshd: process.name=sshd",
+            "root-proc: process.privilege=root; process.path=/usr",
+            "shadow: file.path=/etc/shadow",
+            "bash-read: process.name=bash; file.path=/etc")));
+        assertEquals(Arrays.asList("shadow", "bash-read"), new ArrayList<>(counts.keySet()));
+        assertEquals(Long.valueOf(2), counts.get("shadow"));
+        assertEquals(Long.valueOf(1), counts.get("bash-read"));
+    }
+}
@@ -0,0 +1,148 @@
+package test_soclog.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.NetworkInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+import edu.hofstra.csc17.proj.soclog.store.EventFileReader;
+import edu.hofstra.csc17.proj.soclog.store.EventFileWriter;
+
+public class EventFileTest {
+
+    private Path testDataDir;
+    private Path file;
+    private ProcessInfo user;
+    private ProcessInfo root;
+    private Instant time;
+
+    @Before
+    public void setUp() throws IOException {
+        testDataDir = Files.createTempDirectory("soclog-store-test");
+        file = testDataDir.resolve("test" + EventFileWriter.EXTENSION);
+        user = new ProcessInfo("bash", 100, "/bin/bash", ProcessInfo.PRIV_USER);
+        root = new ProcessInfo("sudo", 101, "/usr/bin/sudo", ProcessInfo.PRIV_ROOT);
+        time = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (testDataDir != null && Files.exists(testDataDir)) {
+            Files.walk(testDataDir)
+                .sorted((a, b) -> -a.compareTo(b))
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        // Ignore
+                    }
+                });
+        }
+    }
+
+    @Test
+    public void testRoundTrip_AllEventTypes() throws IOException {
+        FileInfo passwd = new FileInfo("/etc/passwd", 3, "644");
+        NetworkInfo dns = new NetworkInfo("8.8.8.8", 53, "udp");
+        ProcessInfo noPrivilege = new ProcessInfo("cron", 7, "/usr/sbin/cron", null);
+        List<Event> events = Arrays.asList(
+            new ReadEvent(time, user, passwd, "mode=r"),
+            new WriteEvent(time.plusNanos(123456789), root, passwd, ""),
+            new OpenEvent(time.minusSeconds(86400), user, passwd, null),
+            new CloseEvent(time, user, passwd, "mode=r"),
+            new ExecuteEvent(time.plusSeconds(5), noPrivilege, new FileInfo("/bin/ls", 0, "755"), "argv=ls"),
+            new SendToEvent(time.plusSeconds(6), user, dns, "payload=q"),
+            new ReceiveFromEvent(time.plusSeconds(6), user, new NetworkInfo("255.255.255.255", 0, "ICMP"), "p"),
+            new ForkEvent(Instant.EPOCH, user, root, "spawn"));
+
+        EventFileWriter.writeAll(file, events);
+        List<Event> loaded = EventFileReader.readAll(file);
+        assertEquals(events, loaded);
+
+        // Repeated entities come back as one shared instance
+        assertSame(loaded.get(0).getObject(), loaded.get(1).getObject());
+        assertSame(loaded.get(0).getSubject(), loaded.get(7).getSubject());
+    }
+
+    @Test
+    public void testRoundTrip_AddressKeepsLeadingZeros() throws IOException {
+        NetworkInfo padded = new NetworkInfo("010.000.000.001", 53, "UDP");
+        NetworkInfo plain = new NetworkInfo("10.0.0.1", 53, "UDP");
+        List<Event> events = Arrays.asList(
+            new SendToEvent(time, user, padded, "p"),
+            new SendToEvent(time, user, plain, "p"));
+
+        EventFileWriter.writeAll(file, events);
+        List<Event> loaded = EventFileReader.readAll(file);
+        assertEquals(events, loaded);
+        assertEquals("010.000.000.001", ((NetworkInfo) loaded.get(0).getObject()).getIpAddress());
+        assertEquals(new AnalyticsEngine(events).uniqueEvents(), new AnalyticsEngine(loaded).uniqueEvents());
+    }
+
+    @Test
+    public void testRoundTrip_EmptyFile() throws IOException {
+        EventFileWriter.writeAll(file, new ArrayList<>());
+        assertTrue(EventFileReader.readAll(file).isEmpty());
+    }
+
+    @Test
+    public void testLoadInto_SameAnswersAsFromList() throws IOException {
+        Random random = new Random(3);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ProcessInfo subject = random.nextBoolean() ? user : root;
+            FileInfo target = new FileInfo("/var/log/app" + random.nextInt(20), 3, "640");
+            events.add(new ReadEvent(time.plusSeconds(random.nextInt(3600)), subject, target, "mode=r"));
+        }
+        EventFileWriter.writeAll(file, events);
+
+        AnalyticsEngine engine = new AnalyticsEngine(new ArrayList<>());
+        assertEquals(5000, EventFileReader.loadInto(file, engine));
+        AnalyticsEngine expected = new AnalyticsEngine(events);
+        assertEquals(expected.topKFrequentEvents(5), engine.topKFrequentEvents(5));
+        assertEquals(expected.countByEventType(), engine.countByEventType());
+
+        // Far fewer bytes than the same records as CSV text
+        assertTrue(Files.size(file) < 5000 * 8);
+    }
+
+    @Test
+    public void testRead_TruncatedOrForeignFileFails() throws IOException {
+        EventFileWriter.writeAll(file, Arrays.asList(
+            new ReadEvent(time, user, new FileInfo("/etc/passwd", 3, "644"), "mode=r"),
+            new ForkEvent(time, user, root, "spawn")));
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int length : new int[] {0, 3, bytes.length / 2, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            try {
+                EventFileReader.readAll(file);
+                fail("Expected failure for length " + length);
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupt event file"));
+            }
+        }
+
+        Files.write(file, "timestamp,type\n".getBytes());
+        try {
+            EventFileReader.readAll(file);
+            fail("Expected failure for a CSV file");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("not an event file"));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package test_soclog.store;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import edu.hofstra.csc17.proj.soclog.analysis.AnalyticsEngine;
+import edu.hofstra.csc17.proj.soclog.model.entity.FileInfo;
+import edu.hofstra.csc17.proj.soclog.model.entity.ProcessInfo;
+import edu.hofstra.csc17.proj.soclog.model.event.*;
+import edu.hofstra.csc17.proj.soclog.store.Segment;
+import edu.hofstra.csc17.proj.soclog.store.SegmentStore;
+import edu.hofstra.csc17.proj.soclog.store.SegmentWriter;
+
+public class SegmentStoreTest {
+
+    private Path testDataDir;
+    private ProcessInfo user;
+    private ProcessInfo root;
+    private FileInfo file;
+    private Instant time;
+
+    @Before
+    public void setUp() throws IOException {
+        testDataDir = Files.createTempDirectory("soclog-segment-test");
+        user = new ProcessInfo("bash", 100, "/bin/bash", ProcessInfo.PRIV_USER);
+        root = new ProcessInfo("sudo", 101, "/usr/bin/sudo", ProcessInfo.PRIV_ROOT);
+        file = new FileInfo("/var/log/syslog", 3, "640");
+        time = Instant.parse("2024-01-01T00:00:00Z");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (testDataDir != null && Files.exists(testDataDir)) {
+            Files.walk(testDataDir)
+                .sorted((a, b) -> -a.compareTo(b))
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        // Ignore
+                    }
+                });
+        }
+    }
+
+    @Test
+    public void testWrite_OneSegmentPerHourWithHeader() throws IOException {
+        List<Segment> written = SegmentWriter.writeAll(testDataDir, Arrays.asList(
+            new ReadEvent(time.plusSeconds(10), user, file, "r"),
+            new WriteEvent(time.plusSeconds(3599), root, file, "w"),
+            new ReadEvent(time.plusSeconds(3600), user, file, "r"),
+            new ReadEvent(time.plusSeconds(5), user, file, "r")));
+        assertEquals(2, written.size());
+
+        SegmentStore store = new SegmentStore(testDataDir);
+        List<Segment> segments = store.getSegments();
+        assertEquals(2, segments.size());
+        Segment first = segments.get(0);
+        assertEquals(3, first.getCount());
+        assertEquals(time.plusSeconds(5), first.getMinTimestamp());
+        assertEquals(time.plusSeconds(3599), first.getMaxTimestamp());
+        Map<EventType, Long> types = new EnumMap<>(EventType.class);
+        types.put(EventType.read, 2L);
+        types.put(EventType.write, 1L);
+        assertEquals(types, first.getTypeCounts());
+        assertTrue(first.getFile().getFileName().toString().startsWith("segment-20240101T000000Z"));
+
+        // No temporary files are left behind
+        try (Stream<Path> files = Files.list(testDataDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void testOverlapping_PrunesByMinMax() throws IOException {
+        List<Event> events = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            events.add(new ReadEvent(time.plusSeconds(hour * 3600L + 60), user, file, "r"));
+            events.add(new ReadEvent(time.plusSeconds(hour * 3600L + 120), user, file, "r"));
+        }
+        SegmentWriter.writeAll(testDataDir, events);
+        SegmentStore store = new SegmentStore(testDataDir);
+        assertEquals(24, store.getSegments().size());
+
+        Instant start = time.plusSeconds(5 * 3600 + 90);
+        Instant end = time.plusSeconds(6 * 3600 + 30);
+        assertEquals(1, store.overlapping(start, end).size());
+        AnalyticsEngine engine = store.load(start, end);
+        assertEquals(1, engine.getStore().size());
+        assertEquals(time.plusSeconds(5 * 3600 + 120), engine.uniqueEvents().get(0).getTimestamp());
+
+        assertTrue(store.overlapping(time.minusSeconds(10), time).isEmpty());
+    }
+
+    @Test
+    public void testLoadAndCount_SameAsInMemoryWindow() throws IOException {
+        Random random = new Random(5);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Instant at = time.plusSeconds(random.nextInt(12 * 3600));
+            events.add(random.nextBoolean()
+                ? new ReadEvent(at, user, file, "r")
+                : new ForkEvent(at, user, root, "s"));
+        }
+        // Small partitions so the writer has to close and reopen partitions
+        try (SegmentWriter writer = new SegmentWriter(testDataDir, Duration.ofMinutes(10))) {
+            for (Event event : events) {
+                writer.write(event);
+            }
+        }
+        SegmentStore store = new SegmentStore(testDataDir);
+        AnalyticsEngine all = new AnalyticsEngine(events);
+
+        Instant start = time.plusSeconds(3 * 3600 + 17);
+        Instant end = time.plusSeconds(5 * 3600 + 1234);
+        AnalyticsEngine loaded = store.load(start, end);
+        assertEquals(new HashSet<>(all.uniqueEvents(start, end)), new HashSet<>(loaded.uniqueEvents()));
+
+        Map<EventType, Long> expected = new EnumMap<>(EventType.class);
+        for (Event event : events) {
+            if (!event.getTimestamp().isBefore(start) && !event.getTimestamp().isAfter(end)) {
+                expected.merge(event.getType(), 1L, Long::sum);
+            }
+        }
+        assertEquals(expected, store.countByEventType(start, end));
+    }
+
+    @Test
+    public void testWrite_SecondRunAddsSegments() throws IOException {
+        SegmentWriter.writeAll(testDataDir, Arrays.asList(new ReadEvent(time, user, file, "r")));
+        SegmentWriter.writeAll(testDataDir, Arrays.asList(new ReadEvent(time.plusSeconds(1), user, file, "r")));
+
+        SegmentStore store = new SegmentStore(testDataDir);
+        assertEquals(2, store.getSegments().size());
+        assertEquals(2, store.load(time, time.plusSeconds(1)).getStore().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlapping_StartAfterEnd() throws IOException {
+        new SegmentStore(testDataDir).overlapping(time.plusSeconds(1), time);
+    }
+}